@@ -81,7 +81,7 @@ public class CircumgraphApp
 		// Start the instance
 		start(config);
 
-		if(config.isDev())
+		if(config.isDev() || config.getConfig().isWatch())
 		{
 			// Start monitoring for changes
 			monitorChanges(config);
@@ -108,6 +108,39 @@ public class CircumgraphApp
 			: version;
 	}
 
+	/**
+	 * Reload the schema of the running instance, keeping the HTTP server and
+	 * storage open. If no instance is running, or if reloading fails
+	 * unexpectedly, the instance is restarted instead.
+	 *
+	 * @param config
+	 */
+	private static void reload(InstanceConfig config)
+	{
+		if(instance == null)
+		{
+			start(config);
+			return;
+		}
+
+		try
+		{
+			logger.info("Reloading...");
+			instance.reload();
+			logger.info("Reload complete");
+		}
+		catch(UnrecoverableException e)
+		{
+			// The new schema is invalid, keep serving the current one
+			logger.error(e.getMessage() + ", keeping the current schema");
+		}
+		catch(Exception e)
+		{
+			logger.warn("Could not reload, restarting; " + e.getMessage(), e);
+			start(config);
+		}
+	}
+
 	/**
 	 * Start an instance based on the given configuration. If an instance is
 	 * already running it will be shutdown.
@@ -169,9 +202,9 @@ public class CircumgraphApp
 
 	private static void monitorChanges(InstanceConfig config)
 	{
-		logger.info("Development mode, will monitor config for changes");
+		logger.info("Monitoring config for changes");
 
-		var executor = Executors.newScheduledThreadPool(1, r -> new Thread(r, "dev-mode"));
+		var executor = Executors.newScheduledThreadPool(1, r -> new Thread(r, "config-watcher"));
 		ScheduledFuture<?> future = null;
 		try
 		{
@@ -194,7 +227,7 @@ public class CircumgraphApp
 
 					if(future == null || future.isDone())
 					{
-						logger.info("Changes to config detected, restart queued");
+						logger.info("Changes to config detected, reload queued");
 					}
 					else if(future != null && ! future.isCancelled())
 					{
@@ -202,7 +235,7 @@ public class CircumgraphApp
 					}
 
 					future = executor.schedule(() -> {
-						start(config);
+						reload(config);
 					}, 1, TimeUnit.SECONDS);
 				}
 
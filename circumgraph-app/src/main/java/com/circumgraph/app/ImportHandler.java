@@ -0,0 +1,217 @@
+package com.circumgraph.app;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.circumgraph.graphql.internal.SchemaNames;
+import com.circumgraph.storage.Storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import graphql.ExecutionInput;
+import graphql.GraphQL;
+import graphql.GraphQLContext;
+import graphql.GraphQLError;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.RecordParser;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Handler that imports objects from newline delimited JSON. Every line is
+ * an object in the same format as the mutation passed to the store mutation
+ * of the collection.
+ *
+ * The body is streamed and lines are imported in batches via the store many
+ * mutation, so every batch is stored in a single transaction. Reading of the
+ * body is paused while a batch is being stored. If the import fails the rest
+ * of the body is read and discarded.
+ */
+public class ImportHandler
+	implements Handler<RoutingContext>
+{
+	private static final Logger logger = LoggerFactory.getLogger("com.circumgraph.import");
+
+	private static final int BATCH_SIZE = 500;
+
+	private final Storage storage;
+	private final GraphQL graphQL;
+
+	public ImportHandler(Storage storage, GraphQL graphQL)
+	{
+		this.storage = storage;
+		this.graphQL = graphQL;
+	}
+
+	@Override
+	public void handle(RoutingContext ctx)
+	{
+		var name = ctx.pathParam("collection");
+		var collection = storage.get(name);
+		if(collection == null)
+		{
+			ctx.response()
+				.setStatusCode(404)
+				.end(new JsonObject()
+					.put("error", "Unknown collection " + name)
+					.encode()
+				);
+			return;
+		}
+
+		var def = collection.getDefinition();
+		var query = "mutation($m: [" + SchemaNames.toMutationInputTypeName(def) + "!]!) { "
+			+ SchemaNames.toStoreManyMutationFieldName(def) + "(mutations: $m) { id } }";
+
+		new Import(ctx, query).start();
+	}
+
+	/**
+	 * State of a single import.
+	 */
+	private class Import
+	{
+		private final RoutingContext ctx;
+		private final Context context;
+		private final String query;
+
+		private final RecordParser parser;
+
+		private List<Object> batch;
+		private long imported;
+		private long line;
+		private boolean done;
+
+		public Import(RoutingContext ctx, String query)
+		{
+			this.ctx = ctx;
+			this.context = ctx.vertx().getOrCreateContext();
+			this.query = query;
+
+			batch = new ArrayList<>(BATCH_SIZE);
+			parser = RecordParser.newDelimited("\n", ctx.request());
+		}
+
+		public void start()
+		{
+			parser.handler(this::handleLine);
+			parser.exceptionHandler(e -> fail(500, e.getMessage()));
+			parser.endHandler(v -> {
+				if(done) return;
+
+				flush().onSuccess(ignored -> {
+					if(done) return;
+
+					done = true;
+					logger.info("Imported {} objects", imported);
+					ctx.response()
+						.putHeader("Content-Type", "application/json")
+						.end(new JsonObject()
+							.put("imported", imported)
+							.encode()
+						);
+				});
+			});
+		}
+
+		private void handleLine(Buffer buffer)
+		{
+			if(done) return;
+
+			line++;
+
+			var text = buffer.toString(StandardCharsets.UTF_8).trim();
+			if(text.isEmpty()) return;
+
+			try
+			{
+				batch.add(new JsonObject(text).getMap());
+			}
+			catch(DecodeException e)
+			{
+				fail(400, "Invalid JSON on line " + line + "; " + e.getMessage());
+				return;
+			}
+
+			if(batch.size() >= BATCH_SIZE)
+			{
+				parser.pause();
+				flush().onSuccess(v -> parser.resume());
+			}
+		}
+
+		/**
+		 * Store the current batch.
+		 *
+		 * @return
+		 */
+		private Future<Void> flush()
+		{
+			if(batch.isEmpty())
+			{
+				return Future.succeededFuture();
+			}
+
+			var mutations = batch;
+			batch = new ArrayList<>(BATCH_SIZE);
+
+			var input = ExecutionInput.newExecutionInput(query)
+				.variables(Map.of("m", mutations))
+				.context(GraphQLContext.newContext())
+				.build();
+
+			return Future.fromCompletionStage(graphQL.executeAsync(input), context)
+				.compose(result -> {
+					if(! result.getErrors().isEmpty())
+					{
+						var errors = new JsonArray();
+						for(GraphQLError error : result.getErrors())
+						{
+							errors.add(error.getMessage());
+						}
+
+						fail(400, errors);
+						return Future.failedFuture("Import failed");
+					}
+
+					imported += mutations.size();
+					return Future.<Void>succeededFuture();
+				}, e -> {
+					fail(500, e.getMessage());
+					return Future.failedFuture(e);
+				});
+		}
+
+		private void fail(int status, Object errors)
+		{
+			if(done) return;
+
+			done = true;
+			logger.warn("Import failed after {} objects; {}", imported, errors);
+
+			ctx.response()
+				.setStatusCode(status)
+				.putHeader("Content-Type", "application/json")
+				.end(new JsonObject()
+					.put("imported", imported)
+					.put("errors", errors instanceof JsonArray ? errors : new JsonArray().add(errors))
+					.encode()
+				);
+
+			/*
+			 * Reading may have been paused while a batch was stored, resume
+			 * it so the rest of the body is drained and ignored instead of
+			 * leaving the connection stuck.
+			 */
+			parser.resume();
+		}
+	}
+}
@@ -1,10 +1,10 @@
 package com.circumgraph.app;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
 import com.circumgraph.app.config.ConfigConfig;
-import com.circumgraph.app.config.HTTPServerConfig;
 import com.circumgraph.app.config.InstanceConfig;
 import com.circumgraph.app.config.StorageConfig;
 import com.circumgraph.graphql.GraphQLAPISchema;
@@ -19,8 +19,6 @@ import com.circumgraph.schema.graphql.GraphQLSchema;
 import com.circumgraph.schema.graphql.TextSource;
 import com.circumgraph.storage.Storage;
 import com.circumgraph.storage.StorageSchema;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.ListIterable;
@@ -28,11 +26,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import graphql.GraphQL;
-import graphql.execution.preparsed.PreparsedDocumentEntry;
-import graphql.execution.preparsed.PreparsedDocumentProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerOptions;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.ext.web.handler.graphql.ApolloWSHandler;
 import io.vertx.ext.web.handler.graphql.GraphQLHandler;
 import io.vertx.ext.web.handler.graphql.GraphQLHandlerOptions;
 
@@ -46,13 +55,26 @@ public class Instance
 		.withMessage("{{message}}")
 		.build();
 
-	private final Storage storage;
-	private final Vertx vertx;
+	private final InstanceConfig config;
+	private final PrometheusMeterRegistry meterRegistry;
 
-	public Instance(Storage storage, Vertx vertx)
+	private volatile Storage storage;
+	/**
+	 * Handlers that depend on the model, replaced as a whole when the model
+	 * is reloaded.
+	 */
+	private volatile Routes routes;
+	private Vertx vertx;
+
+	private Instance(
+		InstanceConfig config,
+		PrometheusMeterRegistry meterRegistry,
+		Storage storage
+	)
 	{
+		this.config = config;
+		this.meterRegistry = meterRegistry;
 		this.storage = storage;
-		this.vertx = vertx;
 	}
 
 	public void close()
@@ -65,17 +87,55 @@ public class Instance
 		storage.close();
 	}
 
+	/**
+	 * Reload the model and switch to it without restarting the HTTP server.
+	 * The storage is kept open if no collection has changed how it is stored
+	 * or indexed, and requests are switched over to the new GraphQL API once
+	 * it has been created.
+	 */
+	public synchronized void reload()
+	{
+		var model = loadModel(config.getConfig());
+
+		Storage reloaded;
+		try
+		{
+			long start = System.currentTimeMillis();
+			reloaded = storage.reload(model).block();
+			logger.info("Storage reloaded in {} ms", System.currentTimeMillis() - start);
+		}
+		catch(Exception e)
+		{
+			throw new MaybeTemporaryException("Unexpected error reloading storage; " + e.getMessage(), e);
+		}
+
+		storage = reloaded;
+		logMigrations(reloaded);
+
+		// Meters of the current cache are removed so the new cache can register its own
+		routes.queryCache.close();
+
+		var queryCache = new QueryCache(config.getGraphql().getQueryCacheSize(), meterRegistry);
+		var graphQL = createGraphQL(reloaded, meterRegistry, queryCache);
+		routes = new Routes(reloaded, graphQL, queryCache);
+	}
+
 	public static Instance start(InstanceConfig config)
 	{
+		var meterRegistry = createMeterRegistry();
 		var model = loadModel(config.getConfig());
-		var storage = openStorage(config.getStorage(), model);
+		var storage = openStorage(config.getStorage(), model, meterRegistry);
 
 		try
 		{
-			var graphQL = createGraphQL(storage);
-			var vertx = startServer(config.getHttp().getServer(), graphQL);
+			var instance = new Instance(config, meterRegistry, storage);
 
-			return new Instance(storage, vertx);
+			var queryCache = new QueryCache(config.getGraphql().getQueryCacheSize(), meterRegistry);
+			var graphQL = createGraphQL(storage, meterRegistry, queryCache);
+			instance.routes = new Routes(storage, graphQL, queryCache);
+			instance.vertx = instance.startServer();
+
+			return instance;
 		}
 		catch(Exception e)
 		{
@@ -215,7 +275,30 @@ public class Instance
 		logger.error("Found issues with model\n\n" + messages + "\n");
 	}
 
-	private static Storage openStorage(StorageConfig config, Model model)
+	/**
+	 * Create the registry used for metrics. Metrics are exposed in the
+	 * Prometheus format, including metrics about the JVM.
+	 *
+	 * @return
+	 */
+	private static PrometheusMeterRegistry createMeterRegistry()
+	{
+		var registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+
+		new ClassLoaderMetrics().bindTo(registry);
+		new JvmMemoryMetrics().bindTo(registry);
+		new JvmThreadMetrics().bindTo(registry);
+		new ProcessorMetrics().bindTo(registry);
+		new UptimeMetrics().bindTo(registry);
+
+		return registry;
+	}
+
+	private static Storage openStorage(
+		StorageConfig config,
+		Model model,
+		MeterRegistry meterRegistry
+	)
 	{
 		var dir = config.getDir();
 		logger.info("Storing data in {}", dir.toAbsolutePath().normalize());
@@ -232,9 +315,25 @@ public class Instance
 
 		try
 		{
-			return Storage.open(model, dir)
+			var builder = Storage.open(model, dir)
+				.withMeterRegistry(meterRegistry)
+				.withSearchCache(config.getSearchCacheSize())
+				.withSnapshotRateLimit(config.getSnapshotRateLimit())
+				.withMigrationRateLimit(config.getMigrationRateLimit());
+
+			var restoreFrom = config.getRestoreFrom();
+			if(restoreFrom != null && isEmpty(dir))
+			{
+				logger.info("Restoring data from snapshot in {}", restoreFrom.toAbsolutePath().normalize());
+				builder = builder.withRestoreFrom(restoreFrom);
+			}
+
+			var storage = builder
 				.start()
 				.block();
+
+			logMigrations(storage);
+			return storage;
 		}
 		catch(Exception e)
 		{
@@ -243,42 +342,97 @@ public class Instance
 		}
 	}
 
-	private static GraphQL createGraphQL(Storage storage)
+	/**
+	 * Log the migrations started due to schema changes and when they
+	 * complete. The instance keeps serving requests while migrating.
+	 *
+	 * @param storage
+	 */
+	private static void logMigrations(Storage storage)
 	{
-		// Setup caching of queries
-		Cache<String, PreparsedDocumentEntry> cache = Caffeine.newBuilder()
-			.maximumWeight(1024 * 10) // TODO: Configuration
-			.weigher((String key, PreparsedDocumentEntry value) -> key.length())
-			.build();
+		var migrations = storage.getMigrations();
+		if(migrations.isEmpty()) return;
 
-		PreparsedDocumentProvider queryProvider = (in, compute) -> cache.get(in.getQuery(), k -> compute.apply(in));
+		for(var migration : migrations)
+		{
+			logger.info(
+				"Schema of {} has changed, migrating to version {} in the background",
+				migration.getCollection().getDefinition().getName(),
+				migration.getSchemaVersion()
+			);
+		}
 
-		// TODO: ApolloPersistedQuery support
+		long start = System.currentTimeMillis();
+		storage.awaitMigrations()
+			.subscribe(
+				null,
+				e -> logger.error("Migration failed; " + e.getMessage(), e),
+				() -> logger.info("Migrations completed in {} ms", System.currentTimeMillis() - start)
+			);
+	}
 
-		return new GraphQLGenerator(storage)
+	private static boolean isEmpty(Path dir)
+		throws IOException
+	{
+		try(var files = Files.list(dir))
+		{
+			return files.findAny().isEmpty();
+		}
+	}
+
+	/**
+	 * Create the GraphQL API for a storage.
+	 *
+	 * @param storage
+	 * @param meterRegistry
+	 * @param queryCache
+	 *   cache of parsed queries, including Apollo persisted queries
+	 * @return
+	 */
+	private static GraphQL createGraphQL(
+		Storage storage,
+		MeterRegistry meterRegistry,
+		QueryCache queryCache
+	)
+	{
+		return new GraphQLGenerator(storage, meterRegistry)
 			.generate()
-			.preparsedDocumentProvider(queryProvider)
+			.preparsedDocumentProvider(queryCache)
 			.build();
 	}
 
-	private static Vertx startServer(
-		HTTPServerConfig config,
-		GraphQL graphQL
-	)
+	private Vertx startServer()
 	{
 		var vertx = Vertx.vertx();
+		var storageConfig = config.getStorage();
 
-		var graphQLHandlerOptions = new GraphQLHandlerOptions()
-			.setRequestBatchingEnabled(true);
+		/*
+		 * Handlers that depend on the model are looked up for every request,
+		 * so that a reloaded model is used without recreating the router.
+		 */
+		Router router = Router.router(vertx);
+		router.post("/graphql").handler(BodyHandler.create());
+		// Subscriptions are served over WebSockets using the Apollo protocol
+		router.route("/graphql").handler(ctx -> routes.subscriptions.handle(ctx));
+		router.route("/graphql").handler(ctx -> routes.graphQL.handle(ctx));
+
+		// Import is streamed so it must not use the body handler
+		router.post("/import/:collection").handler(ctx -> routes.importer.handle(ctx));
+		if(storageConfig.getSnapshotDir() != null)
+		{
+			router.post("/snapshot").handler(new SnapshotHandler(() -> storage, storageConfig.getSnapshotDir()));
+		}
 
-		var graphQLHandler = GraphQLHandler.create(graphQL, graphQLHandlerOptions);
+		router.get("/metrics").handler(ctx -> ctx.response()
+			.putHeader("Content-Type", TextFormat.CONTENT_TYPE_004)
+			.end(meterRegistry.scrape())
+		);
 
-		Router router = Router.router(vertx);
-		router.post().handler(BodyHandler.create());
-		router.route("/graphql").handler(graphQLHandler);
+		var port = config.getHttp().getServer().getPort();
+		var serverOptions = new HttpServerOptions()
+			.addWebSocketSubProtocol("graphql-ws");
 
-		var port = config.getPort();
-		vertx.createHttpServer()
+		vertx.createHttpServer(serverOptions)
 			.requestHandler(router)
 			.listen(port)
 			.toCompletionStage()
@@ -290,4 +444,26 @@ public class Instance
 
 		return vertx;
 	}
+
+	/**
+	 * The handlers created for a certain model.
+	 */
+	private static class Routes
+	{
+		private final Handler<RoutingContext> subscriptions;
+		private final Handler<RoutingContext> graphQL;
+		private final Handler<RoutingContext> importer;
+		private final QueryCache queryCache;
+
+		public Routes(Storage storage, GraphQL graphQL, QueryCache queryCache)
+		{
+			var graphQLHandlerOptions = new GraphQLHandlerOptions()
+				.setRequestBatchingEnabled(true);
+
+			this.subscriptions = ApolloWSHandler.create(graphQL);
+			this.graphQL = GraphQLHandler.create(graphQL, graphQLHandlerOptions);
+			this.importer = new ImportHandler(storage, graphQL);
+			this.queryCache = queryCache;
+		}
+	}
 }
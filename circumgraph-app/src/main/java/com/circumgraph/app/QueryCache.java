@@ -0,0 +1,187 @@
+package com.circumgraph.app;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.ApolloPersistedQuerySupport;
+import graphql.execution.preparsed.persisted.PersistedQueryCache;
+import graphql.execution.preparsed.persisted.PersistedQueryCacheMiss;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.Node;
+import graphql.language.NodeTraverser;
+import graphql.language.NodeVisitorStub;
+import graphql.util.TraversalControl;
+import graphql.util.TraverserContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache of parsed and validated queries. Queries are cached by their text,
+ * or by their hash if sent as an Apollo persisted query. Entries are weighed
+ * by the number of nodes in the parsed document so that the size of the
+ * cache follows the memory used by the documents.
+ *
+ * Hits, misses and evictions are reported via the given
+ * {@link MeterRegistry}.
+ */
+public class QueryCache
+	implements PreparsedDocumentProvider
+{
+	private static final String CACHE_NAME = "circumgraph.graphql.queries";
+
+	private final MeterRegistry meterRegistry;
+	private final Cache<Object, PreparsedDocumentEntry> cache;
+	private final PreparsedDocumentProvider persistedQueries;
+
+	public QueryCache(long maximumSize, MeterRegistry meterRegistry)
+	{
+		this.meterRegistry = meterRegistry;
+
+		cache = Caffeine.newBuilder()
+			.maximumWeight(maximumSize)
+			.weigher((Object key, PreparsedDocumentEntry entry) -> weigh(entry))
+			.recordStats()
+			.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+		persistedQueries = new ApolloPersistedQuerySupport(new PersistedQueries());
+	}
+
+	/**
+	 * Remove the metrics of this cache from the registry, used when the
+	 * cache is replaced so that the new cache can register its own metrics.
+	 */
+	public void close()
+	{
+		for(var meter : meterRegistry.getMeters())
+		{
+			if(CACHE_NAME.equals(meter.getId().getTag("cache")))
+			{
+				meterRegistry.remove(meter);
+			}
+		}
+	}
+
+	@Override
+	public PreparsedDocumentEntry getDocument(
+		ExecutionInput executionInput,
+		Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+	)
+	{
+		var extensions = executionInput.getExtensions();
+		if(extensions != null && extensions.containsKey("persistedQuery"))
+		{
+			return persistedQueries.getDocument(executionInput, parseAndValidateFunction);
+		}
+
+		return cache.get(
+			executionInput.getQuery(),
+			key -> parseAndValidateFunction.apply(executionInput)
+		);
+	}
+
+	/**
+	 * Get the weight of an entry, which is the number of nodes in the parsed
+	 * document. Entries for queries that failed validation have no document
+	 * and are given the lowest weight.
+	 *
+	 * @param entry
+	 * @return
+	 */
+	private static int weigh(PreparsedDocumentEntry entry)
+	{
+		var document = entry.getDocument();
+		if(document == null)
+		{
+			return 1;
+		}
+
+		var counter = new NodeCounter();
+		new NodeTraverser().depthFirst(counter, document);
+		return Math.max(1, counter.count);
+	}
+
+	/**
+	 * Cache used for Apollo persisted queries, stores documents under the
+	 * hash of the query in the same cache as regular queries.
+	 */
+	private class PersistedQueries
+		implements PersistedQueryCache
+	{
+		@Override
+		public PreparsedDocumentEntry getPersistedQueryDocument(
+			Object persistedQueryId,
+			ExecutionInput executionInput,
+			PersistedQueryCacheMiss onCacheMiss
+		)
+		{
+			return cache.get(new PersistedQueryKey(persistedQueryId), key -> {
+				var query = executionInput.getQuery();
+				if(query == null
+					|| query.isBlank()
+					|| query.equals(PersistedQuerySupport.PERSISTED_QUERY_MARKER))
+				{
+					// Only the hash was sent, ask the client to send the query
+					throw new PersistedQueryNotFound(persistedQueryId);
+				}
+
+				return onCacheMiss.apply(query);
+			});
+		}
+	}
+
+	/**
+	 * Key used for persisted queries, keeps them apart from keys that are
+	 * the text of a query.
+	 */
+	private static class PersistedQueryKey
+	{
+		private final Object id;
+
+		public PersistedQueryKey(Object id)
+		{
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(id);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if(this == obj) return true;
+			if(obj == null) return false;
+			if(getClass() != obj.getClass()) return false;
+			PersistedQueryKey other = (PersistedQueryKey) obj;
+			return Objects.equals(id, other.id);
+		}
+	}
+
+	/**
+	 * Visitor that counts the nodes in a document.
+	 */
+	private static class NodeCounter
+		extends NodeVisitorStub
+	{
+		private int count;
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		protected TraversalControl visitNode(Node node, TraverserContext<Node> context)
+		{
+			count++;
+			return TraversalControl.CONTINUE;
+		}
+	}
+}
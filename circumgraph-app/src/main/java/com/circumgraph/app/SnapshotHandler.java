@@ -0,0 +1,82 @@
+package com.circumgraph.app;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.circumgraph.storage.Storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Handler that creates a snapshot of the storage in the configured
+ * directory. The snapshot is created while the instance keeps serving
+ * requests, and only one snapshot is created at a time.
+ */
+public class SnapshotHandler
+	implements Handler<RoutingContext>
+{
+	private static final Logger logger = LoggerFactory.getLogger("com.circumgraph.snapshot");
+
+	private final Supplier<Storage> storage;
+	private final Path dir;
+	private final AtomicBoolean running;
+
+	public SnapshotHandler(Supplier<Storage> storage, Path dir)
+	{
+		this.storage = storage;
+		this.dir = dir;
+
+		running = new AtomicBoolean();
+	}
+
+	@Override
+	public void handle(RoutingContext ctx)
+	{
+		if(! running.compareAndSet(false, true))
+		{
+			ctx.response()
+				.setStatusCode(409)
+				.putHeader("Content-Type", "application/json")
+				.end(new JsonObject()
+					.put("error", "A snapshot is already being created")
+					.encode()
+				);
+			return;
+		}
+
+		long start = System.currentTimeMillis();
+		logger.info("Creating snapshot in {}", dir.toAbsolutePath().normalize());
+
+		storage.get().snapshot(dir)
+			.doFinally(s -> running.set(false))
+			.subscribe(
+				null,
+				e -> {
+					logger.warn("Failed to create snapshot; " + e.getMessage(), e);
+					ctx.response()
+						.setStatusCode(500)
+						.putHeader("Content-Type", "application/json")
+						.end(new JsonObject()
+							.put("error", e.getMessage())
+							.encode()
+						);
+				},
+				() -> {
+					long time = System.currentTimeMillis() - start;
+					logger.info("Snapshot created in {} ms", time);
+					ctx.response()
+						.putHeader("Content-Type", "application/json")
+						.end(new JsonObject()
+							.put("time", time)
+							.encode()
+						);
+				}
+			);
+	}
+}
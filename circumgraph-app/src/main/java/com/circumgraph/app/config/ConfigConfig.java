@@ -17,6 +17,9 @@ public class ConfigConfig
 	@NotNull
 	private Path dir = Path.of("/config");
 
+	@Expose
+	private boolean watch;
+
 	public Path getDir()
 	{
 		return dir;
@@ -26,4 +29,20 @@ public class ConfigConfig
 	{
 		this.dir = dir;
 	}
+
+	/**
+	 * Get if the schema should be reloaded when files in the config
+	 * directory change. Always done in development mode.
+	 *
+	 * @return
+	 */
+	public boolean isWatch()
+	{
+		return watch;
+	}
+
+	public void setWatch(boolean watch)
+	{
+		this.watch = watch;
+	}
 }
@@ -0,0 +1,31 @@
+package com.circumgraph.app.config;
+
+import javax.validation.constraints.Min;
+
+import se.l4.exobytes.AnnotationSerialization;
+import se.l4.exobytes.Expose;
+
+/**
+ * Configuration for the GraphQL API.
+ */
+@AnnotationSerialization
+public class GraphQLConfig
+{
+	/**
+	 * Maximum size of the cache of parsed and validated queries, measured in
+	 * the number of nodes in the parsed documents.
+	 */
+	@Expose
+	@Min(0)
+	private long queryCacheSize = 100_000;
+
+	public long getQueryCacheSize()
+	{
+		return queryCacheSize;
+	}
+
+	public void setQueryCacheSize(long queryCacheSize)
+	{
+		this.queryCacheSize = queryCacheSize;
+	}
+}
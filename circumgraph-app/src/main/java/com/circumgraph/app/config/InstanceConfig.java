@@ -27,6 +27,10 @@ public class InstanceConfig
 	@NonNull @Valid
 	private HTTPConfig http = new HTTPConfig();
 
+	@Expose
+	@NonNull @Valid
+	private GraphQLConfig graphql = new GraphQLConfig();
+
 	public boolean isDev()
 	{
 		return "dev".equalsIgnoreCase(env) || "development".equalsIgnoreCase(env);
@@ -61,4 +65,14 @@ public class InstanceConfig
 	{
 		this.http = http;
 	}
+
+	public GraphQLConfig getGraphql()
+	{
+		return graphql;
+	}
+
+	public void setGraphql(GraphQLConfig graphql)
+	{
+		this.graphql = graphql;
+	}
 }
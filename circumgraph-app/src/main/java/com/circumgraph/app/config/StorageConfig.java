@@ -2,6 +2,8 @@ package com.circumgraph.app.config;
 
 import java.nio.file.Path;
 
+import javax.validation.constraints.Min;
+
 import reactor.util.annotation.NonNull;
 import se.l4.exobytes.AnnotationSerialization;
 import se.l4.exobytes.Expose;
@@ -16,6 +18,44 @@ public class StorageConfig
 	@NonNull
 	private Path dir = Path.of("/data");
 
+	/**
+	 * Maximum number of search hits to cache per collection, {@code 0}
+	 * disables caching of search results.
+	 */
+	@Expose
+	@Min(0)
+	private long searchCacheSize = 0;
+
+	/**
+	 * Directory that snapshots are written to, snapshots can not be
+	 * created if not set.
+	 */
+	@Expose
+	private Path snapshotDir;
+
+	/**
+	 * Maximum number of bytes per second read and written while creating a
+	 * snapshot, {@code 0} for no limit.
+	 */
+	@Expose
+	@Min(0)
+	private long snapshotRateLimit = 32 * 1024 * 1024;
+
+	/**
+	 * Directory containing a snapshot to restore if the data directory is
+	 * empty.
+	 */
+	@Expose
+	private Path restoreFrom;
+
+	/**
+	 * Maximum number of objects migrated per second after the schema of a
+	 * collection has changed, {@code 0} for no limit.
+	 */
+	@Expose
+	@Min(0)
+	private long migrationRateLimit = 5000;
+
 	public Path getDir()
 	{
 		return dir;
@@ -25,4 +65,54 @@ public class StorageConfig
 	{
 		this.dir = dir;
 	}
+
+	public long getSearchCacheSize()
+	{
+		return searchCacheSize;
+	}
+
+	public void setSearchCacheSize(long searchCacheSize)
+	{
+		this.searchCacheSize = searchCacheSize;
+	}
+
+	public Path getSnapshotDir()
+	{
+		return snapshotDir;
+	}
+
+	public void setSnapshotDir(Path snapshotDir)
+	{
+		this.snapshotDir = snapshotDir;
+	}
+
+	public long getSnapshotRateLimit()
+	{
+		return snapshotRateLimit;
+	}
+
+	public void setSnapshotRateLimit(long snapshotRateLimit)
+	{
+		this.snapshotRateLimit = snapshotRateLimit;
+	}
+
+	public Path getRestoreFrom()
+	{
+		return restoreFrom;
+	}
+
+	public void setRestoreFrom(Path restoreFrom)
+	{
+		this.restoreFrom = restoreFrom;
+	}
+
+	public long getMigrationRateLimit()
+	{
+		return migrationRateLimit;
+	}
+
+	public void setMigrationRateLimit(long migrationRateLimit)
+	{
+		this.migrationRateLimit = migrationRateLimit;
+	}
 }
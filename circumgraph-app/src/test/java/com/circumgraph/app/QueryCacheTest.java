@@ -0,0 +1,95 @@
+package com.circumgraph.app;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import graphql.ExecutionInput;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQueryNotFound;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class QueryCacheTest
+{
+	private static final String QUERY = "{ test { get(id: \"1\") { id } } }";
+	private static final String QUERY_HASH = "9ecdb61b43916e222887a358b9e5e1a44c1508a43a0faed00dbac7330c3c25fa";
+
+	private SimpleMeterRegistry registry;
+	private QueryCache cache;
+	private AtomicInteger parsed;
+
+	@BeforeEach
+	public void setup()
+	{
+		registry = new SimpleMeterRegistry();
+		cache = new QueryCache(1000, registry);
+		parsed = new AtomicInteger();
+	}
+
+	private Function<ExecutionInput, PreparsedDocumentEntry> parser()
+	{
+		return in -> {
+			parsed.incrementAndGet();
+			return new PreparsedDocumentEntry(new Parser().parseDocument(in.getQuery()));
+		};
+	}
+
+	@Test
+	public void testQueryParsedOnce()
+	{
+		var input = ExecutionInput.newExecutionInput(QUERY).build();
+
+		cache.getDocument(input, parser());
+		cache.getDocument(input, parser());
+
+		assertThat(parsed.get(), is(1));
+		assertThat(registry.get("circumgraph.graphql.queries.gets").tag("result", "hit").functionCounter().count(), is(1.0));
+		assertThat(registry.get("circumgraph.graphql.queries.gets").tag("result", "miss").functionCounter().count(), is(1.0));
+	}
+
+	@Test
+	public void testPersistedQueryNotFound()
+	{
+		var input = ExecutionInput.newExecutionInput(PersistedQuerySupport.PERSISTED_QUERY_MARKER)
+			.extensions(persistedQuery())
+			.build();
+
+		assertThrows(PersistedQueryNotFound.class, () -> cache.getDocument(input, parser()));
+	}
+
+	@Test
+	public void testPersistedQueryRegisteredAndReused()
+	{
+		var register = ExecutionInput.newExecutionInput(QUERY)
+			.extensions(persistedQuery())
+			.build();
+
+		cache.getDocument(register, parser());
+
+		var reuse = ExecutionInput.newExecutionInput(PersistedQuerySupport.PERSISTED_QUERY_MARKER)
+			.extensions(persistedQuery())
+			.build();
+
+		var entry = cache.getDocument(reuse, parser());
+
+		assertThat(entry.hasErrors(), is(false));
+		assertThat(parsed.get(), is(1));
+	}
+
+	private static Map<String, Object> persistedQuery()
+	{
+		return Map.of("persistedQuery", Map.of(
+			"version", 1,
+			"sha256Hash", QUERY_HASH
+		));
+	}
+}
@@ -0,0 +1,215 @@
+package com.circumgraph.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import com.circumgraph.graphql.GraphQLAPISchema;
+import com.circumgraph.model.Model;
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.schema.graphql.GraphQLSchema;
+import com.circumgraph.schema.graphql.TextSource;
+import com.circumgraph.storage.Collection;
+import com.circumgraph.storage.Storage;
+import com.circumgraph.storage.StorageSchema;
+import com.circumgraph.storage.mutation.ListSetMutation;
+import com.circumgraph.storage.mutation.Mutation;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.mutation.StructuredMutation;
+
+import org.eclipse.collections.api.factory.Lists;
+
+/**
+ * Storage used by benchmarks. Opens a {@link Storage} in a temporary
+ * directory using a schema with nested and polymorphic types, and contains
+ * helpers for creating realistic documents.
+ */
+public class BenchmarkStorage
+	implements AutoCloseable
+{
+	public static final String SCHEMA = """
+		interface Document implements Entity {
+			title: String! @index(type: TYPE_AHEAD) @sortable
+
+			published: Int! @index @sortable
+
+			tags: [String!]! @index(type: TOKEN)
+
+			author: Author @index
+
+			sections: [Section!]!
+		}
+
+		type Article implements Document {
+			summary: String
+		}
+
+		type Guide implements Document {
+			level: Int! @index
+		}
+
+		type Section {
+			heading: String! @index(type: FULL_TEXT)
+
+			blocks: [Block!]!
+		}
+
+		union Block = TextBlock | ImageBlock
+
+		type TextBlock {
+			text: String!
+		}
+
+		type ImageBlock {
+			url: String!
+
+			caption: String
+		}
+
+		type Author implements Entity {
+			name: String! @index(type: TYPE_AHEAD)
+		}
+	""";
+
+	private final Path path;
+	private final Model model;
+	private final Storage storage;
+
+	private BenchmarkStorage(Path path, Model model, Storage storage)
+	{
+		this.path = path;
+		this.model = model;
+		this.storage = storage;
+	}
+
+	public Path getPath()
+	{
+		return path;
+	}
+
+	public Model getModel()
+	{
+		return model;
+	}
+
+	public Storage getStorage()
+	{
+		return storage;
+	}
+
+	/**
+	 * Get the collection that documents are stored in.
+	 *
+	 * @return
+	 */
+	public Collection getDocuments()
+	{
+		return storage.get("Document");
+	}
+
+	/**
+	 * Get a type from the model.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public StructuredDef getType(String name)
+	{
+		return model.get(name, StructuredDef.class).get();
+	}
+
+	/**
+	 * Create a mutation for an article with the given number of sections,
+	 * every section contains a mix of text and image blocks.
+	 *
+	 * @param index
+	 * @param sections
+	 * @return
+	 */
+	public StructuredMutation createArticle(int index, int sections)
+	{
+		var sectionMutations = Lists.mutable.<Mutation>empty();
+		for(int i=0; i<sections; i++)
+		{
+			sectionMutations.add(createSection(i));
+		}
+
+		return getDocuments().newMutation(getType("Article"))
+			.updateField("title", ScalarValueMutation.createString("Article " + index))
+			.updateField("published", ScalarValueMutation.createInt(2000 + index % 20))
+			.updateField("tags", ListSetMutation.create(
+				ScalarValueMutation.createString("tag" + index % 10),
+				ScalarValueMutation.createString("benchmark")
+			))
+			.updateField("summary", ScalarValueMutation.createString("Summary of article " + index))
+			.updateField("sections", ListSetMutation.create(sectionMutations))
+			.build();
+	}
+
+	private StructuredMutation createSection(int index)
+	{
+		return StructuredMutation.create(getType("Section"))
+			.updateField("heading", ScalarValueMutation.createString("Section " + index))
+			.updateField("blocks", ListSetMutation.create(
+				StructuredMutation.create(getType("TextBlock"))
+					.updateField("text", ScalarValueMutation.createString("Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(8)))
+					.build(),
+				StructuredMutation.create(getType("ImageBlock"))
+					.updateField("url", ScalarValueMutation.createString("https://example.com/images/" + index + ".png"))
+					.updateField("caption", ScalarValueMutation.createString("Image " + index))
+					.build(),
+				StructuredMutation.create(getType("TextBlock"))
+					.updateField("text", ScalarValueMutation.createString("Sed do eiusmod tempor incididunt ut labore."))
+					.build()
+			))
+			.build();
+	}
+
+	@Override
+	public void close()
+		throws IOException
+	{
+		storage.close();
+
+		try(var files = Files.walk(path))
+		{
+			for(var file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+			{
+				Files.delete(file);
+			}
+		}
+	}
+
+	/**
+	 * Create a model for {@link #SCHEMA}.
+	 *
+	 * @return
+	 */
+	public static Model createModel()
+	{
+		return Model.create()
+			.addSchema(StorageSchema.INSTANCE)
+			.addSchema(new GraphQLAPISchema())
+			.addSchema(GraphQLSchema.create(TextSource.create("<benchmark>", SCHEMA)))
+			.build();
+	}
+
+	/**
+	 * Open a new storage in a temporary directory.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public static BenchmarkStorage open()
+		throws IOException
+	{
+		var path = Files.createTempDirectory("circumgraph-benchmark");
+		var model = createModel();
+		var storage = Storage.open(model, path)
+			.start()
+			.block();
+
+		return new BenchmarkStorage(path, model, storage);
+	}
+}
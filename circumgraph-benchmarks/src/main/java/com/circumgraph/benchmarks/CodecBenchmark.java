@@ -0,0 +1,105 @@
+package com.circumgraph.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.internal.ObjectCodecImpl;
+import com.circumgraph.storage.internal.SchemaDictionary;
+import com.circumgraph.storage.internal.ValueSerializers;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ObjectCodecImpl}, encoding and decoding polymorphic
+ * documents with nested lists of objects and unions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark
+{
+	@Param({ "1", "10", "50" })
+	public int sections;
+
+	private BenchmarkStorage storage;
+	private ObjectCodecImpl codec;
+
+	private StoredObjectValue value;
+	private byte[] encoded;
+
+	@Setup(Level.Trial)
+	public void setup()
+		throws IOException
+	{
+		storage = BenchmarkStorage.open();
+
+		var model = storage.getModel();
+		var def = storage.getType("Document");
+		var dictionary = SchemaDictionary.open(storage.getPath().resolve("names.dictionary"), model);
+
+		codec = new ObjectCodecImpl(
+			model,
+			dictionary,
+			new ValueSerializers(model).resolvePolymorphic(def, Lists.immutable.of(def), false),
+			new ValueSerializers(model, dictionary).resolvePolymorphic(def, Lists.immutable.of(def), false)
+		);
+
+		value = storage.getDocuments()
+			.store(storage.createArticle(1, sections))
+			.block();
+
+		encoded = encode();
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown()
+		throws IOException
+	{
+		storage.close();
+	}
+
+	@Benchmark
+	public byte[] encode()
+		throws IOException
+	{
+		var out = new ByteArrayOutputStream(4096);
+		codec.encode(value, out);
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public Object decode()
+		throws IOException
+	{
+		var decoded = codec.decode(new ByteArrayInputStream(encoded));
+
+		// Access the fields to force the entire object to be decoded
+		return decoded.getFields();
+	}
+
+	@Benchmark
+	public Object decodeIdOnly()
+		throws IOException
+	{
+		return codec.decode(new ByteArrayInputStream(encoded)).getId();
+	}
+}
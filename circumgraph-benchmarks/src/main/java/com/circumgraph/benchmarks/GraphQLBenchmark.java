@@ -0,0 +1,193 @@
+package com.circumgraph.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.circumgraph.graphql.GraphQLGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.GraphQLContext;
+
+/**
+ * End-to-end benchmarks executing queries against a generated GraphQL API
+ * backed by a storage in a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphQLBenchmark
+{
+	private static final String GET_QUERY = """
+		query($id: ID!) {
+			document {
+				get(id: $id) {
+					id
+					title
+				}
+			}
+		}
+	""";
+
+	private static final String LIST_QUERY = """
+		query {
+			document {
+				search(sort: [ { field: PUBLISHED } ], first: 20) {
+					totalCount
+
+					nodes {
+						id
+						title
+					}
+				}
+			}
+		}
+	""";
+
+	private static final String NESTED_QUERY = """
+		query {
+			document {
+				search(sort: [ { field: PUBLISHED } ], first: 20) {
+					nodes {
+						id
+						title
+						tags
+
+						sections {
+							heading
+
+							blocks {
+								... on TextBlock {
+									text
+								}
+
+								... on ImageBlock {
+									url
+									caption
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+	""";
+
+	private static final String STORE_MUTATION = """
+		mutation($m: DocumentMutationInput!) {
+			storeDocument(mutation: $m) {
+				id
+			}
+		}
+	""";
+
+	@Param({ "1000" })
+	public int documents;
+
+	@Param({ "5" })
+	public int sections;
+
+	private BenchmarkStorage storage;
+	private GraphQL graphQL;
+
+	private String id;
+
+	@Setup(Level.Trial)
+	public void setup()
+		throws IOException
+	{
+		storage = BenchmarkStorage.open();
+
+		var generator = new GraphQLGenerator(storage.getStorage());
+		graphQL = generator.generate(generator.generateSchema())
+			.build();
+
+		var collection = storage.getDocuments();
+		for(int i=0; i<documents; i++)
+		{
+			var stored = collection.store(storage.createArticle(i, sections))
+				.block();
+
+			if(id == null)
+			{
+				id = stored.getId();
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown()
+		throws IOException
+	{
+		storage.close();
+	}
+
+	private ExecutionResult execute(String query, Map<String, Object> variables)
+	{
+		var result = graphQL.execute(ExecutionInput.newExecutionInput(query)
+			.variables(variables)
+			.context(GraphQLContext.newContext())
+			.build()
+		);
+
+		if(! result.getErrors().isEmpty())
+		{
+			throw new IllegalStateException("Query failed: " + result.getErrors());
+		}
+
+		return result;
+	}
+
+	@Benchmark
+	public Object getById()
+	{
+		return execute(GET_QUERY, Map.of("id", id)).getData();
+	}
+
+	@Benchmark
+	public Object searchList()
+	{
+		return execute(LIST_QUERY, Map.of()).getData();
+	}
+
+	@Benchmark
+	public Object searchNested()
+	{
+		return execute(NESTED_QUERY, Map.of()).getData();
+	}
+
+	@Benchmark
+	public Object store()
+	{
+		return execute(STORE_MUTATION, Map.of(
+			"m", Map.of(
+				"article", Map.of(
+					"title", "Stored during benchmark",
+					"published", 2021,
+					"tags", Map.of("set", List.of("benchmark")),
+					"sections", Map.of("set", List.of())
+				)
+			)
+		)).getData();
+	}
+}
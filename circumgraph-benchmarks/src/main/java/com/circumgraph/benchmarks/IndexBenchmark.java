@@ -0,0 +1,77 @@
+package com.circumgraph.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.internal.StorageImpl;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import se.l4.silo.engine.index.search.SearchFieldDef;
+
+/**
+ * Benchmarks for extracting the values that are indexed for a stored
+ * object, using the fields generated by {@link StorageImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexBenchmark
+{
+	@Param({ "1", "10", "50" })
+	public int sections;
+
+	private BenchmarkStorage storage;
+	private ListIterable<SearchFieldDef<StoredObjectValue>> fields;
+	private StoredObjectValue value;
+
+	@Setup(Level.Trial)
+	public void setup()
+		throws IOException
+	{
+		storage = BenchmarkStorage.open();
+
+		fields = StorageImpl.generateIndexFields(
+			storage.getModel(),
+			storage.getType("Document")
+		);
+
+		value = storage.getDocuments()
+			.store(storage.createArticle(1, sections))
+			.block();
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown()
+		throws IOException
+	{
+		storage.close();
+	}
+
+	@Benchmark
+	public void extractAll(Blackhole blackhole)
+	{
+		for(var field : fields)
+		{
+			blackhole.consume(field.getSupplier().apply(value));
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.circumgraph.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.circumgraph.model.ObjectLocation;
+import com.circumgraph.model.validation.ValidationMessage;
+import com.circumgraph.storage.Collection;
+import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.Value;
+import com.circumgraph.storage.internal.ValueMappers;
+import com.circumgraph.storage.internal.ValueProviders;
+import com.circumgraph.storage.internal.mappers.MappingEncounter;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.mutation.StructuredMutation;
+import com.circumgraph.storage.types.ValueMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for applying mutations via the root mapper of a collection,
+ * without storing the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MutationBenchmark
+{
+	@Param({ "1", "10", "50" })
+	public int sections;
+
+	private BenchmarkStorage storage;
+	private ValueMapper<StoredObjectValue, StructuredMutation> mapper;
+
+	private StructuredMutation createMutation;
+	private StructuredMutation updateMutation;
+	private StoredObjectValue previous;
+
+	@Setup(Level.Trial)
+	public void setup()
+		throws IOException
+	{
+		storage = BenchmarkStorage.open();
+
+		var mappers = new ValueMappers(
+			storage.getModel(),
+			storage.getStorage(),
+			new ValueProviders()
+		);
+		mapper = mappers.createRoot(storage.getType("Document"));
+
+		createMutation = storage.createArticle(1, sections);
+		previous = storage.getDocuments()
+			.store(createMutation)
+			.block();
+
+		updateMutation = storage.getDocuments()
+			.newMutation(storage.getType("Article"))
+			.updateField("title", ScalarValueMutation.createString("Updated title"))
+			.build();
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown()
+		throws IOException
+	{
+		storage.close();
+	}
+
+	@Benchmark
+	public Object applyCreate()
+	{
+		return mapper.applyMutation(
+			new NoopEncounter(),
+			ObjectLocation.root(),
+			null,
+			createMutation
+		).block();
+	}
+
+	@Benchmark
+	public Object applyUpdate()
+	{
+		return mapper.applyMutation(
+			new NoopEncounter(),
+			ObjectLocation.root(),
+			previous,
+			updateMutation
+		).block();
+	}
+
+	/**
+	 * Encounter that ignores everything reported to it.
+	 */
+	private static class NoopEncounter
+		implements MappingEncounter
+	{
+		@Override
+		public void reportError(ValidationMessage message)
+		{
+		}
+
+		@Override
+		public void verifyExists(
+			Collection collection,
+			String id,
+			Supplier<ValidationMessage> error
+		)
+		{
+		}
+
+		@Override
+		public void link(String collection, long object)
+		{
+		}
+
+		@Override
+		public void unlink(String collection, long object)
+		{
+		}
+
+		@Override
+		public Value externalize(Value value)
+		{
+			return value;
+		}
+
+		@Override
+		public void removeExternal(Value value)
+		{
+		}
+	}
+}
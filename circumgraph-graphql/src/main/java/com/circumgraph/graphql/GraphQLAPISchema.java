@@ -4,6 +4,7 @@ import com.circumgraph.graphql.internal.processors.MutationProcessor;
 import com.circumgraph.graphql.internal.processors.OutputProcessor;
 import com.circumgraph.graphql.internal.processors.QueryProcessor;
 import com.circumgraph.graphql.internal.processors.RelationDirectiveProcessor;
+import com.circumgraph.graphql.internal.processors.SubscriptionProcessor;
 import com.circumgraph.graphql.internal.search.SearchQueryGenerator;
 import com.circumgraph.model.Schema;
 import com.circumgraph.model.TypeDef;
@@ -32,7 +33,8 @@ public class GraphQLAPISchema
 		return Lists.immutable.of(
 			new OutputProcessor(),
 			new QueryProcessor(new SearchQueryGenerator()),
-			new MutationProcessor()
+			new MutationProcessor(),
+			new SubscriptionProcessor()
 		);
 	}
 
@@ -2,10 +2,12 @@ package com.circumgraph.graphql;
 
 import java.util.List;
 
+import com.circumgraph.graphql.internal.BatchLoadingInstrumentation;
 import com.circumgraph.graphql.internal.DataFetcherExceptionHandlerImpl;
 import com.circumgraph.graphql.internal.FieldResolverAdapter;
 import com.circumgraph.graphql.internal.InterfaceResolver;
 import com.circumgraph.graphql.internal.ScalarCoercing;
+import com.circumgraph.graphql.internal.SubscriptionResolverAdapter;
 import com.circumgraph.graphql.internal.TransactionInstrumentation;
 import com.circumgraph.model.EnumDef;
 import com.circumgraph.model.FieldDef;
@@ -30,6 +32,7 @@ import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.map.ImmutableMap;
 
 import graphql.GraphQL;
+import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.schema.FieldCoordinates;
 import graphql.schema.GraphQLArgument;
 import graphql.schema.GraphQLCodeRegistry;
@@ -49,17 +52,34 @@ import graphql.schema.GraphQLSchema;
 import graphql.schema.GraphQLType;
 import graphql.schema.GraphQLTypeReference;
 import graphql.schema.GraphQLUnionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 public class GraphQLGenerator
 {
 	private final Storage storage;
+	private final MeterRegistry meterRegistry;
 	private final GraphQLCreationEncounter encounter;
 	private final ImmutableMap<ScalarDef, GraphQLScalarType> scalars;
 
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public GraphQLGenerator(Storage storage)
+	{
+		this(storage, Metrics.globalRegistry);
+	}
+
+	/**
+	 * Create a generator that reports metrics about executions to the given
+	 * registry.
+	 *
+	 * @param storage
+	 * @param meterRegistry
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public GraphQLGenerator(Storage storage, MeterRegistry meterRegistry)
 	{
 		this.storage = storage;
+		this.meterRegistry = meterRegistry;
 
 		this.scalars = Scalars.instance()
 			.list()
@@ -86,7 +106,10 @@ public class GraphQLGenerator
 		return GraphQL.newGraphQL(schema)
 			.defaultDataFetcherExceptionHandler(new DataFetcherExceptionHandlerImpl())
 			.doNotAddDefaultInstrumentations()
-			.instrumentation(new TransactionInstrumentation(storage));
+			.instrumentation(new ChainedInstrumentation(
+				new TransactionInstrumentation(storage, meterRegistry),
+				new BatchLoadingInstrumentation(storage)
+			));
 	}
 
 	public GraphQLSchema generateSchema()
@@ -111,6 +134,10 @@ public class GraphQLGenerator
 				{
 					schema.mutation(o);
 				}
+				else if(o.getName().equals("Subscription"))
+				{
+					schema.subscription(o);
+				}
 			}
 		}
 
@@ -287,10 +314,25 @@ public class GraphQLGenerator
 				.build()
 			);
 
-			registry.dataFetcher(
-				FieldCoordinates.coordinates(structuredDef.getName(), field.getName()),
-				new FieldResolverAdapter(storage, actualResolver)
-			);
+			var timer = Timer.builder("circumgraph.graphql.resolvers")
+				.description("Time taken to resolve fields")
+				.tag("type", structuredDef.getName())
+				.tag("field", field.getName())
+				.register(meterRegistry);
+
+			/*
+			 * Root fields of subscriptions resolve to a stream of events,
+			 * which is passed on to GraphQL instead of being collected.
+			 */
+			var coordinates = FieldCoordinates.coordinates(structuredDef.getName(), field.getName());
+			if(structuredDef.getName().equals("Subscription"))
+			{
+				registry.dataFetcher(coordinates, new SubscriptionResolverAdapter(actualResolver));
+			}
+			else
+			{
+				registry.dataFetcher(coordinates, new FieldResolverAdapter(actualResolver, timer));
+			}
 		}
 
 		return result;
@@ -0,0 +1,88 @@
+package com.circumgraph.graphql.internal;
+
+import com.circumgraph.storage.Storage;
+
+import org.dataloader.DataLoaderRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import graphql.ExecutionInput;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentationState;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.language.OperationDefinition;
+
+/**
+ * {@link graphql.execution.instrumentation.Instrumentation} that sets up a
+ * {@link DataLoaderRegistry} for every execution and dispatches it once a
+ * level has been fetched. The loaders are exposed as an instance of
+ * {@link StoredObjectLoaders} in the GraphQL context, next to the
+ * transaction created by {@link TransactionInstrumentation}.
+ */
+public class BatchLoadingInstrumentation
+	extends DataLoaderDispatcherInstrumentation
+{
+	private static final Logger log = LoggerFactory.getLogger("com.circumgraph.graphql.loaders");
+
+	private final Storage storage;
+
+	public BatchLoadingInstrumentation(Storage storage)
+	{
+		this.storage = storage;
+	}
+
+	@Override
+	public InstrumentationState createState(
+		InstrumentationCreateStateParameters parameters
+	)
+	{
+		return new State(new DataLoaderRegistry());
+	}
+
+	@Override
+	public ExecutionInput instrumentExecutionInput(
+		ExecutionInput executionInput,
+		InstrumentationExecutionParameters parameters
+	)
+	{
+		var registry = ((State) parameters.getInstrumentationState()).registry;
+		return executionInput.transform(builder -> builder.dataLoaderRegistry(registry));
+	}
+
+	@Override
+	public ExecutionContext instrumentExecutionContext(
+		ExecutionContext executionContext,
+		InstrumentationExecutionParameters parameters
+	)
+	{
+		var registry = ((State) parameters.getInstrumentationState()).registry;
+		return executionContext.transform(builder -> {
+			var context = executionContext.getGraphQLContext();
+			ExecutionTransaction tx = context.get("transaction");
+
+			// Subscriptions keep the execution for their lifetime, never cache
+			var caching = executionContext.getOperationDefinition().getOperation()
+				!= OperationDefinition.Operation.SUBSCRIPTION;
+
+			builder.graphQLContext(context
+				.put("loaders", new StoredObjectLoaders(storage, tx, registry, caching))
+			);
+		});
+	}
+
+	private static class State
+		extends DataLoaderDispatcherInstrumentationState
+	{
+		private final DataLoaderRegistry registry;
+
+		public State(DataLoaderRegistry registry)
+		{
+			super(log, registry);
+
+			this.registry = registry;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.circumgraph.graphql.internal;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.circumgraph.storage.StorageTransaction;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transaction used by a single GraphQL execution. The underlying
+ * {@link StorageTransaction} is created asynchronously, so operations that wrap
+ * work in this transaction wait for it to become available instead of
+ * blocking the thread that starts the execution.
+ *
+ * Read-only executions use {@link #none()} in which case work is run
+ * directly against the storage without a transaction.
+ *
+ * Changes made in the transaction are only published to subscribers if the
+ * commit succeeds.
+ *
+ * Created by {@link TransactionInstrumentation} and made available in the
+ * GraphQL context under the key {@code transaction}.
+ */
+public class ExecutionTransaction
+{
+	private static final ExecutionTransaction NONE = new ExecutionTransaction(null);
+
+	private final CompletableFuture<StorageTransaction> tx;
+
+	public ExecutionTransaction(CompletableFuture<StorageTransaction> tx)
+	{
+		this.tx = tx;
+	}
+
+	/**
+	 * Wrap the given {@link Mono} so that it runs in this transaction.
+	 *
+	 * @param mono
+	 * @return
+	 */
+	public <T> Mono<T> wrap(Mono<T> mono)
+	{
+		if(tx == null) return mono;
+
+		return Mono.fromFuture(tx).flatMap(t -> t.wrap(mono));
+	}
+
+	/**
+	 * Wrap the given {@link Flux} so that it runs in this transaction.
+	 *
+	 * @param flux
+	 * @return
+	 */
+	public <T> Flux<T> wrap(Flux<T> flux)
+	{
+		if(tx == null) return flux;
+
+		return Mono.fromFuture(tx).flatMapMany(t -> t.wrap(flux));
+	}
+
+	/**
+	 * Commit the transaction.
+	 *
+	 * @return
+	 */
+	public Mono<Void> commit()
+	{
+		if(tx == null) return Mono.empty();
+
+		return Mono.fromFuture(tx)
+			.flatMap(StorageTransaction::commit);
+	}
+
+	/**
+	 * Rollback the transaction.
+	 *
+	 * @return
+	 */
+	public Mono<Void> rollback()
+	{
+		if(tx == null) return Mono.empty();
+
+		return Mono.fromFuture(tx)
+			.flatMap(StorageTransaction::rollback);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ExecutionTransaction{tx=" + (tx == null ? null : tx.getNow(null)) + "}";
+	}
+
+	/**
+	 * Get an instance that runs work without a transaction.
+	 *
+	 * @return
+	 */
+	public static ExecutionTransaction none()
+	{
+		return NONE;
+	}
+}
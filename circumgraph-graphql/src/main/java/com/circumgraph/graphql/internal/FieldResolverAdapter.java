@@ -1,12 +1,12 @@
 package com.circumgraph.graphql.internal;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.circumgraph.graphql.FieldResolver;
 import com.circumgraph.model.ScalarDef;
 import com.circumgraph.storage.ListValue;
 import com.circumgraph.storage.SimpleValue;
-import com.circumgraph.storage.Storage;
 import com.circumgraph.storage.StoredObjectRef;
 import com.circumgraph.storage.Value;
 
@@ -16,13 +16,15 @@ import org.eclipse.collections.api.list.ListIterable;
 
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
+import io.micrometer.core.instrument.Timer;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import se.l4.silo.Transaction;
 
 /**
  * {@link DataFetcher} that adapts a {@link FieldResolver}. This takes care
- * of mapping {@link Value values}, {@link Mono} instances etc.
+ * of mapping {@link Value values}, {@link Mono} instances etc. The time
+ * taken to resolve the field, including any asynchronous work, is recorded
+ * in a {@link Timer}.
  */
 public class FieldResolverAdapter
 	implements DataFetcher<Object>
@@ -30,51 +32,69 @@ public class FieldResolverAdapter
 	private static final Predicate<Object> HAS_FUTURE = o -> o instanceof CompletableFuture<?>;
 	private static final CompletableFuture<?>[] EMPTY_FUTURE_ARRAY = new CompletableFuture<?>[0];
 
-	private final Storage storage;
 	private final FieldResolver resolver;
+	private final Timer timer;
 
 	public FieldResolverAdapter(
-		Storage storage,
-		FieldResolver resolver
+		FieldResolver resolver,
+		Timer timer
 	)
 	{
-		this.storage = storage;
 		this.resolver = resolver;
+		this.timer = timer;
 	}
 
 	@Override
 	public Object get(DataFetchingEnvironment environment)
 		throws Exception
 	{
-		Transaction tx = environment.getGraphQlContext()
-			.get("transaction");
-		return map(tx, resolver.resolve(environment));
+		long start = System.nanoTime();
+
+		var context = environment.getGraphQlContext();
+		ExecutionTransaction tx = context.get("transaction");
+		StoredObjectLoaders loaders = context.get("loaders");
+		var result = map(tx, loaders, resolver.resolve(environment));
+
+		if(result instanceof CompletableFuture<?> future)
+		{
+			return future.whenComplete((v, e) -> record(start));
+		}
+
+		record(start);
+		return result;
 	}
 
-	private Object map(Transaction tx, Object in)
+	private void record(long start)
+	{
+		timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private Object map(ExecutionTransaction tx, StoredObjectLoaders loaders, Object in)
 	{
 		if(in instanceof Mono<?> m)
 		{
-			return tx.wrap(m).map(item -> map(tx, item)).toFuture();
+			return tx.wrap(m)
+				.flatMap(item -> mapAndDispatch(tx, loaders, item))
+				.toFuture();
 		}
 		else if(in instanceof Flux<?> f)
 		{
-			return tx.wrap(f).map(item -> map(tx, item)).collectList().toFuture();
+			return tx.wrap(f)
+				.collectList()
+				.flatMap(items -> mapAndDispatch(tx, loaders, items))
+				.toFuture();
 		}
 		else if(in instanceof Iterable<?> rawIt)
 		{
-			return mapIterable(tx, rawIt);
+			return mapIterable(tx, loaders, rawIt);
 		}
 		else if(in instanceof ListValue<?> lv)
 		{
-			return map(tx, lv.items());
+			return map(tx, loaders, lv.items());
 		}
 		else if(in instanceof StoredObjectRef ref)
 		{
-			return tx.wrap(storage
-				.get(ref.getDefinition().getName())
-				.get(ref.getId())
-			).toFuture();
+			return loaders.load(ref);
 		}
 		else if(in instanceof SimpleValue sv)
 		{
@@ -90,22 +110,45 @@ public class FieldResolverAdapter
 		return in;
 	}
 
+	/**
+	 * Map a value that was resolved asynchronously. Any references found
+	 * will be queued after the loaders for the current level have already
+	 * been dispatched, so dispatch them directly to avoid waiting forever.
+	 *
+	 * @param tx
+	 * @param loaders
+	 * @param in
+	 * @return
+	 */
+	private Mono<Object> mapAndDispatch(ExecutionTransaction tx, StoredObjectLoaders loaders, Object in)
+	{
+		var result = map(tx, loaders, in);
+		if(result instanceof CompletableFuture<?> future)
+		{
+			loaders.dispatch();
+			return Mono.fromFuture(future);
+		}
+
+		return Mono.justOrEmpty(result);
+	}
+
 	/**
 	 * Map an iterable. This helps with the case where a list contains
 	 * asynchronous value in which case the list must also be converted into
 	 * an asynchronous value.
 	 *
 	 * @param tx
+	 * @param loaders
 	 * @param rawIt
 	 * @return
 	 */
-	private Object mapIterable(Transaction tx, Iterable<?> rawIt)
+	private Object mapIterable(ExecutionTransaction tx, StoredObjectLoaders loaders, Iterable<?> rawIt)
 	{
 		var items = rawIt instanceof ListIterable<?> listIt
 			? listIt
 			: Lists.immutable.ofAll(rawIt);
 
-		var mappedItems = items.collect(item -> map(tx, item));
+		var mappedItems = items.collect(item -> map(tx, loaders, item));
 
 		if(mappedItems.anySatisfy(HAS_FUTURE))
 		{
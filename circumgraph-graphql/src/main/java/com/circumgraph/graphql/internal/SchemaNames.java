@@ -106,6 +106,19 @@ public class SchemaNames
 		return "store" + def.getName();
 	}
 
+	/**
+	 * Get the name of the field used to store several objects of the given
+	 * type.
+	 *
+	 * @param def
+	 * @return
+	 */
+	public static String toStoreManyMutationFieldName(StructuredDef def)
+	{
+		// TODO: Support for controlling the type name
+		return "storeMany" + def.getName();
+	}
+
 	/**
 	 * Get the name of the field used to store the given type.
 	 *
@@ -167,6 +180,43 @@ public class SchemaNames
 	}
 
 
+	/**
+	 * Get the name of the type containing the facets available for the
+	 * given type.
+	 *
+	 * @param def
+	 * @return
+	 */
+	public static String toSearchFacetsTypeName(StructuredDef def)
+	{
+		// TODO: Support for controlling the type name
+		return def.getName() + "Facets";
+	}
+
+	/**
+	 * Get the name of the subscription field used to stream changes to the
+	 * given type.
+	 *
+	 * @param def
+	 * @return
+	 */
+	public static String toChangesSubscriptionFieldName(StructuredDef def)
+	{
+		return toQueryFieldName(def) + "Changes";
+	}
+
+	/**
+	 * Get the name of the type describing a change to the given type.
+	 *
+	 * @param def
+	 * @return
+	 */
+	public static String toChangeTypeName(StructuredDef def)
+	{
+		// TODO: Support for controlling the type name
+		return def.getName() + "Change";
+	}
+
 	/**
 	 * Get the name of the sorting enum used for the given type.
 	 *
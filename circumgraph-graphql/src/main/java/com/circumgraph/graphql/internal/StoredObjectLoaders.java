@@ -0,0 +1,100 @@
+package com.circumgraph.graphql.internal;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.circumgraph.storage.Collection;
+import com.circumgraph.storage.Storage;
+import com.circumgraph.storage.StoredObjectRef;
+import com.circumgraph.storage.StoredObjectValue;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+import org.dataloader.DataLoaderRegistry;
+
+/**
+ * Loaders used to resolve {@link StoredObjectRef}s during a single GraphQL
+ * execution. Every collection gets its own {@link DataLoader} so that all
+ * references requested at the same level of an execution are fetched with a
+ * single call to {@link Collection#getAll(Iterable)}.
+ *
+ * Created by {@link BatchLoadingInstrumentation} and made available in the
+ * GraphQL context under the key {@code loaders}.
+ *
+ * Subscriptions use a single execution for as long as they are active, so
+ * caching is disabled for them. Every event then loads the current version
+ * of referenced objects and the loaders do not grow while the subscription
+ * is open.
+ */
+public class StoredObjectLoaders
+{
+	private final Storage storage;
+	private final ExecutionTransaction tx;
+	private final DataLoaderRegistry registry;
+	private final DataLoaderOptions options;
+
+	public StoredObjectLoaders(
+		Storage storage,
+		ExecutionTransaction tx,
+		DataLoaderRegistry registry,
+		boolean cachingEnabled
+	)
+	{
+		this.storage = storage;
+		this.tx = tx;
+		this.registry = registry;
+
+		options = DataLoaderOptions.newOptions()
+			.setCachingEnabled(cachingEnabled);
+	}
+
+	/**
+	 * Get the options that loaders created for this execution should use.
+	 *
+	 * @return
+	 */
+	public DataLoaderOptions getOptions()
+	{
+		return options;
+	}
+
+	/**
+	 * Queue loading of the object the given reference points to.
+	 *
+	 * @param ref
+	 *   reference to load
+	 * @return
+	 *   future that completes with the object, or {@code null} if the object
+	 *   does not exist
+	 */
+	public CompletableFuture<StoredObjectValue> load(StoredObjectRef ref)
+	{
+		var name = ref.getDefinition().getName();
+		DataLoader<String, StoredObjectValue> loader = registry.computeIfAbsent(
+			name,
+			key -> createLoader(storage.get(key))
+		);
+
+		return loader.load(ref.getId());
+	}
+
+	/**
+	 * Dispatch all of the queued loads. Used when references are loaded
+	 * outside of the normal execution of a level.
+	 */
+	public void dispatch()
+	{
+		registry.dispatchAll();
+	}
+
+	private DataLoader<String, StoredObjectValue> createLoader(Collection collection)
+	{
+		return DataLoaderFactory.newMappedDataLoader((Set<String> ids) ->
+			tx.wrap(collection.getAll(ids))
+				.collectMap(StoredObjectValue::getId)
+				.toFuture(),
+			options
+		);
+	}
+}
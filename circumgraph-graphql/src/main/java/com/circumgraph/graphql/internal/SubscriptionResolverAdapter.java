@@ -0,0 +1,40 @@
+package com.circumgraph.graphql.internal;
+
+import com.circumgraph.graphql.FieldResolver;
+
+import org.reactivestreams.Publisher;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link DataFetcher} that adapts a {@link FieldResolver} used for a root
+ * field of a subscription. The resolver returns a {@link Flux} of events
+ * that is passed to GraphQL as a {@link Publisher}, the fields of every
+ * event are then resolved as usual.
+ */
+public class SubscriptionResolverAdapter
+	implements DataFetcher<Publisher<?>>
+{
+	private final FieldResolver resolver;
+
+	public SubscriptionResolverAdapter(FieldResolver resolver)
+	{
+		this.resolver = resolver;
+	}
+
+	@Override
+	public Publisher<?> get(DataFetchingEnvironment environment)
+		throws Exception
+	{
+		var result = resolver.resolve(environment);
+		if(result instanceof Publisher<?> publisher)
+		{
+			return publisher;
+		}
+
+		return Mono.justOrEmpty(result);
+	}
+}
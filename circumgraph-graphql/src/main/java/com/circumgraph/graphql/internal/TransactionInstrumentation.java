@@ -1,6 +1,9 @@
 package com.circumgraph.graphql.internal;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.circumgraph.storage.Storage;
+import com.circumgraph.storage.StorageTransaction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,13 +15,19 @@ import graphql.execution.instrumentation.InstrumentationState;
 import graphql.execution.instrumentation.SimpleInstrumentation;
 import graphql.execution.instrumentation.SimpleInstrumentationContext;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
-import se.l4.silo.Transaction;
+import graphql.language.OperationDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
 
 /**
  * {@link Instrumentation} that will create and automatically commit/rollback
- * {@link Transaction transactions} for GraphQL executions. This
+ * {@link StorageTransaction transactions} for GraphQL executions. This
  * instrumentation is also responsible for setting up the instance of
  * {@link StorageContext} available to {@link graphql.schema.DataFetcher}s.
+ *
+ * The time from a transaction being created until it has been committed or
+ * rolled back is recorded, with the outcome as a tag.
  */
 public class TransactionInstrumentation
 	extends SimpleInstrumentation
@@ -27,10 +36,18 @@ public class TransactionInstrumentation
 
 	public final Storage storage;
 
-	public TransactionInstrumentation(Storage storage)
+	private final MeterRegistry meterRegistry;
+	private final Timer commits;
+	private final Timer rollbacks;
+
+	public TransactionInstrumentation(Storage storage, MeterRegistry meterRegistry)
 	{
 		log = LoggerFactory.getLogger("com.circumgraph.graphql.transactions");
 		this.storage = storage;
+
+		this.meterRegistry = meterRegistry;
+		commits = createTimer(meterRegistry, "commit");
+		rollbacks = createTimer(meterRegistry, "rollback");
 	}
 
 	@Override
@@ -44,35 +61,78 @@ public class TransactionInstrumentation
 		InstrumentationExecutionParameters parameters
 	)
 	{
-		var tx = storage.transactions().newTransaction().block();
-		((State) parameters.getInstrumentationState()).tx = tx;
-		log.debug("Initialized tx {}", tx);
+		var state = (State) parameters.getInstrumentationState();
 		return new SimpleInstrumentationContext<ExecutionResult>()
 		{
 			@Override
 			public void onCompleted(ExecutionResult result, Throwable t)
 			{
-				if(t != null || ! result.getErrors().isEmpty())
-				{
-					log.debug("Error occurred, rolling back tx {}", tx);
-					tx.rollback().block();
-				}
-				else
+				var tx = state.tx;
+				if(t != null && tx != null)
 				{
-					log.debug("Committing tx {}", tx);
-					tx.commit().block();
+					/*
+					 * Execution failed - instrumentExecutionResult is not
+					 * called in this case so rollback here.
+					 */
+					log.debug("Execution failed, rolling back tx {}", tx);
+					tx.rollback()
+						.doFinally(s -> state.stop(rollbacks))
+						.subscribe(null, e -> log.warn("Could not rollback tx " + tx, e));
 				}
 			}
 		};
 	}
 
+	@Override
+	public CompletableFuture<ExecutionResult> instrumentExecutionResult(
+		ExecutionResult executionResult,
+		InstrumentationExecutionParameters parameters
+	)
+	{
+		var state = (State) parameters.getInstrumentationState();
+		var tx = state.tx;
+		if(tx == null)
+		{
+			// Execution never started, such as when validation fails
+			return CompletableFuture.completedFuture(executionResult);
+		}
+
+		Mono<Void> completion;
+		Timer timer;
+		if(! executionResult.getErrors().isEmpty())
+		{
+			log.debug("Error occurred, rolling back tx {}", tx);
+			completion = tx.rollback();
+			timer = rollbacks;
+		}
+		else
+		{
+			log.debug("Committing tx {}", tx);
+			completion = tx.commit();
+			timer = commits;
+		}
+
+		return completion
+			.doFinally(s -> state.stop(timer))
+			.thenReturn(executionResult)
+			.toFuture();
+	}
+
 	@Override
 	public ExecutionContext instrumentExecutionContext(
 		ExecutionContext executionContext,
 		InstrumentationExecutionParameters parameters
 	)
 	{
-		var tx = ((State) parameters.getInstrumentationState()).tx;
+		var state = (State) parameters.getInstrumentationState();
+		var tx = createTransaction(executionContext.getOperationDefinition());
+		state.tx = tx;
+
+		if(tx != ExecutionTransaction.none())
+		{
+			state.sample = Timer.start(meterRegistry);
+		}
+
 		return executionContext.transform(builder -> {
 			// TODO: Pull auth from the context
 			builder.graphQLContext(executionContext.getGraphQLContext()
@@ -81,9 +141,51 @@ public class TransactionInstrumentation
 		});
 	}
 
+	/**
+	 * Create the transaction for an operation. Queries only read data, so
+	 * they run without a transaction and never touch the commit path.
+	 * Subscriptions outlive the execution and also run without a
+	 * transaction.
+	 *
+	 * @param operation
+	 * @return
+	 */
+	private ExecutionTransaction createTransaction(OperationDefinition operation)
+	{
+		if(operation.getOperation() == OperationDefinition.Operation.QUERY
+			|| operation.getOperation() == OperationDefinition.Operation.SUBSCRIPTION)
+		{
+			return ExecutionTransaction.none();
+		}
+
+		return new ExecutionTransaction(storage.transactions()
+			.newTransaction()
+			.doOnNext(t -> log.debug("Initialized tx {}", t))
+			.toFuture()
+		);
+	}
+
+	private static Timer createTimer(MeterRegistry registry, String outcome)
+	{
+		return Timer.builder("circumgraph.graphql.transactions")
+			.description("Time from a transaction being started until it is committed or rolled back")
+			.tag("outcome", outcome)
+			.register(registry);
+	}
+
 	private static class State
 		implements InstrumentationState
 	{
-		private volatile Transaction tx;
+		private volatile ExecutionTransaction tx;
+		private volatile Timer.Sample sample;
+
+		private void stop(Timer timer)
+		{
+			var sample = this.sample;
+			if(sample != null)
+			{
+				sample.stop(timer);
+			}
+		}
 	}
 }
@@ -10,10 +10,18 @@ import com.circumgraph.model.InputObjectDef;
 import com.circumgraph.model.ListDef;
 import com.circumgraph.model.NonNullDef;
 import com.circumgraph.model.OutputTypeDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.storage.mutation.ListAddMutation;
+import com.circumgraph.storage.mutation.ListInsertMutation;
+import com.circumgraph.storage.mutation.ListRemoveMutation;
 import com.circumgraph.storage.mutation.ListSetMutation;
 import com.circumgraph.storage.mutation.Mutation;
 
 import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+
+import graphql.ErrorType;
+import graphql.GraphqlErrorException;
 
 public class ListMutationMapper<V>
 	implements MutationInputMapper<Map<String, Object>>
@@ -38,17 +46,46 @@ public class ListMutationMapper<V>
 			wasNonNull = true;
 		}
 
+		var valuesType = ListDef.input(
+			wasNonNull
+				? NonNullDef.input(itemMapper.getGraphQLType())
+				: itemMapper.getGraphQLType()
+		);
+
+		var insertType = InputObjectDef.create(itemType.getName() + "ListInsertInput")
+			.withDescription("Insertion of values into a list of " + itemType.getName())
+			.addField(InputFieldDef.create("index")
+				.withDescription("Index to insert the values at, between 0 and the size of the list")
+				.withType(NonNullDef.input(ScalarDef.INT))
+				.build()
+			)
+			.addField(InputFieldDef.create("values")
+				.withDescription("Values to insert")
+				.withType(NonNullDef.input(valuesType))
+				.build()
+			)
+			.build();
+
 		var builder = InputObjectDef.create(itemType.getName() + "ListMutationInput")
-			.withDescription("Mutation of a list of " + itemType.getName())
+			.withDescription("Mutation of a list of " + itemType.getName() + ", only one of the fields can be used")
 			.addField(InputFieldDef.create("set")
-				.withDescription("Values to set")
-				.withType(NonNullDef.input(
-					ListDef.input(
-						wasNonNull
-							? NonNullDef.input(itemMapper.getGraphQLType())
-							: itemMapper.getGraphQLType()
-					)
-				))
+				.withDescription("Values to set, replaces the entire list")
+				.withType(valuesType)
+				.build()
+			)
+			.addField(InputFieldDef.create("add")
+				.withDescription("Values to add to the end of the list")
+				.withType(valuesType)
+				.build()
+			)
+			.addField(InputFieldDef.create("insert")
+				.withDescription("Values to insert at a certain index")
+				.withType(insertType)
+				.build()
+			)
+			.addField(InputFieldDef.create("remove")
+				.withDescription("Values to remove from the list, removes all items equal to one of the values")
+				.withType(valuesType)
 				.build()
 			);
 
@@ -68,15 +105,49 @@ public class ListMutationMapper<V>
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public Mutation toMutation(Map<String, Object> value)
 	{
 		InputUnions.validate(graphQLType, value);
 
 		var set = value.get("set");
-		return ListSetMutation.create(
-			Lists.immutable.ofAll((Iterable<V>) set)
-				.collect(itemMapper::toMutation)
-		);
+		if(set != null)
+		{
+			return ListSetMutation.create(toMutations(set));
+		}
+
+		var add = value.get("add");
+		if(add != null)
+		{
+			return ListAddMutation.create(toMutations(add));
+		}
+
+		var insert = (Map<String, Object>) value.get("insert");
+		if(insert != null)
+		{
+			return ListInsertMutation.create(
+				(Integer) insert.get("index"),
+				toMutations(insert.get("values"))
+			);
+		}
+
+		var remove = value.get("remove");
+		if(remove != null)
+		{
+			return ListRemoveMutation.create(toMutations(remove));
+		}
+
+		throw GraphqlErrorException.newErrorException()
+			.errorClassification(ErrorType.ValidationError)
+			.message("One of the fields in " + graphQLType.getName() + " must be used")
+			.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private ListIterable<Mutation> toMutations(Object values)
+	{
+		return Lists.immutable.ofAll((Iterable<V>) values)
+			.collect(itemMapper::toMutation);
 	}
 
 	@Override
@@ -11,6 +11,7 @@ import com.circumgraph.graphql.internal.mutation.ScalarMutationMapper;
 import com.circumgraph.graphql.internal.mutation.StoredObjectRefMutationMapper;
 import com.circumgraph.graphql.internal.mutation.StructuredValueMutationMapper;
 import com.circumgraph.graphql.internal.resolvers.CollectionDeleteMutation;
+import com.circumgraph.graphql.internal.resolvers.CollectionStoreManyMutation;
 import com.circumgraph.graphql.internal.resolvers.CollectionStoreMutation;
 import com.circumgraph.model.ArgumentDef;
 import com.circumgraph.model.EnumDef;
@@ -87,6 +88,17 @@ public class MutationProcessor
 			.withMetadata(GraphQLModel.FIELD_RESOLVER_FACTORY, new CollectionStoreMutation(mapper))
 			.build();
 
+		var storeManyField = FieldDef.create(SchemaNames.toStoreManyMutationFieldName(type))
+			.withType(NonNullDef.output(ListDef.output(NonNullDef.output(type))))
+			.withDescription("Create several objects of type " + type.getName())
+			.addArgument(ArgumentDef.create("mutations")
+				.withType(NonNullDef.input(ListDef.input(NonNullDef.input(mapper.getGraphQLType()))))
+				.withDescription("Mutations to apply, one object is created for every mutation")
+				.build()
+			)
+			.withMetadata(GraphQLModel.FIELD_RESOLVER_FACTORY, new CollectionStoreManyMutation(mapper))
+			.build();
+
 		var deleteField = FieldDef.create(SchemaNames.toDeleteMutationFieldName(type))
 			.withType(DELETE_RESULT)
 			.addArgument(ArgumentDef.create("id")
@@ -99,6 +111,7 @@ public class MutationProcessor
 
 		encounter.addType(ObjectDef.create("Mutation")
 			.addField(storeField)
+			.addField(storeManyField)
 			.addField(deleteField)
 			.build()
 		);
@@ -251,7 +251,7 @@ public class RelationDirectiveProcessor
 			)
 			.withMetadata(
 				GraphQLModel.FIELD_RESOLVER_FACTORY,
-				new RelationListFieldResolverFactory(entity.getName(), path, Optional.empty())
+				new RelationListFieldResolverFactory(entity.getName(), fieldName, path, Optional.empty())
 			)
 		);
 	}
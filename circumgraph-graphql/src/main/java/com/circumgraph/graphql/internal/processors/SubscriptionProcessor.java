@@ -0,0 +1,129 @@
+package com.circumgraph.graphql.internal.processors;
+
+import com.circumgraph.graphql.FieldResolver;
+import com.circumgraph.graphql.GraphQLModel;
+import com.circumgraph.graphql.internal.SchemaNames;
+import com.circumgraph.graphql.internal.resolvers.ChangedObjectResolverFactory;
+import com.circumgraph.graphql.internal.resolvers.CollectionChangesSubscription;
+import com.circumgraph.model.ArgumentDef;
+import com.circumgraph.model.EnumDef;
+import com.circumgraph.model.EnumValueDef;
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.Location;
+import com.circumgraph.model.NonNullDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.model.processing.ProcessingEncounter;
+import com.circumgraph.model.processing.TypeDefProcessor;
+import com.circumgraph.storage.CollectionChange;
+import com.circumgraph.storage.StorageSchema;
+
+/**
+ * {@link TypeDefProcessor} that generates GraphQL subscriptions for changes
+ * to every entity.
+ */
+public class SubscriptionProcessor
+	implements TypeDefProcessor<StructuredDef>
+{
+	private static final EnumDef OPERATION = EnumDef.create("ChangeOperation")
+		.withDescription("Operation that changed an object")
+		.addValue(EnumValueDef.create("STORED")
+			.withDescription("Object was created or updated")
+			.withMetadata(GraphQLModel.ENUM_VALUE, CollectionChange.Operation.STORED)
+			.build()
+		)
+		.addValue(EnumValueDef.create("DELETED")
+			.withDescription("Object was deleted")
+			.withMetadata(GraphQLModel.ENUM_VALUE, CollectionChange.Operation.DELETED)
+			.build()
+		)
+		.build();
+
+	private static final FieldResolver SEQUENCE = env -> {
+		CollectionChange change = env.getSource();
+		return String.valueOf(change.getSequence());
+	};
+
+	private static final FieldResolver ID = env -> {
+		CollectionChange change = env.getSource();
+		return change.getId();
+	};
+
+	private static final FieldResolver TYPENAME = env -> {
+		CollectionChange change = env.getSource();
+		return change.getDefinition().getName();
+	};
+
+	private static final FieldResolver OPERATION_RESOLVER = env -> {
+		CollectionChange change = env.getSource();
+		return change.getOperation();
+	};
+
+	@Override
+	public Location getLocation()
+	{
+		return GraphQLModel.LOCATION;
+	}
+
+	@Override
+	public Class<StructuredDef> getType()
+	{
+		return StructuredDef.class;
+	}
+
+	@Override
+	public void process(ProcessingEncounter encounter, StructuredDef type)
+	{
+		if(! type.hasImplements(StorageSchema.ENTITY_NAME)) return;
+
+		var changeType = ObjectDef.create(SchemaNames.toChangeTypeName(type))
+			.withDescription("Change to an object of type " + type.getName())
+			.addField(FieldDef.create("sequence")
+				.withType(NonNullDef.output(ScalarDef.STRING))
+				.withDescription("Sequence number of the change, can be used to resume the subscription")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, SEQUENCE)
+				.build()
+			)
+			.addField(FieldDef.create("id")
+				.withType(NonNullDef.output(ScalarDef.ID))
+				.withDescription("Identifier of the object that changed")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, ID)
+				.build()
+			)
+			.addField(FieldDef.create("typename")
+				.withType(NonNullDef.output(ScalarDef.STRING))
+				.withDescription("Name of the type of the object that changed")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, TYPENAME)
+				.build()
+			)
+			.addField(FieldDef.create("operation")
+				.withType(NonNullDef.output(OPERATION))
+				.withDescription("Operation that changed the object")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, OPERATION_RESOLVER)
+				.build()
+			)
+			.addField(FieldDef.create("node")
+				.withType(type)
+				.withDescription("Current version of the object, null if it has been deleted")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER_FACTORY, new ChangedObjectResolverFactory(type))
+				.build()
+			)
+			.build();
+
+		encounter.addType(ObjectDef.create("Subscription")
+			.addField(FieldDef.create(SchemaNames.toChangesSubscriptionFieldName(type))
+				.withType(NonNullDef.output(changeType))
+				.withDescription("Stream changes to objects of type " + type.getName())
+				.addArgument(ArgumentDef.create("after")
+					.withType(ScalarDef.STRING)
+					.withDescription("Sequence number of the last change seen, used to resume streaming")
+					.build()
+				)
+				.withMetadata(GraphQLModel.FIELD_RESOLVER_FACTORY, new CollectionChangesSubscription(type))
+				.build()
+			)
+			.build()
+		);
+	}
+}
@@ -0,0 +1,58 @@
+package com.circumgraph.graphql.internal.resolvers;
+
+import java.util.Objects;
+
+import com.circumgraph.graphql.FieldResolver;
+import com.circumgraph.graphql.FieldResolverFactory;
+import com.circumgraph.graphql.GraphQLCreationEncounter;
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.storage.CollectionChange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolver for the object a {@link CollectionChange} refers to. Resolves
+ * to the current version of the object, or {@code null} if it has been
+ * deleted.
+ */
+public class ChangedObjectResolverFactory
+	implements FieldResolverFactory
+{
+	private final String name;
+
+	public ChangedObjectResolverFactory(StructuredDef def)
+	{
+		this.name = def.getName();
+	}
+
+	@Override
+	public FieldResolver create(GraphQLCreationEncounter encounter)
+	{
+		var collection = encounter.getStorage().get(name);
+		return env -> {
+			CollectionChange change = env.getSource();
+			if(change.getOperation() == CollectionChange.Operation.DELETED)
+			{
+				return Mono.empty();
+			}
+
+			return collection.get(change.getId());
+		};
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(name);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if(this == obj) return true;
+		if(obj == null) return false;
+		if(getClass() != obj.getClass()) return false;
+		ChangedObjectResolverFactory other = (ChangedObjectResolverFactory) obj;
+		return Objects.equals(name, other.name);
+	}
+}
@@ -0,0 +1,63 @@
+package com.circumgraph.graphql.internal.resolvers;
+
+import java.util.Objects;
+
+import com.circumgraph.graphql.FieldResolver;
+import com.circumgraph.graphql.FieldResolverFactory;
+import com.circumgraph.graphql.GraphQLCreationEncounter;
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.storage.StorageException;
+
+/**
+ * Resolver for the subscription field that streams changes to a collection.
+ * Resolves to the {@link reactor.core.publisher.Flux} of changes, which is
+ * passed on as is by {@link com.circumgraph.graphql.internal.SubscriptionResolverAdapter}.
+ */
+public class CollectionChangesSubscription
+	implements FieldResolverFactory
+{
+	private final String name;
+
+	public CollectionChangesSubscription(StructuredDef def)
+	{
+		this.name = def.getName();
+	}
+
+	@Override
+	public FieldResolver create(GraphQLCreationEncounter encounter)
+	{
+		var collection = encounter.getStorage().get(name);
+		return env -> {
+			String after = env.getArgument("after");
+			if(after == null)
+			{
+				return collection.changes();
+			}
+
+			try
+			{
+				return collection.changes(Long.parseLong(after));
+			}
+			catch(NumberFormatException e)
+			{
+				throw new StorageException("Invalid sequence number: " + after);
+			}
+		};
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(name);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if(this == obj) return true;
+		if(obj == null) return false;
+		if(getClass() != obj.getClass()) return false;
+		CollectionChangesSubscription other = (CollectionChangesSubscription) obj;
+		return Objects.equals(name, other.name);
+	}
+}
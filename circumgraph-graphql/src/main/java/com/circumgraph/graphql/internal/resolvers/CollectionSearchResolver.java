@@ -10,11 +10,13 @@ import com.circumgraph.graphql.GraphQLCreationEncounter;
 import com.circumgraph.graphql.internal.search.Criteria;
 import com.circumgraph.graphql.internal.search.CursorEncoding;
 import com.circumgraph.model.StructuredDef;
+import com.circumgraph.storage.search.FacetQuery;
+import com.circumgraph.storage.search.FacetRange;
 import com.circumgraph.storage.search.Page;
 import com.circumgraph.storage.search.Query;
 import com.circumgraph.storage.search.QueryPath;
 
-import se.l4.silo.index.FieldSort;
+import org.eclipse.collections.api.factory.Lists;
 
 public class CollectionSearchResolver
 	implements FieldResolverFactory
@@ -32,6 +34,7 @@ public class CollectionSearchResolver
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public FieldResolver create(GraphQLCreationEncounter encounter)
 	{
 		var collection = encounter.getStorage().get(def.getName());
@@ -55,10 +58,10 @@ public class CollectionSearchResolver
 				{
 					for(var s : sort)
 					{
-						query = query.addSort(FieldSort.create(
+						query = query.addSort(
 							((QueryPath) s.get("field")).toIndexName(),
 							(Boolean) s.get("ascending")
-						));
+						);
 					}
 				}
 			}
@@ -73,6 +76,45 @@ public class CollectionSearchResolver
 				env.getSelectionSet().contains("edges/score")
 			);
 
+			// Only load hits if they or cursors pointing to them are fetched
+			query = query.withItemsNeeded(
+				env.getSelectionSet().containsAnyOf(
+					"edges",
+					"nodes",
+					"pageInfo/startCursor",
+					"pageInfo/endCursor"
+				)
+			);
+
+			// Request facets that are selected, using the result key to support aliases
+			var rootPath = QueryPath.root(def);
+			for(var facet : env.getSelectionSet().getFields("facets/*"))
+			{
+				if(facet.getName().startsWith("__")) continue;
+
+				var field = rootPath.field(facet.getName()).toIndexName();
+				var args = facet.getArguments();
+				if(args.containsKey("ranges"))
+				{
+					List<Map<String, Object>> ranges = (List<Map<String, Object>>) args.get("ranges");
+					query = query.addFacet(FacetQuery.ranges(
+						facet.getResultKey(),
+						field,
+						Lists.immutable.ofAll(ranges)
+							.collect(r -> FacetRange.between(r.get("from"), r.get("to")))
+					));
+				}
+				else
+				{
+					var limit = (Integer) args.get("limit");
+					query = query.addFacet(FacetQuery.terms(
+						facet.getResultKey(),
+						field,
+						limit == null ? 10 : limit
+					));
+				}
+			}
+
 			return collection.search(query);
 		};
 	}
@@ -0,0 +1,61 @@
+package com.circumgraph.graphql.internal.resolvers;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.circumgraph.graphql.FieldResolver;
+import com.circumgraph.graphql.FieldResolverFactory;
+import com.circumgraph.graphql.GraphQLCreationEncounter;
+import com.circumgraph.graphql.MutationInputMapper;
+import com.circumgraph.storage.mutation.StructuredMutation;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Resolver for mutations that create several objects at once. Uses
+ * {@link com.circumgraph.storage.Collection#storeAll(Flux)} so that the
+ * objects are stored in batches.
+ */
+public class CollectionStoreManyMutation
+	implements FieldResolverFactory
+{
+	private final MutationInputMapper<?> mutationMapper;
+
+	public CollectionStoreManyMutation(
+		MutationInputMapper<?> mutationMapper
+	)
+	{
+		this.mutationMapper = mutationMapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public FieldResolver create(GraphQLCreationEncounter encounter)
+	{
+		var collection = encounter.getStorage().get(mutationMapper.getModelDef().getName());
+		var mapper = (MutationInputMapper<Object>) mutationMapper;
+		return env -> {
+			List<Object> mutations = env.getArgument("mutations");
+
+			return collection.storeAll(Flux.fromIterable(mutations)
+				.map(input -> (StructuredMutation) mapper.toMutation(input))
+			);
+		};
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(mutationMapper);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if(this == obj) return true;
+		if(obj == null) return false;
+		if(getClass() != obj.getClass()) return false;
+		CollectionStoreManyMutation other = (CollectionStoreManyMutation) obj;
+		return Objects.equals(mutationMapper, other.mutationMapper);
+	}
+}
@@ -2,26 +2,23 @@ package com.circumgraph.graphql.internal.resolvers;
 
 import com.circumgraph.graphql.FieldResolver;
 import com.circumgraph.graphql.FieldResolverFactory;
-import com.circumgraph.model.StructuredDef;
-import com.circumgraph.storage.Collection;
-import com.circumgraph.storage.StorageSchema;
 import com.circumgraph.storage.StoredObjectRef;
 import com.circumgraph.storage.StructuredValue;
 
 import graphql.schema.DataFetchingEnvironment;
 
 /**
- * {@link FieldResolver} that handles references to other objects.
+ * {@link FieldResolver} that handles references to other objects. The
+ * reference itself is returned so that it can be loaded together with other
+ * references requested at the same level.
  */
 public class ReferenceByIdResolver
 	implements FieldResolver
 {
-	private final Collection collection;
 	private final String key;
 
-	public ReferenceByIdResolver(Collection collection, String key)
+	public ReferenceByIdResolver(String key)
 	{
-		this.collection = collection;
 		this.key = key;
 	}
 
@@ -35,29 +32,21 @@ public class ReferenceByIdResolver
 			return null;
 		}
 
-		// Fetch the object in the current transaction
-		return collection.get(value.get().getId());
+		// Loaded in batches in the current transaction by the adapter
+		return value.get();
 	}
 
 	/**
 	 * Create a factory that will resolve an instance of
 	 * {@link ReferenceByIdResolver}.
 	 *
-	 * @param def
-	 *   the definition of the entity being linked to
 	 * @param key
 	 *   key where the id is found
 	 * @return
 	 *   factory
 	 */
-	public static FieldResolverFactory factory(StructuredDef def, String key)
+	public static FieldResolverFactory factory(String key)
 	{
-		var entity = def.findImplements(interfaceDef -> interfaceDef.hasImplements(StorageSchema.ENTITY_NAME))
-			.get();
-
-		return encounter -> new ReferenceByIdResolver(
-			encounter.getStorage().get(entity.getName()),
-			key
-		);
+		return encounter -> new ReferenceByIdResolver(key);
 	}
 }
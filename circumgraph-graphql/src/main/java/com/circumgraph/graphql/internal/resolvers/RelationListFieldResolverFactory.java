@@ -1,40 +1,78 @@
 package com.circumgraph.graphql.internal.resolvers;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 import com.circumgraph.graphql.FieldResolver;
 import com.circumgraph.graphql.FieldResolverFactory;
 import com.circumgraph.graphql.GraphQLCreationEncounter;
+import com.circumgraph.graphql.internal.ExecutionTransaction;
+import com.circumgraph.graphql.internal.StoredObjectLoaders;
 import com.circumgraph.graphql.internal.processors.RelationDirectiveProcessor;
+import com.circumgraph.storage.Collection;
+import com.circumgraph.storage.ListValue;
+import com.circumgraph.storage.StoredObjectRef;
 import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.StructuredValue;
+import com.circumgraph.storage.Value;
 import com.circumgraph.storage.search.Page;
 import com.circumgraph.storage.search.Query;
 import com.circumgraph.storage.search.QueryPath;
 
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Multimaps;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.multimap.list.MutableListMultimap;
+import org.eclipse.collections.api.set.MutableSet;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLNamedType;
+import reactor.core.publisher.Mono;
 import se.l4.silo.index.EqualsMatcher;
 import se.l4.silo.index.FieldSort;
+import se.l4.silo.index.search.QueryClause;
+import se.l4.silo.index.search.query.OrQuery;
 
 /**
  * Resolver for fields that use the {@code relation} directive when a simple list
  * is being returned.
  *
+ * Loads are batched per execution level, so that the relations of all the
+ * parents on a level are fetched using a single query that is then grouped
+ * by parent. When {@code first} is used the query is fetched in pages until
+ * every parent has the requested number of objects or there are no more
+ * results, and objects beyond the limit of a parent are skipped.
+ *
  * Validated and created by {@link RelationDirectiveProcessor}.
  */
 public class RelationListFieldResolverFactory
 	implements FieldResolverFactory
 {
+	/**
+	 * Maximum number of objects fetched per page when {@code first} is used.
+	 */
+	private static final int MAX_PAGE_SIZE = 1000;
+
 	private final String entity;
+	private final String field;
 	private final QueryPath path;
 	private final Optional<FieldSort> sort;
 
 	public RelationListFieldResolverFactory(
 		String entity,
+		String field,
 		QueryPath path,
 		Optional<FieldSort> sort
 	)
 	{
 		this.entity = entity;
+		this.field = field;
 		this.path = path;
 		this.sort = sort;
 	}
@@ -46,27 +84,217 @@ public class RelationListFieldResolverFactory
 		return env -> {
 			StoredObjectValue source = env.getSource();
 
-			var query = Query.create()
-				.withPage(env.containsArgument("first")
-					? Page.first(env.getArgument("first"))
-					: Page.infinite()
-				)
-				.addClause(path.toQuery(EqualsMatcher.create(source.getId())));
+			int limit = env.containsArgument("first")
+				? env.getArgument("first")
+				: Page.infinite().getLimit();
+
+			var loaderName = "relation:"
+				+ ((GraphQLNamedType) env.getParentType()).getName()
+				+ "." + env.getFieldDefinition().getName()
+				+ ":" + limit;
+
+			DataLoader<String, ListIterable<StoredObjectValue>> loader = env.getDataLoaderRegistry()
+				.computeIfAbsent(loaderName, key -> createLoader(env, collection, limit));
+
+			return loader.load(source.getId());
+		};
+	}
+
+	private DataLoader<String, ListIterable<StoredObjectValue>> createLoader(
+		DataFetchingEnvironment env,
+		Collection collection,
+		int limit
+	)
+	{
+		ExecutionTransaction tx = env.getGraphQlContext().get("transaction");
+		StoredObjectLoaders loaders = env.getGraphQlContext().get("loaders");
+		return DataLoaderFactory.newMappedDataLoader(
+			(Set<String> ids) -> search(tx, collection, ids, limit),
+			loaders.getOptions()
+		);
+	}
+
+	/**
+	 * Search for the relations of several parents. A single query matching
+	 * all of the parents is used and the results grouped by parent.
+	 *
+	 * @param tx
+	 *   transaction to search in
+	 * @param collection
+	 *   collection containing the related objects
+	 * @param ids
+	 *   identifiers of the parents
+	 * @param limit
+	 *   the maximum number of related objects to return for every parent
+	 * @return
+	 */
+	private CompletionStage<Map<String, ListIterable<StoredObjectValue>>> search(
+		ExecutionTransaction tx,
+		Collection collection,
+		Set<String> ids,
+		int limit
+	)
+	{
+		var clause = OrQuery.create();
+		for(var id : ids)
+		{
+			clause = clause.add(path.toQuery(EqualsMatcher.create(id)));
+		}
+
+		int pageSize = limit == Page.infinite().getLimit()
+			? limit
+			: (int) Math.min(MAX_PAGE_SIZE, (long) limit * ids.size());
+
+		MutableListMultimap<String, StoredObjectValue> grouped = Multimaps.mutable.list.empty();
+		return searchPage(tx, collection, clause.build(), Page.first(pageSize), ids, limit, grouped)
+			.then(Mono.<Map<String, ListIterable<StoredObjectValue>>>fromSupplier(() -> Lists.immutable.ofAll(ids)
+				.toMap(id -> id, id -> grouped.get(id).toImmutable())
+			))
+			.toFuture();
+	}
+
+	/**
+	 * Fetch a page of related objects and group them by parent. Continues
+	 * with the next page while there are more results and some parent has
+	 * fewer objects than the limit.
+	 *
+	 * @param tx
+	 * @param collection
+	 * @param clause
+	 * @param page
+	 * @param ids
+	 * @param limit
+	 * @param grouped
+	 * @return
+	 */
+	private Mono<Void> searchPage(
+		ExecutionTransaction tx,
+		Collection collection,
+		QueryClause clause,
+		Page page,
+		Set<String> ids,
+		int limit,
+		MutableListMultimap<String, StoredObjectValue> grouped
+	)
+	{
+		return tx.wrap(collection.search(createQuery(clause, page)))
+			.flatMap(result -> {
+				group(result.getNodes(), ids, limit, grouped);
+
+				var pageInfo = result.getPageInfo();
+				if(! pageInfo.hasNextPage()
+					|| ids.stream().allMatch(id -> grouped.get(id).size() >= limit))
+				{
+					return Mono.empty();
+				}
+
+				return searchPage(
+					tx,
+					collection,
+					clause,
+					Page.first(page.getLimit(), pageInfo.getEndCursor()),
+					ids,
+					limit,
+					grouped
+				);
+			});
+	}
+
+	/**
+	 * Create the query used to find related objects.
+	 *
+	 * @param clause
+	 * @param page
+	 * @return
+	 */
+	private Query createQuery(QueryClause clause, Page page)
+	{
+		var query = Query.create()
+			.withPage(page)
+			.addClause(clause);
+
+		if(sort.isPresent())
+		{
+			query = query.addSort(sort.get());
+		}
+
+		return query;
+	}
+
+	/**
+	 * Group a page of a batched search by the parents they link to. The
+	 * nodes are kept in the order they were returned, so any sort applied by
+	 * the query is kept within each parent. Nodes are skipped for parents
+	 * that already have the maximum number of nodes.
+	 *
+	 * @param nodes
+	 * @param ids
+	 * @param limit
+	 * @param grouped
+	 */
+	private void group(
+		ListIterable<StoredObjectValue> nodes,
+		Set<String> ids,
+		int limit,
+		MutableListMultimap<String, StoredObjectValue> grouped
+	)
+	{
+		var parts = field.split("\\.");
+		for(var node : nodes)
+		{
+			MutableSet<String> refs = Sets.mutable.empty();
+			collectReferences(node, parts, 0, refs);
 
-			if(sort.isPresent())
+			for(var ref : refs)
 			{
-				query = query.addSort(sort.get());
+				if(ids.contains(ref) && grouped.get(ref).size() < limit)
+				{
+					grouped.put(ref, node);
+				}
 			}
+		}
+	}
 
-			return collection.search(query)
-				.map(o -> o.getNodes());
-		};
+	/**
+	 * Collect the identifiers of all objects referenced at the given path.
+	 *
+	 * @param value
+	 * @param parts
+	 * @param index
+	 * @param refs
+	 */
+	private static void collectReferences(
+		Value value,
+		String[] parts,
+		int index,
+		MutableSet<String> refs
+	)
+	{
+		if(value instanceof ListValue<?> list)
+		{
+			for(var item : list.items())
+			{
+				collectReferences(item, parts, index, refs);
+			}
+		}
+		else if(index == parts.length)
+		{
+			if(value instanceof StoredObjectRef ref)
+			{
+				refs.add(ref.getId());
+			}
+		}
+		else if(value instanceof StructuredValue structured)
+		{
+			structured.getField(parts[index])
+				.ifPresent(v -> collectReferences(v, parts, index + 1, refs));
+		}
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return Objects.hash(entity, path, sort);
+		return Objects.hash(entity, field, path, sort);
 	}
 
 	@Override
@@ -77,6 +305,7 @@ public class RelationListFieldResolverFactory
 		if(getClass() != obj.getClass()) return false;
 		RelationListFieldResolverFactory other = (RelationListFieldResolverFactory) obj;
 		return Objects.equals(entity, other.entity)
+			&& Objects.equals(field, other.field)
 			&& Objects.equals(path, other.path)
 			&& Objects.equals(sort, other.sort);
 	}
@@ -16,20 +16,25 @@ import com.circumgraph.model.NonNullDef;
 import com.circumgraph.model.ObjectDef;
 import com.circumgraph.model.OutputTypeDef;
 import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.SimpleValueDef;
 import com.circumgraph.model.StructuredDef;
 import com.circumgraph.model.UnionDef;
 import com.circumgraph.storage.StorageModel;
 import com.circumgraph.storage.StorageSchema;
 import com.circumgraph.storage.search.Edge;
+import com.circumgraph.storage.search.FacetBucket;
 import com.circumgraph.storage.search.PageCursor;
 import com.circumgraph.storage.search.PageCursors;
 import com.circumgraph.storage.search.PageInfo;
 import com.circumgraph.storage.search.QueryPath;
 import com.circumgraph.storage.search.SearchResult;
 
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.map.ImmutableMap;
 import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.ImmutableSet;
 
 /**
  * Generator for a search query within the GraphQL schema.
@@ -82,11 +87,62 @@ public class SearchQueryGenerator
 		return ctx.getNode();
 	};
 
+	private static final FieldResolver FACETS_FETCHER = (env) -> {
+		SearchResult ctx = env.getSource();
+		return ctx;
+	};
+
+	private static final FieldResolver FACET_FETCHER = (env) -> {
+		SearchResult ctx = env.getSource();
+		var facet = ctx.getFacet(env.getMergedField().getResultKey());
+		return facet == null ? Lists.immutable.empty() : facet.getBuckets();
+	};
+
+	private static final FieldResolver FACET_VALUE_FETCHER = (env) -> {
+		FacetBucket ctx = env.getSource();
+		return ctx.getValue();
+	};
+
+	private static final FieldResolver FACET_FROM_FETCHER = (env) -> {
+		FacetBucket ctx = env.getSource();
+		return ctx.getRange().getFrom();
+	};
+
+	private static final FieldResolver FACET_TO_FETCHER = (env) -> {
+		FacetBucket ctx = env.getSource();
+		return ctx.getRange().getTo();
+	};
+
+	private static final FieldResolver FACET_COUNT_FETCHER = (env) -> {
+		FacetBucket ctx = env.getSource();
+		return ctx.getCount();
+	};
+
+	/**
+	 * Scalars that facets count ranges for instead of values.
+	 */
+	private static final ImmutableSet<String> RANGE_FACET_SCALARS = Sets.immutable.of(
+		ScalarDef.INT.getName(),
+		ScalarDef.FLOAT.getName(),
+		ScalarDef.LOCAL_DATE.getName(),
+		ScalarDef.LOCAL_TIME.getName(),
+		ScalarDef.LOCAL_DATE_TIME.getName(),
+		ScalarDef.OFFSET_TIME.getName(),
+		ScalarDef.OFFSET_DATE_TIME.getName(),
+		ScalarDef.ZONED_DATE_TIME.getName()
+	);
+
 	private final MutableMap<String, Criteria> indexerToCriteria;
 
 	private final OutputTypeDef pageInfoType;
 	private final OutputTypeDef pageCursorsType;
 
+	/**
+	 * Types used for facets, shared between all collections.
+	 */
+	private final MutableMap<String, ObjectDef> facetBucketTypes;
+	private final MutableMap<String, InputObjectDef> facetRangeInputs;
+
 	public SearchQueryGenerator()
 	{
 		indexerToCriteria = Maps.mutable.empty();
@@ -112,6 +168,9 @@ public class SearchQueryGenerator
 
 		this.pageInfoType = generatePageInfo();
 		this.pageCursorsType = generatePageCursors();
+
+		this.facetBucketTypes = Maps.mutable.empty();
+		this.facetRangeInputs = Maps.mutable.empty();
 	}
 
 	private OutputTypeDef generatePageInfo()
@@ -453,7 +512,7 @@ public class SearchQueryGenerator
 	)
 	{
 		var name = SchemaNames.toSearchResultTypeName(def);
-		return ObjectDef.create(name)
+		var builder = ObjectDef.create(name)
 			.withDescription("Search result for " + def.getName() + ".")
 			.addField(FieldDef.create("totalCount")
 				.withType(NonNullDef.output(ScalarDef.INT))
@@ -495,10 +554,197 @@ public class SearchQueryGenerator
 				.withDescription("Matching items including scores and cursors")
 				.withMetadata(GraphQLModel.FIELD_RESOLVER, EDGES_FETCHER)
 				.build()
-			)
+			);
+
+		var facetsType = generateFacetsType(def);
+		if(facetsType != null)
+		{
+			builder = builder.addField(FieldDef.create("facets")
+				.withType(NonNullDef.output(facetsType))
+				.withDescription("Facets calculated for all items matching")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, FACETS_FETCHER)
+				.build()
+			);
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Generate the type containing the facets available for a type. Facets
+	 * are available for indexed fields containing exact values, either
+	 * directly or in a list. Fields containing numbers, dates or times
+	 * count ranges, other fields count values.
+	 *
+	 * @param def
+	 * @return
+	 *   type or {@code null} if no fields support facets
+	 */
+	private ObjectDef generateFacetsType(
+		StructuredDef def
+	)
+	{
+		var fields = Lists.mutable.<FieldDef>empty();
+		for(var field : def.getFields())
+		{
+			var valueType = resolveFacetValueType(field);
+			if(valueType == null) continue;
+
+			var fieldBuilder = FieldDef.create(field.getName())
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, FACET_FETCHER);
+
+			if(RANGE_FACET_SCALARS.contains(valueType.getName()))
+			{
+				fieldBuilder = fieldBuilder
+					.withType(NonNullDef.output(ListDef.output(NonNullDef.output(generateFacetRangeBucket(valueType)))))
+					.withDescription("Count items with " + field.getName() + " within the given ranges")
+					.addArgument(ArgumentDef.create("ranges")
+						.withType(NonNullDef.input(ListDef.input(NonNullDef.input(generateFacetRangeInput((ScalarDef) valueType)))))
+						.withDescription("Ranges to count items in")
+						.build()
+					);
+			}
+			else
+			{
+				fieldBuilder = fieldBuilder
+					.withType(NonNullDef.output(ListDef.output(NonNullDef.output(generateFacetValueBucket(valueType)))))
+					.withDescription("Count items per value of " + field.getName() + ", most common values first")
+					.addArgument(ArgumentDef.create("limit")
+						.withType(ScalarDef.INT)
+						.withDescription("Maximum number of values to return, 10 by default")
+						.withDefaultValue(10)
+						.build()
+					);
+			}
+
+			fields.add(fieldBuilder.build());
+		}
+
+		if(fields.isEmpty())
+		{
+			return null;
+		}
+
+		return ObjectDef.create(SchemaNames.toSearchFacetsTypeName(def))
+			.withDescription("Facets available when searching for " + def.getName() + ".")
+			.addFields(fields)
 			.build();
 	}
 
+	/**
+	 * Resolve the type of values counted by a facet for a field.
+	 *
+	 * @param field
+	 * @return
+	 *   type of value or {@code null} if the field does not support facets
+	 */
+	private SimpleValueDef resolveFacetValueType(FieldDef field)
+	{
+		if(! StorageModel.isIndexed(field)) return null;
+
+		var indexer = StorageModel.getIndexer(field);
+		if(indexer.isPresent())
+		{
+			var indexerName = indexer.get().getName();
+			if(indexerName.equals("FULL_TEXT") || indexerName.equals("TYPE_AHEAD"))
+			{
+				return null;
+			}
+		}
+
+		var type = field.getType();
+		if(type instanceof NonNullDef.Output nonNull)
+		{
+			type = nonNull.getType();
+		}
+
+		if(type instanceof ListDef.Output listDef)
+		{
+			type = listDef.getItemType();
+			if(type instanceof NonNullDef.Output nonNull)
+			{
+				type = nonNull.getType();
+			}
+		}
+
+		if(type instanceof SimpleValueDef simpleValueDef)
+		{
+			return simpleValueDef;
+		}
+		else if(type instanceof StructuredDef structuredDef
+			&& structuredDef.findImplements(StorageSchema.ENTITY_NAME))
+		{
+			// References are counted by their identifier
+			return ScalarDef.ID;
+		}
+
+		return null;
+	}
+
+	private ObjectDef generateFacetValueBucket(SimpleValueDef valueType)
+	{
+		return facetBucketTypes.getIfAbsentPut(valueType.getName() + "FacetValue", () -> ObjectDef.create(valueType.getName() + "FacetValue")
+			.withDescription("Number of items with a certain value")
+			.addField(FieldDef.create("value")
+				.withType(NonNullDef.output(valueType.getName()))
+				.withDescription("The value")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, FACET_VALUE_FETCHER)
+				.build()
+			)
+			.addField(FieldDef.create("count")
+				.withType(NonNullDef.output(ScalarDef.INT))
+				.withDescription("Number of items with the value")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, FACET_COUNT_FETCHER)
+				.build()
+			)
+			.build()
+		);
+	}
+
+	private ObjectDef generateFacetRangeBucket(SimpleValueDef valueType)
+	{
+		return facetBucketTypes.getIfAbsentPut(valueType.getName() + "FacetRange", () -> ObjectDef.create(valueType.getName() + "FacetRange")
+			.withDescription("Number of items with a value within a range")
+			.addField(FieldDef.create("from")
+				.withType(valueType.getName())
+				.withDescription("Start of the range, inclusive")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, FACET_FROM_FETCHER)
+				.build()
+			)
+			.addField(FieldDef.create("to")
+				.withType(valueType.getName())
+				.withDescription("End of the range, exclusive")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, FACET_TO_FETCHER)
+				.build()
+			)
+			.addField(FieldDef.create("count")
+				.withType(NonNullDef.output(ScalarDef.INT))
+				.withDescription("Number of items within the range")
+				.withMetadata(GraphQLModel.FIELD_RESOLVER, FACET_COUNT_FETCHER)
+				.build()
+			)
+			.build()
+		);
+	}
+
+	private InputObjectDef generateFacetRangeInput(ScalarDef valueType)
+	{
+		return facetRangeInputs.getIfAbsentPut(valueType.getName() + "FacetRangeInput", () -> InputObjectDef.create(valueType.getName() + "FacetRangeInput")
+			.withDescription("Range to count items in, leave `from` or `to` empty for an open range")
+			.addField(InputFieldDef.create("from")
+				.withType(valueType)
+				.withDescription("Start of the range, inclusive")
+				.build()
+			)
+			.addField(InputFieldDef.create("to")
+				.withType(valueType)
+				.withDescription("End of the range, exclusive")
+				.build()
+			)
+			.build()
+		);
+	}
+
 	private ObjectDef generateEdgeType(
 		StructuredDef def
 	)
@@ -7,6 +7,7 @@ import static org.hamcrest.Matchers.nullValue;
 import com.circumgraph.storage.Collection;
 import com.circumgraph.storage.mutation.ScalarValueMutation;
 
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
 import org.junit.jupiter.api.Test;
 
@@ -76,6 +77,37 @@ public class BasicGetAndStoreTest
 		assertThat(value, is("Hello World"));
 	}
 
+	@Test
+	public void testMutationStoreMany()
+	{
+		var result = execute(
+			"mutation($m: [TestMutationInput!]!) { storeManyTest(mutations: $m) { id, title } }",
+			Maps.mutable.of(
+				"m", Lists.mutable.of(
+					Maps.mutable.of("title", "First"),
+					Maps.mutable.of("title", "Second")
+				)
+			)
+		);
+
+		result.assertNoErrors();
+
+		assertThat(result.pick("storeManyTest", "0", "title"), is("First"));
+		assertThat(result.pick("storeManyTest", "1", "title"), is("Second"));
+
+		// Verify that the objects can be fetched
+		String id = result.pick("storeManyTest", "1", "id");
+		result = execute(
+			"query($id: ID!) { test { get(id: $id) { title } } }",
+			Maps.mutable.of(
+				"id", id
+			)
+		);
+
+		result.assertNoErrors();
+		assertThat(result.pick("test", "get", "title"), is("Second"));
+	}
+
 	@Test
 	public void testMutationNewInvalid()
 	{
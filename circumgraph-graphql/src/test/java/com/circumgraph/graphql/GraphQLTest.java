@@ -23,6 +23,8 @@ import graphql.GraphQL;
 import graphql.GraphQLContext;
 import graphql.GraphQLError;
 import graphql.schema.idl.SchemaPrinter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 
 public class GraphQLTest
 {
@@ -42,6 +44,11 @@ public class GraphQLTest
 	}
 
 	protected Context open(String schema)
+	{
+		return open(schema, Metrics.globalRegistry);
+	}
+
+	protected Context open(String schema, MeterRegistry meterRegistry)
 	{
 		if(storage != null)
 		{
@@ -55,11 +62,12 @@ public class GraphQLTest
 			.build();
 
 		storage = Storage.open(model, tmp)
+			.withMeterRegistry(meterRegistry)
 			.start()
 			.block();
 
 		// Create a GraphQL instance for the storage
-		var generator = new GraphQLGenerator(storage);
+		var generator = new GraphQLGenerator(storage, meterRegistry);
 		var generatedSchema = generator.generateSchema();
 		var ql = generator.generate(generatedSchema)
 			.build();
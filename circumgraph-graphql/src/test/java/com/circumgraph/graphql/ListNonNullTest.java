@@ -103,4 +103,85 @@ public class ListNonNullTest
 
 		assertThat(result.pick("test", "get", "values"), contains("a", "b"));
 	}
+
+	@Test
+	public void testPartialUpdates()
+	{
+		var result = execute(
+			"""
+				mutation($m: TestMutationInput!) {
+					storeTest(mutation: $m) {
+						id
+					}
+				}
+			""",
+			Maps.immutable.of(
+				"m", Maps.immutable.of(
+					"values", Maps.immutable.of(
+						"set", Lists.immutable.of("a", "b")
+					)
+				)
+			)
+		);
+
+		result.assertNoErrors();
+
+		var id = result.pick("storeTest", "id");
+
+		var mutation = """
+			mutation($id: ID!, $m: TestMutationInput!) {
+				storeTest(id: $id, mutation: $m) {
+					values
+				}
+			}
+		""";
+
+		result = execute(
+			mutation,
+			Maps.immutable.of(
+				"id", id,
+				"m", Maps.immutable.of(
+					"values", Maps.immutable.of(
+						"add", Lists.immutable.of("c")
+					)
+				)
+			)
+		);
+
+		result.assertNoErrors();
+		assertThat(result.pick("storeTest", "values"), contains("a", "b", "c"));
+
+		result = execute(
+			mutation,
+			Maps.immutable.of(
+				"id", id,
+				"m", Maps.immutable.of(
+					"values", Maps.immutable.of(
+						"insert", Maps.immutable.of(
+							"index", 1,
+							"values", Lists.immutable.of("x")
+						)
+					)
+				)
+			)
+		);
+
+		result.assertNoErrors();
+		assertThat(result.pick("storeTest", "values"), contains("a", "x", "b", "c"));
+
+		result = execute(
+			mutation,
+			Maps.immutable.of(
+				"id", id,
+				"m", Maps.immutable.of(
+					"values", Maps.immutable.of(
+						"remove", Lists.immutable.of("b")
+					)
+				)
+			)
+		);
+
+		result.assertNoErrors();
+		assertThat(result.pick("storeTest", "values"), contains("a", "x", "c"));
+	}
 }
@@ -169,4 +169,79 @@ public class ReferenceTest
 		assertThat(result.pick("entity1", "get", "other", "id"), is(e2id));
 		assertThat(result.pick("entity1", "get", "other", "value"), is("Entity2 value"));
 	}
+
+	@Test
+	public void testResolveReferencesInSearch()
+	{
+		var m1 = """
+			mutation($m: Entity2MutationInput!) {
+				storeEntity2(mutation: $m) {
+					id
+				}
+			}
+		""";
+
+		var m2 = """
+			mutation($m: Entity1MutationInput!) {
+				storeEntity1(mutation: $m) {
+					id
+				}
+			}
+		""";
+
+		var result = execute(
+			m1,
+			Maps.immutable.of(
+				"m", Maps.immutable.of(
+					"value", "Entity2 value"
+				)
+			)
+		);
+
+		result.assertNoErrors();
+
+		var e2id = result.pick("storeEntity2", "id");
+
+		for(int i=0; i<3; i++)
+		{
+			result = execute(
+				m2,
+				Maps.immutable.of(
+					"m", Maps.immutable.of(
+						"other", Maps.immutable.of(
+							"id", e2id
+						)
+					)
+				)
+			);
+
+			result.assertNoErrors();
+		}
+
+		var q1 = """
+			query {
+				entity1 {
+					search {
+						nodes {
+							other {
+								id,
+								value
+							}
+						}
+					}
+				}
+			}
+		""";
+
+		result = execute(q1);
+
+		result.assertNoErrors();
+
+		for(int i=0; i<3; i++)
+		{
+			var index = String.valueOf(i);
+			assertThat(result.pick("entity1", "search", "nodes", index, "other", "id"), is(e2id));
+			assertThat(result.pick("entity1", "search", "nodes", index, "other", "value"), is("Entity2 value"));
+		}
+	}
 }
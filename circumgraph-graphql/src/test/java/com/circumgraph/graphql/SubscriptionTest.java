@@ -0,0 +1,123 @@
+package com.circumgraph.graphql;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+
+import graphql.ExecutionResult;
+import reactor.core.publisher.Flux;
+
+public class SubscriptionTest
+	extends SingleSchemaGraphQLTest
+{
+	@Override
+	protected String getSchema()
+	{
+		return """
+			type Entity1 implements Entity {
+				name: String
+
+				other: Entity2
+			}
+
+			type Entity2 implements Entity {
+				value: String!
+			}
+		""";
+	}
+
+	private String storeEntity2(String id, String value)
+	{
+		var result = execute(
+			"""
+				mutation($id: ID, $m: Entity2MutationInput!) {
+					storeEntity2(id: $id, mutation: $m) {
+						id
+					}
+				}
+			""",
+			id == null
+				? Maps.immutable.of("m", Maps.immutable.of("value", value))
+				: Maps.immutable.of("id", id, "m", Maps.immutable.of("value", value))
+		);
+
+		result.assertNoErrors();
+		return result.pick("storeEntity2", "id");
+	}
+
+	private String storeEntity1(String id, String name, String otherId)
+	{
+		var result = execute(
+			"""
+				mutation($id: ID, $m: Entity1MutationInput!) {
+					storeEntity1(id: $id, mutation: $m) {
+						id
+					}
+				}
+			""",
+			id == null
+				? Maps.immutable.of("m", Maps.immutable.of("name", name, "other", Maps.immutable.of("id", otherId)))
+				: Maps.immutable.of("id", id, "m", Maps.immutable.of("name", name, "other", Maps.immutable.of("id", otherId)))
+		);
+
+		result.assertNoErrors();
+		return result.pick("storeEntity1", "id");
+	}
+
+	@Test
+	public void testReferencesAreLoadedForEveryEvent()
+		throws Exception
+	{
+		var e2 = storeEntity2(null, "First");
+
+		var result = execute("""
+			subscription {
+				entity1Changes {
+					operation
+					node {
+						other {
+							value
+						}
+					}
+				}
+			}
+		""");
+
+		result.assertNoErrors();
+
+		Publisher<ExecutionResult> publisher = result.getData();
+		var events = Flux.from(publisher)
+			.take(2)
+			.collectList()
+			.toFuture();
+
+		var e1 = storeEntity1(null, "v1", e2);
+		storeEntity2(e2, "Second");
+		storeEntity1(e1, "v2", e2);
+
+		List<ExecutionResult> received = events.get(10, TimeUnit.SECONDS);
+
+		assertThat(received.size(), is(2));
+		assertThat(value(received.get(0)), is("First"));
+		assertThat(value(received.get(1)), is("Second"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private String value(ExecutionResult result)
+	{
+		assertThat(result.getErrors().isEmpty(), is(true));
+
+		Map<String, Object> data = result.getData();
+		var change = (Map<String, Object>) data.get("entity1Changes");
+		var node = (Map<String, Object>) change.get("node");
+		var other = (Map<String, Object>) node.get("other");
+		return (String) other.get("value");
+	}
+}
@@ -0,0 +1,132 @@
+package com.circumgraph.graphql;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+import com.circumgraph.storage.search.Query;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for the transactions created for executions and the metrics
+ * recorded about them.
+ */
+public class TransactionTest
+	extends GraphQLTest
+{
+	private SimpleMeterRegistry registry;
+	private Context ctx;
+
+	@BeforeEach
+	public void setup()
+	{
+		registry = new SimpleMeterRegistry();
+		ctx = open("""
+			type Test implements Entity {
+				title: String!
+			}
+		""", registry);
+	}
+
+	private long transactions(String outcome)
+	{
+		return registry.get("circumgraph.graphql.transactions")
+			.tag("outcome", outcome)
+			.timer()
+			.count();
+	}
+
+	private int searches()
+	{
+		return storage.get("Test")
+			.search(Query.create())
+			.block()
+			.getTotalCount();
+	}
+
+	@Test
+	public void testQueryRunsWithoutTransaction()
+	{
+		var result = ctx.execute("query { test { search { totalCount } } }");
+		result.assertNoErrors();
+
+		assertThat(transactions("commit"), is(0L));
+		assertThat(transactions("rollback"), is(0L));
+	}
+
+	@Test
+	public void testMutationCommits()
+	{
+		var result = ctx.execute(
+			"mutation($m: TestMutationInput!) { storeTest(mutation: $m) { id } }",
+			Maps.mutable.of(
+				"m", Maps.mutable.of(
+					"title", "Hello World"
+				)
+			)
+		);
+
+		result.assertNoErrors();
+
+		assertThat(transactions("commit"), is(1L));
+		assertThat(transactions("rollback"), is(0L));
+		assertThat(searches(), is(1));
+	}
+
+	@Test
+	public void testMutationRollsBackOnError()
+	{
+		var result = ctx.execute(
+			"""
+			mutation($a: TestMutationInput!, $b: TestMutationInput!) {
+				a: storeTest(mutation: $a) { id }
+				b: storeTest(mutation: $b) { id }
+			}
+			""",
+			Maps.mutable.of(
+				"a", Maps.mutable.of(
+					"title", "Hello World"
+				),
+				"b", Maps.mutable.empty()
+			)
+		);
+
+		result.assertValidationError("b", "title", "storage:validation:null");
+
+		assertThat(transactions("commit"), is(0L));
+		assertThat(transactions("rollback"), is(1L));
+		assertThat(searches(), is(0));
+	}
+
+	@Test
+	public void testMetersRegistered()
+	{
+		var result = ctx.execute(
+			"mutation($m: TestMutationInput!) { storeTest(mutation: $m) { id } }",
+			Maps.mutable.of(
+				"m", Maps.mutable.of(
+					"title", "Hello World"
+				)
+			)
+		);
+
+		result.assertNoErrors();
+
+		assertThat(registry.find("circumgraph.graphql.resolvers")
+			.tag("type", "Test")
+			.tag("field", "title")
+			.timer(), notNullValue());
+
+		assertThat(registry.get("circumgraph.storage.operations")
+			.tag("collection", "Test")
+			.tag("operation", "store")
+			.tag("outcome", "success")
+			.timer()
+			.count(), is(1L));
+	}
+}
@@ -270,4 +270,172 @@ public class RelationPropertyListTest
 		List<Map<String, Object>> items = result.pick("user", "get", "documents");
 		assertThat(items.size(), is(5));
 	}
+
+	@Test
+	public void testMultipleParents()
+	{
+		var m1 = """
+			mutation($m: UserMutationInput!) {
+				storeUser(mutation: $m) {
+					id
+				}
+			}
+		""";
+
+		var m2 = """
+			mutation($m: DocumentMutationInput!) {
+				storeDocument(mutation: $m) {
+					id
+				}
+			}
+		""";
+
+		Map<String, Integer> expected = Maps.mutable.empty();
+		for(int u=1; u<=3; u++)
+		{
+			var result = execute(
+				m1,
+				Maps.immutable.of(
+					"m", Maps.immutable.of(
+					)
+				)
+			);
+
+			result.assertNoErrors();
+
+			String id = result.pick("storeUser", "id");
+			expected.put(id, u);
+
+			for(int i=0; i<u; i++)
+			{
+				result = execute(
+					m2,
+					Maps.immutable.of(
+						"m", Maps.immutable.of(
+							"creator", Maps.immutable.of(
+								"id", id
+							)
+						)
+					)
+				);
+
+				result.assertNoErrors();
+			}
+		}
+
+		var q1 = """
+			query {
+				user {
+					search {
+						nodes {
+							id
+							documents {
+								id
+							}
+							limited: documents(first: 1) {
+								id
+							}
+						}
+					}
+				}
+			}
+		""";
+
+		var result = execute(q1);
+
+		result.assertNoErrors();
+
+		List<Map<String, Object>> users = result.pick("user", "search", "nodes");
+		assertThat(users.size(), is(3));
+
+		for(var user : users)
+		{
+			var documents = (List<?>) user.get("documents");
+			assertThat(documents.size(), is(expected.get(user.get("id"))));
+
+			var limited = (List<?>) user.get("limited");
+			assertThat(limited.size(), is(1));
+		}
+	}
+
+	@Test
+	public void testMultipleParentsLimitedPerParent()
+	{
+		var m1 = """
+			mutation($m: UserMutationInput!) {
+				storeUser(mutation: $m) {
+					id
+				}
+			}
+		""";
+
+		var m2 = """
+			mutation($m: DocumentMutationInput!) {
+				storeDocument(mutation: $m) {
+					id
+				}
+			}
+		""";
+
+		Map<String, Integer> expected = Maps.mutable.empty();
+		for(int u=1; u<=4; u++)
+		{
+			var result = execute(
+				m1,
+				Maps.immutable.of(
+					"m", Maps.immutable.of(
+					)
+				)
+			);
+
+			result.assertNoErrors();
+
+			String id = result.pick("storeUser", "id");
+			expected.put(id, Math.min(u, 2));
+
+			for(int i=0; i<u; i++)
+			{
+				result = execute(
+					m2,
+					Maps.immutable.of(
+						"m", Maps.immutable.of(
+							"creator", Maps.immutable.of(
+								"id", id
+							)
+						)
+					)
+				);
+
+				result.assertNoErrors();
+			}
+		}
+
+		var q1 = """
+			query {
+				user {
+					search {
+						nodes {
+							id
+							documents(first: 2) {
+								id
+							}
+						}
+					}
+				}
+			}
+		""";
+
+		var result = execute(q1);
+
+		result.assertNoErrors();
+
+		List<Map<String, Object>> users = result.pick("user", "search", "nodes");
+		assertThat(users.size(), is(4));
+
+		for(var user : users)
+		{
+			var documents = (List<?>) user.get("documents");
+			assertThat(documents.size(), is(expected.get(user.get("id"))));
+		}
+	}
 }
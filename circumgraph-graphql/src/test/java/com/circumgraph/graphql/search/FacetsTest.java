@@ -0,0 +1,134 @@
+package com.circumgraph.graphql.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.circumgraph.graphql.SingleSchemaGraphQLTest;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FacetsTest
+	extends SingleSchemaGraphQLTest
+{
+	@Override
+	protected String getSchema()
+	{
+		return """
+			type Test implements Entity {
+				category: String! @index(type: TOKEN)
+				pages: Int! @index
+			}
+		""";
+	}
+
+	@BeforeEach
+	public void storeObjects()
+	{
+		store("a", 10);
+		store("a", 150);
+		store("b", 300);
+	}
+
+	private void store(String category, int pages)
+	{
+		var result = execute(
+			"""
+				mutation($m: TestMutationInput!) {
+					storeTest(mutation: $m) {
+						id
+					}
+				}
+			""",
+			Maps.immutable.of(
+				"m", Maps.immutable.of(
+					"category", category,
+					"pages", pages
+				)
+			)
+		);
+
+		result.assertNoErrors();
+	}
+
+	@Test
+	public void testValues()
+	{
+		var result = execute("""
+			query {
+				test {
+					search {
+						facets {
+							category {
+								value
+								count
+							}
+						}
+					}
+				}
+			}
+		""");
+
+		result.assertNoErrors();
+
+		assertThat(result.pick("test", "search", "facets", "category", "0", "value"), is("a"));
+		assertThat(result.pick("test", "search", "facets", "category", "0", "count"), is(2));
+		assertThat(result.pick("test", "search", "facets", "category", "1", "value"), is("b"));
+		assertThat(result.pick("test", "search", "facets", "category", "1", "count"), is(1));
+	}
+
+	@Test
+	public void testValuesLimit()
+	{
+		var result = execute("""
+			query {
+				test {
+					search {
+						facets {
+							category(limit: 1) {
+								value
+							}
+						}
+					}
+				}
+			}
+		""");
+
+		result.assertNoErrors();
+
+		assertThat(result.pick("test", "search", "facets", "category", "0", "value"), is("a"));
+		assertThat(result.pick("test", "search", "facets", "category", "1"), nullValue());
+	}
+
+	@Test
+	public void testRanges()
+	{
+		var result = execute("""
+			query {
+				test {
+					search(criteria: [
+						{ field: { category: { equals: "a" } } }
+					]) {
+						facets {
+							short: pages(ranges: [ { to: 100 } ]) {
+								count
+							}
+							long: pages(ranges: [ { from: 100 } ]) {
+								from
+								count
+							}
+						}
+					}
+				}
+			}
+		""");
+
+		result.assertNoErrors();
+
+		assertThat(result.pick("test", "search", "facets", "short", "0", "count"), is(1));
+		assertThat(result.pick("test", "search", "facets", "long", "0", "from"), is(100));
+		assertThat(result.pick("test", "search", "facets", "long", "0", "count"), is(1));
+	}
+}
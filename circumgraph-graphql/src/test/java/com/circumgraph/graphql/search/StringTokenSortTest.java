@@ -214,4 +214,72 @@ public class StringTokenSortTest
 		assertThat(result.pick("test", "search", "nodes", "0", "code"), is("B"));
 		assertThat(result.pick("test", "search", "nodes", "1", "code"), is("A"));
 	}
+
+	@Test
+	public void testSortPaging()
+	{
+		var mutation = """
+			mutation($m: TestMutationInput!) {
+				storeTest(mutation: $m) {
+					id
+				}
+			}
+		""";
+
+		for(var code : new String[] { "C", "A", "B", "A" })
+		{
+			var result = execute(
+				mutation,
+				Maps.immutable.of(
+					"m", Maps.immutable.of(
+						"code", code
+					)
+				)
+			);
+
+			result.assertNoErrors();
+		}
+
+		var query = """
+			query($after: String) {
+				test {
+					search(sort: [
+						{ field: CODE }
+					], first: 2, after: $after) {
+						totalCount,
+
+						pageInfo {
+							hasNextPage,
+							endCursor
+						}
+
+						nodes {
+							id,
+							code
+						}
+					}
+				}
+			}
+		""";
+
+		var result = execute(query);
+
+		result.assertNoErrors();
+
+		assertThat(result.pick("test", "search", "totalCount"), is(4));
+		assertThat(result.pick("test", "search", "pageInfo", "hasNextPage"), is(true));
+		assertThat(result.pick("test", "search", "nodes", "0", "code"), is("A"));
+		assertThat(result.pick("test", "search", "nodes", "1", "code"), is("A"));
+
+		String cursor = result.pick("test", "search", "pageInfo", "endCursor");
+
+		result = execute(query, Maps.immutable.of("after", cursor));
+
+		result.assertNoErrors();
+
+		assertThat(result.pick("test", "search", "totalCount"), is(4));
+		assertThat(result.pick("test", "search", "pageInfo", "hasNextPage"), is(false));
+		assertThat(result.pick("test", "search", "nodes", "0", "code"), is("B"));
+		assertThat(result.pick("test", "search", "nodes", "1", "code"), is("C"));
+	}
 }
@@ -5,6 +5,9 @@ import com.circumgraph.storage.mutation.StructuredMutation;
 import com.circumgraph.storage.search.Query;
 import com.circumgraph.storage.search.SearchResult;
 
+import org.eclipse.collections.api.set.SetIterable;
+
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -42,6 +45,16 @@ public interface Collection
 	 */
 	Mono<Boolean> contains(String id);
 
+	/**
+	 * Check which of the given identifiers exist.
+	 *
+	 * @param ids
+	 *   identifiers to check
+	 * @return
+	 *   the identifiers that exist
+	 */
+	Mono<SetIterable<String>> findExisting(Iterable<String> ids);
+
 	/**
 	 * Get a value based on its identifier.
 	 *
@@ -50,6 +63,18 @@ public interface Collection
 	 */
 	Mono<StoredObjectValue> get(String id);
 
+	/**
+	 * Get several values based on their identifiers. Identifiers that do not
+	 * exist are skipped, so the returned values may be fewer than the
+	 * identifiers requested.
+	 *
+	 * @param ids
+	 *   identifiers to fetch
+	 * @return
+	 *   values that exist, in the order they were requested
+	 */
+	Flux<StoredObjectValue> getAll(Iterable<String> ids);
+
 	/**
 	 * Create and store an object.
 	 *
@@ -69,6 +94,21 @@ public interface Collection
 	 */
 	Mono<StoredObjectValue> store(String id, StructuredMutation mutation);
 
+	/**
+	 * Create and store several objects. Mutations are grouped into batches
+	 * where every batch is stored in its own transaction, and a limited
+	 * number of batches are stored at the same time. When part of a
+	 * {@link StorageTransaction} all batches join that transaction and are
+	 * stored one at a time. If a mutation fails
+	 * the batch it belongs to is rolled back and the returned {@link Flux}
+	 * fails, batches that have already been stored are kept.
+	 *
+	 * @param mutations
+	 * @return
+	 *   the created objects, in the same order as the mutations
+	 */
+	Flux<StoredObjectValue> storeAll(Flux<StructuredMutation> mutations);
+
 	/**
 	 * Delete a stored object.
 	 *
@@ -83,4 +123,25 @@ public interface Collection
 	 * @return
 	 */
 	Mono<SearchResult> search(Query query);
+
+	/**
+	 * Stream changes made to this collection after subscribing. Changes are
+	 * emitted in order once they have been committed.
+	 *
+	 * @return
+	 */
+	Flux<CollectionChange> changes();
+
+	/**
+	 * Stream changes made to this collection after the change with the
+	 * given sequence number, used to resume a stream. Only a limited number
+	 * of recent changes are kept, if changes after the sequence number are
+	 * no longer available the returned {@link Flux} fails with a
+	 * {@link StorageException}.
+	 *
+	 * @param after
+	 *   sequence number of the last change seen
+	 * @return
+	 */
+	Flux<CollectionChange> changes(long after);
 }
@@ -0,0 +1,56 @@
+package com.circumgraph.storage;
+
+import com.circumgraph.model.StructuredDef;
+
+/**
+ * Change to an object in a {@link Collection}, emitted via
+ * {@link Collection#changes(long)} after the change has been committed.
+ */
+public interface CollectionChange
+{
+	/**
+	 * Get the sequence number of this change. Sequence numbers increase for
+	 * every change in a collection and can be used to resume streaming
+	 * changes.
+	 *
+	 * @return
+	 */
+	long getSequence();
+
+	/**
+	 * Get the identifier of the object that changed.
+	 *
+	 * @return
+	 */
+	String getId();
+
+	/**
+	 * Get the type of the object that changed.
+	 *
+	 * @return
+	 */
+	StructuredDef getDefinition();
+
+	/**
+	 * Get the operation that changed the object.
+	 *
+	 * @return
+	 */
+	Operation getOperation();
+
+	/**
+	 * Operation that caused a change.
+	 */
+	enum Operation
+	{
+		/**
+		 * Object was created or updated.
+		 */
+		STORED,
+
+		/**
+		 * Object was deleted.
+		 */
+		DELETED
+	}
+}
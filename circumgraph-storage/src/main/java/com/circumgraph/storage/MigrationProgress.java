@@ -0,0 +1,64 @@
+package com.circumgraph.storage;
+
+import java.util.Optional;
+
+/**
+ * Progress of the background migration of a {@link Collection}. Migrations
+ * run when the schema of a collection has changed and re-encode and
+ * reindex every stored object, so that fields that have become indexed are
+ * searchable for objects stored before the change.
+ *
+ * The collection can be used during the migration, but searches only see
+ * the new index data for objects that have been migrated.
+ */
+public interface MigrationProgress
+{
+	/**
+	 * Get the collection being migrated.
+	 *
+	 * @return
+	 */
+	Collection getCollection();
+
+	/**
+	 * Get the version of the schema that the collection is being migrated
+	 * to.
+	 *
+	 * @return
+	 */
+	int getSchemaVersion();
+
+	/**
+	 * Get the number of objects migrated since the migration started or
+	 * resumed after a restart.
+	 *
+	 * @return
+	 */
+	long getMigrated();
+
+	/**
+	 * Get the number of objects to migrate, counted when the migration
+	 * started or resumed after a restart. This is an estimate as objects
+	 * may be stored or deleted during the migration.
+	 *
+	 * @return
+	 */
+	long getTotal();
+
+	/**
+	 * Get if the migration has completed.
+	 *
+	 * @return
+	 */
+	boolean isCompleted();
+
+	/**
+	 * Get the error that stopped the migration. A failed migration
+	 * continues from its last checkpoint the next time the storage is
+	 * started.
+	 *
+	 * @return
+	 *   error if the migration failed
+	 */
+	Optional<Throwable> getFailure();
+}
@@ -6,9 +6,10 @@ import com.circumgraph.model.Model;
 import com.circumgraph.storage.internal.StorageImpl;
 
 import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.list.ListIterable;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import reactor.core.publisher.Mono;
-import se.l4.silo.Transactions;
 
 /**
  * Storage that contains all the {@link Collection}s created from the active
@@ -47,11 +48,67 @@ public interface Storage
 	void close();
 
 	/**
-	 * Access transaction support.
+	 * Access transaction support. Writes made in transactions created here
+	 * are tracked, so changes are published and cached search results are
+	 * invalidated only once the transaction commits.
 	 *
 	 * @return
 	 */
-	Transactions transactions();
+	StorageTransactions transactions();
+
+	/**
+	 * Create a snapshot of the stored data in the given directory. The
+	 * snapshot is consistent and created while the storage keeps serving
+	 * reads and writes. Creating a new snapshot in a directory that already
+	 * contains one only writes the chunks of data that have changed and
+	 * replaces the previous snapshot once complete.
+	 *
+	 * Snapshots of the same directory are created one at a time, a snapshot
+	 * waits for any other snapshot being written to the directory.
+	 *
+	 * @param directory
+	 *   directory to write the snapshot to
+	 * @return
+	 *   {@link Mono} that completes when the snapshot has been written
+	 * @see Builder#withSnapshotRateLimit(long)
+	 * @see Builder#withRestoreFrom(Path)
+	 */
+	Mono<Void> snapshot(Path directory);
+
+	/**
+	 * Get the migrations started because the schema of a collection has
+	 * changed. Migrations run in the background after the storage has
+	 * started.
+	 *
+	 * @return
+	 *   migrations of this storage, including those that have completed
+	 */
+	ListIterable<? extends MigrationProgress> getMigrations();
+
+	/**
+	 * Get a {@link Mono} that completes when all migrations have completed.
+	 *
+	 * @return
+	 */
+	Mono<Void> awaitMigrations();
+
+	/**
+	 * Reload this storage with a new model. Collections that use the same
+	 * types in both models are kept as is, only new and changed collections
+	 * are set up again. If the collections and how their objects are stored
+	 * and indexed are the same in both models the underlying storage is kept
+	 * open and shared with the returned storage, otherwise it is closed once
+	 * running operations have finished and opened again using the new model.
+	 *
+	 * This storage should not be used after it has been reloaded, the
+	 * returned storage replaces it and should be closed instead.
+	 *
+	 * @param model
+	 *   the new model
+	 * @return
+	 *   {@link Mono} with the storage using the new model
+	 */
+	Mono<Storage> reload(Model model);
 
 	static Builder open(Model model, Path path)
 	{
@@ -60,6 +117,63 @@ public interface Storage
 
 	interface Builder
 	{
+		/**
+		 * Set the registry that metrics are reported to. Defaults to the
+		 * global registry of Micrometer.
+		 *
+		 * @param registry
+		 * @return
+		 */
+		Builder withMeterRegistry(MeterRegistry registry);
+
+		/**
+		 * Enable caching of search results in every collection. The cache of
+		 * a collection is invalidated whenever an object in it is stored or
+		 * deleted. Writes made in a transaction created via
+		 * {@link Storage#transactions()} invalidate the cache when the
+		 * transaction completes. Disabled by default.
+		 *
+		 * @param maximumHits
+		 *   maximum number of hits to cache per collection, {@code 0} to
+		 *   disable caching
+		 * @return
+		 */
+		Builder withSearchCache(long maximumHits);
+
+		/**
+		 * Limit the I/O used when creating snapshots via
+		 * {@link Storage#snapshot(Path)}, so that creating a snapshot has a
+		 * limited effect on other work. Defaults to 32 MiB per second.
+		 *
+		 * @param bytesPerSecond
+		 *   maximum number of bytes to read and write per second,
+		 *   {@code 0} for no limit
+		 * @return
+		 */
+		Builder withSnapshotRateLimit(long bytesPerSecond);
+
+		/**
+		 * Restore the data from a snapshot created via
+		 * {@link Storage#snapshot(Path)} when starting. The storage must be
+		 * opened in an empty directory.
+		 *
+		 * @param directory
+		 *   directory containing the snapshot
+		 * @return
+		 */
+		Builder withRestoreFrom(Path directory);
+
+		/**
+		 * Limit the number of objects migrated per second when the schema
+		 * of a collection has changed. Defaults to 5000 objects per second.
+		 *
+		 * @param objectsPerSecond
+		 *   maximum number of objects to migrate per second, {@code 0} for
+		 *   no limit
+		 * @return
+		 */
+		Builder withMigrationRateLimit(long objectsPerSecond);
+
 		Mono<Storage> start();
 	}
 }
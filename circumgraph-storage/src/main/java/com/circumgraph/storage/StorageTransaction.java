@@ -0,0 +1,43 @@
+package com.circumgraph.storage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transaction created via {@link StorageTransactions#newTransaction()}.
+ * Writes made in the transaction are tracked, so that collections publish
+ * changes and invalidate cached search results only after the transaction
+ * has been committed.
+ */
+public interface StorageTransaction
+{
+	/**
+	 * Wrap the given {@link Mono} so that it runs in this transaction.
+	 *
+	 * @param mono
+	 * @return
+	 */
+	<T> Mono<T> wrap(Mono<T> mono);
+
+	/**
+	 * Wrap the given {@link Flux} so that it runs in this transaction.
+	 *
+	 * @param flux
+	 * @return
+	 */
+	<T> Flux<T> wrap(Flux<T> flux);
+
+	/**
+	 * Commit this transaction.
+	 *
+	 * @return
+	 */
+	Mono<Void> commit();
+
+	/**
+	 * Rollback this transaction.
+	 *
+	 * @return
+	 */
+	Mono<Void> rollback();
+}
@@ -0,0 +1,41 @@
+package com.circumgraph.storage;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Transaction support of a {@link Storage}. Work that runs in a transaction
+ * created here is tracked via a {@link WriteTracker}, so changes are only
+ * published and cached search results only invalidated once the
+ * transaction commits.
+ */
+public interface StorageTransactions
+{
+	/**
+	 * Start a new transaction. The transaction must be committed or rolled
+	 * back by the caller.
+	 *
+	 * @return
+	 */
+	Mono<StorageTransaction> newTransaction();
+
+	/**
+	 * Run the given {@link Mono} in a transaction. If it already runs in a
+	 * transaction that transaction is used, otherwise a new transaction is
+	 * committed when the mono completes and rolled back if it fails.
+	 *
+	 * @param mono
+	 * @return
+	 */
+	<T> Mono<T> transactional(Mono<T> mono);
+
+	/**
+	 * Run the given {@link Flux} in a transaction. If it already runs in a
+	 * transaction that transaction is used, otherwise a new transaction is
+	 * committed when the flux completes and rolled back if it fails.
+	 *
+	 * @param flux
+	 * @return
+	 */
+	<T> Flux<T> transactional(Flux<T> flux);
+}
@@ -0,0 +1,137 @@
+package com.circumgraph.storage;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.MutableList;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tracker for writes made within a transaction that is committed outside
+ * of the operations of a {@link Collection}. Every transaction created via
+ * {@link Storage#transactions()} has a tracker, and collections use it to
+ * learn when the writes become visible, so that cached search results can
+ * be invalidated and changes can be published.
+ *
+ * Work in the transaction should be wrapped via {@link #wrap(Mono)} and
+ * {@link #complete(boolean)} should be called after the transaction has
+ * been committed or rolled back.
+ */
+public class WriteTracker
+{
+	private final MutableList<Runnable> listeners;
+	private final MutableList<Runnable> commitListeners;
+	private boolean completed;
+	private boolean committed;
+
+	private WriteTracker()
+	{
+		listeners = Lists.mutable.empty();
+		commitListeners = Lists.mutable.empty();
+	}
+
+	/**
+	 * Wrap the given {@link Mono} so that writes within it are tracked.
+	 *
+	 * @param mono
+	 * @return
+	 */
+	public <T> Mono<T> wrap(Mono<T> mono)
+	{
+		return mono.contextWrite(ctx -> ctx.put(WriteTracker.class, this));
+	}
+
+	/**
+	 * Wrap the given {@link Flux} so that writes within it are tracked.
+	 *
+	 * @param flux
+	 * @return
+	 */
+	public <T> Flux<T> wrap(Flux<T> flux)
+	{
+		return flux.contextWrite(ctx -> ctx.put(WriteTracker.class, this));
+	}
+
+	/**
+	 * Register an action to run when the transaction completes. If the
+	 * transaction has already completed the action runs directly.
+	 *
+	 * @param action
+	 */
+	public void afterCompletion(Runnable action)
+	{
+		synchronized(this)
+		{
+			if(! completed)
+			{
+				listeners.add(action);
+				return;
+			}
+		}
+
+		action.run();
+	}
+
+	/**
+	 * Register an action to run when the transaction is committed. If the
+	 * transaction has already been committed the action runs directly, if
+	 * it was rolled back the action never runs.
+	 *
+	 * @param action
+	 */
+	public void afterCommit(Runnable action)
+	{
+		synchronized(this)
+		{
+			if(! completed)
+			{
+				commitListeners.add(action);
+				return;
+			}
+
+			if(! committed) return;
+		}
+
+		action.run();
+	}
+
+	/**
+	 * Mark the transaction as completed. Only the first call has an effect.
+	 *
+	 * @param committed
+	 *   {@code true} if the transaction was committed, {@code false} if it
+	 *   was rolled back or failed
+	 */
+	public void complete(boolean committed)
+	{
+		MutableList<Runnable> toRun;
+		synchronized(this)
+		{
+			if(completed) return;
+
+			completed = true;
+			this.committed = committed;
+
+			toRun = Lists.mutable.withAll(listeners);
+			if(committed)
+			{
+				toRun.addAll(commitListeners);
+			}
+
+			listeners.clear();
+			commitListeners.clear();
+		}
+
+		toRun.each(Runnable::run);
+	}
+
+	/**
+	 * Create a new tracker.
+	 *
+	 * @return
+	 */
+	public static WriteTracker create()
+	{
+		return new WriteTracker();
+	}
+}
@@ -0,0 +1,214 @@
+package com.circumgraph.storage.internal;
+
+import java.io.IOException;
+
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.storage.CollectionChange;
+import com.circumgraph.storage.StorageException;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Feed of committed changes for a single collection. The feed keeps the
+ * latest changes in memory so that subscribers that disconnect can resume
+ * from the sequence number of the last change they saw.
+ *
+ * Sequence numbers are reserved in blocks via {@link SchemaVersions}, and
+ * a feed starts after the last block reserved by the previous feed of the
+ * collection, so they keep increasing across restarts. Changes made before
+ * a restart are not kept, resuming from them results in an error.
+ */
+public class ChangeFeed
+{
+	/**
+	 * Number of changes kept for subscribers that resume.
+	 */
+	private static final int BUFFER_SIZE = 10_000;
+	/**
+	 * Number of sequence numbers reserved at a time.
+	 */
+	private static final long RESERVE_SIZE = 10_000;
+
+	private final SchemaVersions versions;
+	private final String collection;
+
+	private final Sinks.Many<CollectionChange> sink;
+
+	/**
+	 * Sequence number before the first change published by this feed.
+	 */
+	private final long start;
+	/**
+	 * Sequence number of the latest change published.
+	 */
+	private long latest;
+	/**
+	 * Last sequence number that has been reserved.
+	 */
+	private long reserved;
+
+	public ChangeFeed(SchemaVersions versions, String collection)
+		throws IOException
+	{
+		this.versions = versions;
+		this.collection = collection;
+
+		sink = Sinks.many().replay().limit(BUFFER_SIZE);
+
+		start = versions.getReservedSequence(collection);
+		latest = start;
+		reserved = versions.reserveSequences(collection, RESERVE_SIZE);
+	}
+
+	/**
+	 * Publish a change.
+	 *
+	 * @param id
+	 * @param definition
+	 * @param operation
+	 */
+	public void publish(
+		String id,
+		StructuredDef definition,
+		CollectionChange.Operation operation
+	)
+	{
+		synchronized(this)
+		{
+			if(latest == reserved)
+			{
+				reserve();
+			}
+
+			latest++;
+			sink.tryEmitNext(new CollectionChangeImpl(latest, id, definition, operation));
+		}
+	}
+
+	/**
+	 * Publish several changes in order.
+	 *
+	 * @param changes
+	 */
+	public void publishAll(ListIterable<PendingChange> changes)
+	{
+		synchronized(this)
+		{
+			for(var change : changes)
+			{
+				publish(change.id, change.definition, change.operation);
+			}
+		}
+	}
+
+	/**
+	 * Get changes published after this call.
+	 *
+	 * @return
+	 */
+	public Flux<CollectionChange> changes()
+	{
+		return Flux.defer(() -> {
+			long current;
+			synchronized(this)
+			{
+				current = latest;
+			}
+
+			return sink.asFlux()
+				.filter(c -> c.getSequence() > current);
+		});
+	}
+
+	/**
+	 * Get changes published after the given sequence number. Fails with a
+	 * {@link StorageException} if changes after the sequence number are no
+	 * longer available.
+	 *
+	 * @param after
+	 * @return
+	 */
+	public Flux<CollectionChange> changes(long after)
+	{
+		return Flux.defer(() -> {
+			synchronized(this)
+			{
+				if(after < Math.max(start, latest - BUFFER_SIZE))
+				{
+					return Flux.error(unavailable(after));
+				}
+			}
+
+			var first = new boolean[] { true };
+			return sink.asFlux()
+				.filter(c -> c.getSequence() > after)
+				.<CollectionChange>handle((c, out) -> {
+					/*
+					 * Changes may have been evicted between the check above
+					 * and subscribing, verify that nothing was skipped.
+					 */
+					if(first[0] && c.getSequence() != after + 1)
+					{
+						out.error(unavailable(after));
+						return;
+					}
+
+					first[0] = false;
+					out.next(c);
+				});
+		});
+	}
+
+	/**
+	 * Complete the feed, subscribers receive no further changes.
+	 */
+	public void close()
+	{
+		synchronized(this)
+		{
+			sink.tryEmitComplete();
+		}
+	}
+
+	private void reserve()
+	{
+		try
+		{
+			reserved = versions.reserveSequences(collection, RESERVE_SIZE);
+		}
+		catch(IOException e)
+		{
+			throw new StorageException("Could not reserve sequence numbers for " + collection + "; " + e.getMessage(), e);
+		}
+	}
+
+	private static StorageException unavailable(long after)
+	{
+		return new StorageException("Changes after " + after + " are no longer available");
+	}
+
+	/**
+	 * Change recorded within a transaction and published when the
+	 * transaction commits.
+	 */
+	public static class PendingChange
+	{
+		private final String id;
+		private final StructuredDef definition;
+		private final CollectionChange.Operation operation;
+
+		public PendingChange(
+			String id,
+			StructuredDef definition,
+			CollectionChange.Operation operation
+		)
+		{
+			this.id = id;
+			this.definition = definition;
+			this.operation = operation;
+		}
+	}
+}
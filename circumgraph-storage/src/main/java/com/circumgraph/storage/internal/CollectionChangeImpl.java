@@ -0,0 +1,59 @@
+package com.circumgraph.storage.internal;
+
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.storage.CollectionChange;
+
+/**
+ * Implementation of {@link CollectionChange}.
+ */
+public class CollectionChangeImpl
+	implements CollectionChange
+{
+	private final long sequence;
+	private final String id;
+	private final StructuredDef definition;
+	private final Operation operation;
+
+	public CollectionChangeImpl(
+		long sequence,
+		String id,
+		StructuredDef definition,
+		Operation operation
+	)
+	{
+		this.sequence = sequence;
+		this.id = id;
+		this.definition = definition;
+		this.operation = operation;
+	}
+
+	@Override
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	@Override
+	public String getId()
+	{
+		return id;
+	}
+
+	@Override
+	public StructuredDef getDefinition()
+	{
+		return definition;
+	}
+
+	@Override
+	public Operation getOperation()
+	{
+		return operation;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "CollectionChange{sequence=" + sequence + ", id=" + id + ", type=" + definition.getName() + ", operation=" + operation + "}";
+	}
+}
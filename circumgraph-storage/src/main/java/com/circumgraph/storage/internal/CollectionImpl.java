@@ -1,15 +1,22 @@
 package com.circumgraph.storage.internal;
 
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import com.circumgraph.model.ObjectLocation;
 import com.circumgraph.model.StructuredDef;
 import com.circumgraph.model.validation.ValidationMessage;
 import com.circumgraph.model.validation.ValidationMessageLevel;
 import com.circumgraph.storage.Collection;
+import com.circumgraph.storage.CollectionChange;
 import com.circumgraph.storage.StorageException;
 import com.circumgraph.storage.StorageSearchException;
+import com.circumgraph.storage.StorageTransaction;
 import com.circumgraph.storage.StorageValidationException;
 import com.circumgraph.storage.StoredObjectValue;
 import com.circumgraph.storage.Value;
+import com.circumgraph.storage.WriteTracker;
+import com.circumgraph.storage.internal.ChangeFeed.PendingChange;
 import com.circumgraph.storage.internal.mappers.MappingEncounter;
 import com.circumgraph.storage.internal.search.QueryImpl;
 import com.circumgraph.storage.internal.search.SearchResultImpl;
@@ -20,8 +27,17 @@ import com.circumgraph.storage.search.SearchResult;
 import com.circumgraph.storage.types.ValueMapper;
 
 import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MapIterable;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.SetIterable;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.collector.Collectors2;
+import org.eclipse.collections.impl.tuple.Tuples;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import se.l4.silo.StoreResult;
 import se.l4.silo.Transactions;
@@ -29,24 +45,95 @@ import se.l4.silo.Transactions;
 public class CollectionImpl
 	implements Collection
 {
+	/**
+	 * Number of objects stored in a single transaction by
+	 * {@link #storeAll(Flux)}.
+	 */
+	private static final int STORE_BATCH_SIZE = 500;
+	/**
+	 * Number of batches that {@link #storeAll(Flux)} stores at the same
+	 * time. Batches are stored one at a time when part of a
+	 * {@link StorageTransaction}, as they then share a transaction.
+	 */
+	private static final int STORE_CONCURRENCY = 4;
+	/**
+	 * Number of ids that {@link #findExisting(Iterable)} checks at the same
+	 * time. The check reads the stored data instead of querying the index,
+	 * as objects stored in the current transaction are not yet indexed.
+	 */
+	private static final int FIND_EXISTING_CONCURRENCY = 16;
+
+	private final SharedSilo silo;
 	private final Transactions txs;
 
 	private final StructuredDef definition;
 	private final se.l4.silo.Collection<Long, StoredObjectValue> backing;
 	private final ValueMapper<StoredObjectValue, StructuredMutation> mapper;
 
+	private final String idSortField;
+	private final MapIterable<String, Function<StoredObjectValue, Object>> keysetFields;
+	private final MapIterable<String, Function<Object, Object>> facetFields;
+
+	private final CollectionMetrics metrics;
+	/**
+	 * Cache of search results, {@code null} if caching is disabled.
+	 */
+	private final SearchCache searchCache;
+	private final ChangeFeed changes;
+
 	public CollectionImpl(
-		Transactions txs,
+		SharedSilo silo,
 		StructuredDef definition,
 		se.l4.silo.Collection<Long, StoredObjectValue> backing,
-		ValueMapper<StoredObjectValue, StructuredMutation> mapper
+		ValueMapper<StoredObjectValue, StructuredMutation> mapper,
+		MapIterable<String, Function<StoredObjectValue, Object>> keysetFields,
+		MapIterable<String, Function<Object, Object>> facetFields,
+		CollectionMetrics metrics,
+		SearchCache searchCache,
+		ChangeFeed changes
 	)
 	{
-		this.txs = txs;
+		this.silo = silo;
+		this.txs = silo.get().transactions();
 
 		this.definition = definition;
 		this.backing = backing;
 		this.mapper = mapper;
+
+		this.idSortField = StorageImpl.getIdSortField(definition);
+		this.keysetFields = keysetFields;
+		this.facetFields = facetFields;
+
+		this.metrics = metrics;
+		this.searchCache = searchCache;
+		this.changes = changes;
+	}
+
+	/**
+	 * Create a copy of this collection that uses a reopened silo. Everything
+	 * except the silo is shared with this collection, used when a storage is
+	 * reloaded without changes to this collection.
+	 *
+	 * @param silo
+	 * @param backing
+	 * @return
+	 */
+	public CollectionImpl rebind(
+		SharedSilo silo,
+		se.l4.silo.Collection<Long, StoredObjectValue> backing
+	)
+	{
+		return new CollectionImpl(
+			silo,
+			definition,
+			backing,
+			mapper,
+			keysetFields,
+			facetFields,
+			metrics,
+			searchCache,
+			changes
+		);
 	}
 
 	@Override
@@ -58,14 +145,43 @@ public class CollectionImpl
 	@Override
 	public Mono<Boolean> contains(String id)
 	{
-		return backing.contains(AutoGeneratedIds.decode(id));
+		return silo.use(backing.contains(AutoGeneratedIds.decode(id)));
+	}
+
+	@Override
+	public Mono<SetIterable<String>> findExisting(Iterable<String> ids)
+	{
+		return metrics.findExisting().time(silo.use(Flux.fromIterable(ids)
+			.distinct()
+			.flatMap(id -> backing.contains(AutoGeneratedIds.decode(id))
+				.filter(Boolean::booleanValue)
+				.map(b -> id),
+				FIND_EXISTING_CONCURRENCY
+			)
+			.collect(Collectors2.toImmutableSet())
+			.<SetIterable<String>>map(existing -> existing)
+			.onErrorMap(se.l4.silo.StorageException.class, e -> new StorageException("Unable to read from storage; " + e.getMessage(), e))
+		));
 	}
 
 	@Override
 	public Mono<StoredObjectValue> get(String id)
 	{
-		return backing.get(AutoGeneratedIds.decode(id))
-			.onErrorMap(se.l4.silo.StorageException.class, e -> new StorageException("Unable to read from storage; " + e.getMessage(), e));
+		return metrics.get().time(silo.use(backing.get(AutoGeneratedIds.decode(id))
+			.doOnSuccess(v -> metrics.recordFetch(v != null))
+			.onErrorMap(se.l4.silo.StorageException.class, e -> new StorageException("Unable to read from storage; " + e.getMessage(), e))
+		));
+	}
+
+	@Override
+	public Flux<StoredObjectValue> getAll(Iterable<String> ids)
+	{
+		return metrics.getAll().time(silo.use(Flux.fromIterable(ids)
+			.map(AutoGeneratedIds::decode)
+			.distinct()
+			.flatMapSequential(backing::get)
+			.onErrorMap(se.l4.silo.StorageException.class, e -> new StorageException("Unable to read from storage; " + e.getMessage(), e))
+		));
 	}
 
 	@Override
@@ -84,66 +200,278 @@ public class CollectionImpl
 	@Override
 	public Mono<StoredObjectValue> store(StructuredMutation mutation)
 	{
-		return txs.transactional(store0(null, mutation));
+		return metrics.store().time(silo.use(write(transactional(pending -> store0(pending, null, mutation)))));
 	}
 
 	@Override
 	public Mono<StoredObjectValue> store(String id, StructuredMutation mutation)
 	{
 		// TODO: If the type changes this should keep the id
-		return txs.transactional(backing.get(AutoGeneratedIds.decode(id))
-			.flatMap(v -> store0(v, mutation))
-		);
+		return metrics.store().time(silo.use(write(transactional(pending -> backing.get(AutoGeneratedIds.decode(id))
+			.flatMap(v -> store0(pending, v, mutation))
+		))));
+	}
+
+	@Override
+	public Flux<StoredObjectValue> storeAll(Flux<StructuredMutation> mutations)
+	{
+		return metrics.storeAll().time(silo.use(write(Flux.deferContextual(ctx -> {
+			/*
+			 * Within an outer transaction every batch joins it, so batches
+			 * are stored one at a time to never write concurrently to the
+			 * same transaction.
+			 */
+			int concurrency = ctx.hasKey(StorageTransaction.class) ? 1 : STORE_CONCURRENCY;
+
+			return mutations
+				.buffer(STORE_BATCH_SIZE)
+				.flatMapSequential(batch -> transactional(pending ->
+					Flux.fromIterable(batch)
+						.concatMap(mutation -> store0(pending, null, mutation))
+						.collectList()
+				), concurrency)
+				.flatMapIterable(stored -> stored);
+		}))));
 	}
 
 	private Mono<StoredObjectValue> store0(
+		MutableList<PendingChange> pending,
 		StoredObjectValue current,
 		StructuredMutation mutation
 	)
 	{
 		var encounter = new MappingEncounterImpl();
-		return mapper.applyMutation(
+
+		/*
+		 * Mappers map values directly when they can, defer so that mapping
+		 * happens on subscription and within the transaction.
+		 */
+		return Mono.defer(() -> mapper.applyMutation(
 			encounter,
 			ObjectLocation.root(),
 			current,
 			mutation
-		)
+		))
+			.flatMap(v -> encounter.verifyReferences().thenReturn(v))
 			.doOnNext(v -> {
 				if(! encounter.errors.isEmpty())
 				{
+					metrics.recordInvalid();
 					throw new StorageValidationException(encounter.errors);
 				}
 			})
 			.flatMap(backing::store)
 			.map(StoreResult::getData)
+			.doOnNext(stored -> pending.add(new PendingChange(
+				stored.getId(),
+				stored.getDefinition(),
+				CollectionChange.Operation.STORED
+			)))
 			.onErrorMap(se.l4.silo.StorageException.class, e -> new StorageException("Unable to store; " + e.getMessage(), e));
 	}
 
 	@Override
 	public Mono<Void> delete(String id)
 	{
-		return backing.delete(AutoGeneratedIds.decode(id)).then();
+		var decoded = AutoGeneratedIds.decode(id);
+		return metrics.delete().time(silo.use(write(transactional(pending -> backing.get(decoded)
+			.flatMap(current -> backing.delete(decoded)
+				.doOnSuccess(r -> pending.add(new PendingChange(
+					id,
+					current.getDefinition(),
+					CollectionChange.Operation.DELETED
+				)))
+			)
+			.then()
+		))));
+	}
+
+	@Override
+	public Flux<CollectionChange> changes()
+	{
+		return changes.changes();
+	}
+
+	@Override
+	public Flux<CollectionChange> changes(long after)
+	{
+		return changes.changes(after);
+	}
+
+	/**
+	 * Run work in a transaction and publish the changes it records once the
+	 * transaction has been committed. If the work is part of a
+	 * {@link StorageTransaction} changes are published when that transaction
+	 * commits.
+	 *
+	 * @param work
+	 * @return
+	 */
+	private <T> Mono<T> transactional(Function<MutableList<PendingChange>, Mono<T>> work)
+	{
+		return Mono.deferContextual(ctx -> {
+			var tracker = ctx.<WriteTracker>getOrEmpty(WriteTracker.class);
+			MutableList<PendingChange> pending = Lists.mutable.empty();
+
+			return txs.transactional(work.apply(pending))
+				.doOnSuccess(v -> {
+					if(tracker.isPresent())
+					{
+						tracker.get().afterCommit(() -> changes.publishAll(pending));
+					}
+					else
+					{
+						changes.publishAll(pending);
+					}
+				});
+		});
+	}
+
+	/**
+	 * Track a write so that cached search results are invalidated.
+	 *
+	 * @param mono
+	 * @return
+	 */
+	private <T> Mono<T> write(Mono<T> mono)
+	{
+		return searchCache == null ? mono : searchCache.write(mono);
+	}
+
+	/**
+	 * Track a write so that cached search results are invalidated.
+	 *
+	 * @param flux
+	 * @return
+	 */
+	private <T> Flux<T> write(Flux<T> flux)
+	{
+		return searchCache == null ? flux : searchCache.write(flux);
 	}
 
 	@Override
 	public Mono<SearchResult> search(Query query)
 	{
-		return backing.fetch(((QueryImpl) query).buildQuery())
-			.map(sr -> new SearchResultImpl(sr))
+		var queryImpl = (QueryImpl) query;
+		for(var facet : queryImpl.getFacets())
+		{
+			if(! facetFields.containsKey(facet.getField()))
+			{
+				return Mono.error(new StorageSearchException("Facets are not supported for the field " + facet.getField()));
+			}
+		}
+
+		var keyset = queryImpl.resolveKeyset(idSortField, keysetFields);
+
+		var indexQuery = queryImpl.buildQuery(keyset);
+		var result = searchCache == null
+			? backing.fetch(indexQuery)
+			: searchCache.get(indexQuery, () -> backing.fetch(indexQuery));
+
+		return metrics.search().time(silo.use(result))
+			.doOnNext(sr -> metrics.recordHits(sr.getItems().size()))
+			.map(sr -> new SearchResultImpl(
+				sr,
+				keyset,
+				queryImpl.getLimit(),
+				queryImpl.isItemsNeeded(),
+				queryImpl.readFacets(sr, facetFields)
+			))
 			.onErrorMap(se.l4.silo.StorageException.class, e -> new StorageSearchException("Unable to search; " + e.getMessage(), e))
 			.cast(SearchResult.class);
 	}
 
+	/**
+	 * Get the ids of the objects stored in this collection, in ascending
+	 * order. The ids are read from the main storage rather than the search
+	 * index, as the index may be missing data for objects stored before a
+	 * schema change.
+	 *
+	 * @param after
+	 *   only include ids greater than this, {@code -1} to include all ids
+	 * @return
+	 */
+	public Flux<Long> storedIds(long after)
+	{
+		return silo.use(backing.streamIds(after))
+			.onErrorMap(se.l4.silo.StorageException.class, e -> new StorageException("Unable to read from storage; " + e.getMessage(), e));
+	}
+
+	/**
+	 * Re-encode and reindex objects as part of a schema migration. Every
+	 * object is read and stored again in the same transaction so that
+	 * updates made while the migration runs are not lost. Objects deleted
+	 * since their id was read are skipped.
+	 *
+	 * @param ids
+	 *   ids of the objects to migrate
+	 * @return
+	 */
+	public Mono<Void> migrate(ListIterable<Long> ids)
+	{
+		return silo.use(write(txs.transactional(Flux.fromIterable(ids)
+			.concatMap(id -> backing.get(id).flatMap(backing::store))
+			.then()
+		)))
+			.onErrorMap(se.l4.silo.StorageException.class, e -> new StorageException("Unable to migrate; " + e.getMessage(), e));
+	}
+
 	private static class MappingEncounterImpl
 		implements MappingEncounter
 	{
 		private final MutableList<ValidationMessage> errors;
+		private MutableMap<Collection, MutableList<Pair<String, Supplier<ValidationMessage>>>> references;
 
 		public MappingEncounterImpl()
 		{
 			errors = Lists.mutable.empty();
 		}
 
+		@Override
+		public void verifyExists(
+			Collection collection,
+			String id,
+			Supplier<ValidationMessage> error
+		)
+		{
+			if(references == null)
+			{
+				references = Maps.mutable.empty();
+			}
+
+			references.getIfAbsentPut(collection, Lists.mutable::empty)
+				.add(Tuples.pair(id, error));
+		}
+
+		/**
+		 * Verify the references collected while mapping, using a single
+		 * lookup per collection.
+		 *
+		 * @return
+		 */
+		public Mono<Void> verifyReferences()
+		{
+			if(references == null)
+			{
+				return Mono.empty();
+			}
+
+			return Flux.fromIterable(references.keyValuesView())
+				.concatMap(pair -> pair.getOne()
+					.findExisting(pair.getTwo().collect(Pair::getOne))
+					.doOnNext(existing -> {
+						for(var reference : pair.getTwo())
+						{
+							if(! existing.contains(reference.getOne()))
+							{
+								reportError(reference.getTwo().get());
+							}
+						}
+					})
+				)
+				.then();
+		}
+
 		@Override
 		public void reportError(ValidationMessage message)
 		{
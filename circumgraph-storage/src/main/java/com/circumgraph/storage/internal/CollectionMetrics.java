@@ -0,0 +1,193 @@
+package com.circumgraph.storage.internal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Metrics for a single collection. Every operation is timed with the
+ * outcome as a tag, in addition to counters for things such as how many
+ * objects are found when fetching by id.
+ */
+public class CollectionMetrics
+{
+	private final MeterRegistry registry;
+
+	private final Operation get;
+	private final Operation getAll;
+	private final Operation findExisting;
+	private final Operation store;
+	private final Operation storeAll;
+	private final Operation delete;
+	private final Operation search;
+
+	private final Counter found;
+	private final Counter missing;
+	private final Counter invalid;
+	private final DistributionSummary hits;
+
+	public CollectionMetrics(MeterRegistry registry, String collection)
+	{
+		this.registry = registry;
+
+		get = new Operation(registry, collection, "get");
+		getAll = new Operation(registry, collection, "getAll");
+		findExisting = new Operation(registry, collection, "findExisting");
+		store = new Operation(registry, collection, "store");
+		storeAll = new Operation(registry, collection, "storeAll");
+		delete = new Operation(registry, collection, "delete");
+		search = new Operation(registry, collection, "search");
+
+		found = Counter.builder("circumgraph.storage.fetched")
+			.description("Number of objects fetched by id")
+			.tag("collection", collection)
+			.tag("result", "found")
+			.register(registry);
+
+		missing = Counter.builder("circumgraph.storage.fetched")
+			.description("Number of objects fetched by id")
+			.tag("collection", collection)
+			.tag("result", "missing")
+			.register(registry);
+
+		invalid = Counter.builder("circumgraph.storage.invalid")
+			.description("Number of stores rejected due to validation errors")
+			.tag("collection", collection)
+			.register(registry);
+
+		hits = DistributionSummary.builder("circumgraph.storage.search.hits")
+			.description("Number of hits returned by searches")
+			.tag("collection", collection)
+			.register(registry);
+	}
+
+	public Operation get()
+	{
+		return get;
+	}
+
+	public Operation getAll()
+	{
+		return getAll;
+	}
+
+	public Operation findExisting()
+	{
+		return findExisting;
+	}
+
+	public Operation store()
+	{
+		return store;
+	}
+
+	public Operation storeAll()
+	{
+		return storeAll;
+	}
+
+	public Operation delete()
+	{
+		return delete;
+	}
+
+	public Operation search()
+	{
+		return search;
+	}
+
+	/**
+	 * Record the result of fetching an object by id.
+	 *
+	 * @param wasFound
+	 */
+	public void recordFetch(boolean wasFound)
+	{
+		(wasFound ? found : missing).increment();
+	}
+
+	/**
+	 * Record that a store was rejected because of validation errors.
+	 */
+	public void recordInvalid()
+	{
+		invalid.increment();
+	}
+
+	/**
+	 * Record the number of hits returned by a search.
+	 *
+	 * @param count
+	 */
+	public void recordHits(int count)
+	{
+		hits.record(count);
+	}
+
+	/**
+	 * Timers for an operation, one per outcome.
+	 */
+	public class Operation
+	{
+		private final Timer success;
+		private final Timer error;
+
+		private Operation(MeterRegistry registry, String collection, String name)
+		{
+			success = createTimer(registry, collection, name, "success");
+			error = createTimer(registry, collection, name, "error");
+		}
+
+		/**
+		 * Time the given {@link Mono}, starting when it is subscribed to.
+		 *
+		 * @param mono
+		 * @return
+		 */
+		public <T> Mono<T> time(Mono<T> mono)
+		{
+			return Mono.defer(() -> {
+				var sample = Timer.start(registry);
+				return mono.doFinally(signal -> stop(sample, signal));
+			});
+		}
+
+		/**
+		 * Time the given {@link Flux}, starting when it is subscribed to.
+		 *
+		 * @param flux
+		 * @return
+		 */
+		public <T> Flux<T> time(Flux<T> flux)
+		{
+			return Flux.defer(() -> {
+				var sample = Timer.start(registry);
+				return flux.doFinally(signal -> stop(sample, signal));
+			});
+		}
+
+		private void stop(Timer.Sample sample, SignalType signal)
+		{
+			sample.stop(signal == SignalType.ON_ERROR ? error : success);
+		}
+	}
+
+	private static Timer createTimer(
+		MeterRegistry registry,
+		String collection,
+		String operation,
+		String outcome
+	)
+	{
+		return Timer.builder("circumgraph.storage.operations")
+			.description("Time taken by operations on a collection")
+			.tag("collection", collection)
+			.tag("operation", operation)
+			.tag("outcome", outcome)
+			.register(registry);
+	}
+}
@@ -1,12 +1,27 @@
 package com.circumgraph.storage.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import com.circumgraph.model.Model;
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.storage.StorageException;
 import com.circumgraph.storage.StoredObjectValue;
 import com.circumgraph.storage.StructuredValue;
+import com.circumgraph.storage.Value;
 import com.circumgraph.storage.internal.serializers.PolymorphicValueSerializer;
+import com.circumgraph.storage.internal.serializers.StructuredValueSerializer;
+import com.circumgraph.storage.types.ValueSerializer;
+
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
 
 import se.l4.exobytes.streaming.StreamingFormat;
 import se.l4.exobytes.streaming.StreamingInput;
@@ -14,7 +29,15 @@ import se.l4.exobytes.streaming.StreamingOutput;
 import se.l4.silo.engine.ObjectCodec;
 
 /**
- * Codec built on top of {@link PolymorphicValueSerializer}.
+ * Codec built on top of {@link PolymorphicValueSerializer}. New data is
+ * written with type and field names replaced by ordinals from a
+ * {@link SchemaDictionary}, data written with names is still readable.
+ *
+ * Objects are written with a small header containing their identifier, type
+ * and the length of every field, followed by every field encoded on its own.
+ * Fields are decoded the first time they are accessed, so objects that are
+ * only used for their identifier, such as when resolving references, are
+ * never decoded and a query that only uses a few fields only decodes those.
  */
 public class ObjectCodecImpl
 	implements ObjectCodec<StoredObjectValue>
@@ -24,14 +47,42 @@ public class ObjectCodecImpl
 	 * serialization.
 	 */
 	private static final int TAG_CBOR = 1;
+	/**
+	 * Tag used to indicate {@link StreamingFormat#CBOR CBOR} is used for
+	 * serialization with names stored as ordinals.
+	 */
+	private static final int TAG_ORDINALS = 2;
+	/**
+	 * Tag used to indicate that the identifier and the ordinal of the type
+	 * is written before the {@link StreamingFormat#CBOR CBOR} data, with
+	 * names stored as ordinals.
+	 */
+	private static final int TAG_HEADER = 3;
+	/**
+	 * Tag used to indicate that the identifier, the ordinal of the type and
+	 * the ordinal and length of every field is written before the fields,
+	 * which are encoded separately as {@link StreamingFormat#CBOR CBOR}.
+	 */
+	private static final int TAG_FIELDS = 4;
+
+	private final Model model;
+	private final SchemaDictionary dictionary;
 
 	private final PolymorphicValueSerializer serializer;
+	private final PolymorphicValueSerializer ordinalSerializer;
 
 	public ObjectCodecImpl(
-		PolymorphicValueSerializer serializer
+		Model model,
+		SchemaDictionary dictionary,
+		PolymorphicValueSerializer serializer,
+		PolymorphicValueSerializer ordinalSerializer
 	)
 	{
+		this.model = model;
+		this.dictionary = dictionary;
+
 		this.serializer = serializer;
+		this.ordinalSerializer = ordinalSerializer;
 	}
 
 	@Override
@@ -39,27 +90,227 @@ public class ObjectCodecImpl
 		throws IOException
 	{
 		int tag = in0.read();
-		if(tag != TAG_CBOR)
+		switch(tag)
 		{
-			throw new IOException("Unsupported data, only CBOR tagged data can be read. Tagged with " + tag);
+			case TAG_CBOR:
+				return decode(serializer, in0);
+			case TAG_ORDINALS:
+				return decode(ordinalSerializer, in0);
+			case TAG_HEADER:
+				var header = new DataInputStream(in0);
+				long id = header.readLong();
+				var typename = dictionary.getName(header.readInt());
+				var data = in0.readAllBytes();
+
+				var def = typename == null
+					? null
+					: model.get(typename, StructuredDef.class).orElse(null);
+
+				if(def == null)
+				{
+					// The type is no longer available, decode directly
+					return decode(ordinalSerializer, new ByteArrayInputStream(data));
+				}
+
+				return new StoredObjectValueImpl(id, def, () -> {
+					try
+					{
+						return read(ordinalSerializer, new ByteArrayInputStream(data));
+					}
+					catch(IOException e)
+					{
+						throw new StorageException("Unable to decode object with id " + id + "; " + e.getMessage(), e);
+					}
+				});
+			case TAG_FIELDS:
+				return decodeFields(in0);
+			default:
+				throw new IOException("Unsupported data, only CBOR tagged data can be read. Tagged with " + tag);
 		}
+	}
+
+	/**
+	 * Decode an object written with {@link #TAG_FIELDS}. The header is read
+	 * and the fields are read into a single array sized from the header,
+	 * which the object decodes its fields from when they are accessed.
+	 *
+	 * @param in0
+	 * @return
+	 * @throws IOException
+	 */
+	private StoredObjectValue decodeFields(InputStream in0)
+		throws IOException
+	{
+		var header = new DataInputStream(in0);
+		long id = header.readLong();
+		var typename = dictionary.getName(header.readInt());
 
+		int count = header.readInt();
+		var names = new String[count];
+		var offsets = new int[count + 1];
+		for(int i=0; i<count; i++)
+		{
+			names[i] = dictionary.getName(header.readInt());
+			offsets[i + 1] = offsets[i] + header.readInt();
+		}
+
+		var data = in0.readNBytes(offsets[count]);
+		if(data.length != offsets[count])
+		{
+			throw new IOException("Unexpected end of data for object with id " + id);
+		}
+
+		var serializer = typename == null ? null : ordinalSerializer.getSubType(typename);
+		if(! (serializer instanceof StructuredValueSerializer structured))
+		{
+			throw new IOException("Unable to decode object with id " + id + ", type " + typename + " is not available");
+		}
+
+		var fields = new EncodedFieldsImpl(id, structured, data);
+		for(int i=0; i<count; i++)
+		{
+			// Fields that are no longer known are skipped
+			if(names[i] != null && structured.getFieldSerializer(names[i]) != null)
+			{
+				fields.add(names[i], offsets[i], offsets[i + 1] - offsets[i]);
+			}
+		}
+
+		return new StoredObjectValueImpl(id, (StructuredDef) structured.getType(), fields);
+	}
+
+	private StoredObjectValue decode(
+		PolymorphicValueSerializer serializer,
+		InputStream in0
+	)
+		throws IOException
+	{
+		return new StoredObjectValueImpl(read(serializer, in0));
+	}
+
+	private StructuredValue read(
+		PolymorphicValueSerializer serializer,
+		InputStream in0
+	)
+		throws IOException
+	{
 		try(StreamingInput in = StreamingFormat.CBOR.createInput(in0))
 		{
-			var object = serializer.read(in);
-			return new StoredObjectValueImpl((StructuredValue) object);
+			return (StructuredValue) serializer.read(in);
 		}
 	}
 
 	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public void encode(StoredObjectValue instance, OutputStream out0)
 		throws IOException
 	{
-		out0.write(TAG_CBOR);
+		var typename = instance.getDefinition().getName();
+		var structured = (StructuredValueSerializer) ordinalSerializer.getSubType(typename);
+		if(structured == null)
+		{
+			throw new IOException("Tried writing object of unsupported type: " + typename);
+		}
+
+		// Encode every field separately so they can be decoded one at a time
+		var fields = instance.getFields();
+		var names = Lists.mutable.<String>ofInitialCapacity(fields.size());
+		var encoded = Lists.mutable.<byte[]>ofInitialCapacity(fields.size());
+		for(var pair : fields.keyValuesView())
+		{
+			ValueSerializer serializer = structured.getFieldSerializer(pair.getOne());
+			if(serializer == null)
+			{
+				throw new IOException("Tried writing field that does not exist: " + pair.getOne());
+			}
+
+			var buffer = new ByteArrayOutputStream();
+			try(StreamingOutput out = StreamingFormat.CBOR.createOutput(buffer))
+			{
+				out.writeObject(serializer, pair.getTwo());
+			}
+
+			names.add(pair.getOne());
+			encoded.add(buffer.toByteArray());
+		}
+
+		out0.write(TAG_FIELDS);
+
+		var header = new DataOutputStream(out0);
+		header.writeLong(StorageImpl.getID(instance));
+		header.writeInt(dictionary.getOrdinal(typename));
+		header.writeInt(names.size());
+		for(int i=0; i<names.size(); i++)
+		{
+			header.writeInt(dictionary.getOrdinal(names.get(i)));
+			header.writeInt(encoded.get(i).length);
+		}
+
+		for(var data : encoded)
+		{
+			header.write(data);
+		}
+
+		header.flush();
+	}
+
+	/**
+	 * Fields of an object written with {@link #TAG_FIELDS}, decoded from a
+	 * shared array.
+	 */
+	private static class EncodedFieldsImpl
+		implements StoredObjectValueImpl.EncodedFields
+	{
+		private final long id;
+		private final StructuredValueSerializer serializer;
+		private final byte[] data;
+
+		private final MutableObjectIntMap<String> offsets;
+		private final MutableObjectIntMap<String> lengths;
+
+		public EncodedFieldsImpl(
+			long id,
+			StructuredValueSerializer serializer,
+			byte[] data
+		)
+		{
+			this.id = id;
+			this.serializer = serializer;
+			this.data = data;
 
-		try(StreamingOutput out = StreamingFormat.CBOR.createOutput(out0))
+			offsets = ObjectIntMaps.mutable.empty();
+			lengths = ObjectIntMaps.mutable.empty();
+		}
+
+		private void add(String name, int offset, int length)
+		{
+			offsets.put(name, offset);
+			lengths.put(name, length);
+		}
+
+		@Override
+		public RichIterable<String> getNames()
 		{
-			serializer.write(instance, out);
+			return offsets.keysView();
+		}
+
+		@Override
+		public Value decode(String name)
+		{
+			if(! offsets.containsKey(name))
+			{
+				return null;
+			}
+
+			var in0 = new ByteArrayInputStream(data, offsets.get(name), lengths.get(name));
+			try(StreamingInput in = StreamingFormat.CBOR.createInput(in0))
+			{
+				return (Value) in.readObject(serializer.getFieldSerializer(name));
+			}
+			catch(IOException e)
+			{
+				throw new StorageException("Unable to decode field " + name + " of object with id " + id + "; " + e.getMessage(), e);
+			}
 		}
 	}
 }
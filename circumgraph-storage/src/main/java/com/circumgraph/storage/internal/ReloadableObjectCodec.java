@@ -0,0 +1,50 @@
+package com.circumgraph.storage.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.circumgraph.storage.StoredObjectValue;
+
+import se.l4.silo.engine.ObjectCodec;
+
+/**
+ * {@link ObjectCodec} that delegates to a codec that can be replaced while
+ * the storage is running. Used when the model is reloaded without changes
+ * to how objects are stored, so that decoded objects refer to the types of
+ * the new model.
+ */
+public class ReloadableObjectCodec
+	implements ObjectCodec<StoredObjectValue>
+{
+	private volatile ObjectCodec<StoredObjectValue> delegate;
+
+	public ReloadableObjectCodec(ObjectCodec<StoredObjectValue> delegate)
+	{
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Replace the codec used.
+	 *
+	 * @param delegate
+	 */
+	public void setDelegate(ObjectCodec<StoredObjectValue> delegate)
+	{
+		this.delegate = delegate;
+	}
+
+	@Override
+	public StoredObjectValue decode(InputStream in)
+		throws IOException
+	{
+		return delegate.decode(in);
+	}
+
+	@Override
+	public void encode(StoredObjectValue instance, OutputStream out)
+		throws IOException
+	{
+		delegate.encode(instance, out);
+	}
+}
@@ -0,0 +1,182 @@
+package com.circumgraph.storage.internal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import com.circumgraph.model.Model;
+import com.circumgraph.model.StructuredDef;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.primitive.ObjectIntMaps;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+
+import se.l4.silo.StorageException;
+
+/**
+ * Dictionary of type and field names used when storing values. Every name is
+ * assigned an ordinal that is written instead of the name itself, which keeps
+ * stored objects compact.
+ *
+ * The dictionary is append-only and persisted next to the storage, names
+ * are never removed so that ordinals stay the same when the schema changes.
+ */
+public class SchemaDictionary
+{
+	private static final int VERSION = 1;
+
+	private final MutableList<String> names;
+	private final MutableObjectIntMap<String> ordinals;
+
+	private SchemaDictionary()
+	{
+		names = Lists.mutable.empty();
+		ordinals = ObjectIntMaps.mutable.empty();
+	}
+
+	/**
+	 * Get the ordinal of a name.
+	 *
+	 * @param name
+	 * @return
+	 * @throws StorageException
+	 *   if the name is not in the dictionary
+	 */
+	public int getOrdinal(String name)
+	{
+		int ordinal = ordinals.getIfAbsent(name, -1);
+		if(ordinal < 0)
+		{
+			throw new StorageException("The name " + name + " has not been registered in the dictionary");
+		}
+
+		return ordinal;
+	}
+
+	/**
+	 * Get the name of an ordinal.
+	 *
+	 * @param ordinal
+	 * @return
+	 *   name or {@code null} if the ordinal is not known
+	 */
+	public String getName(int ordinal)
+	{
+		return ordinal >= 0 && ordinal < names.size() ? names.get(ordinal) : null;
+	}
+
+	/**
+	 * Register a name if it is not already in the dictionary.
+	 *
+	 * @param name
+	 * @return
+	 *   {@code true} if the name was added
+	 */
+	private boolean register(String name)
+	{
+		if(ordinals.containsKey(name)) return false;
+
+		ordinals.put(name, names.size());
+		names.add(name);
+		return true;
+	}
+
+	private void read(Path file)
+		throws IOException
+	{
+		try(var in = new DataInputStream(Files.newInputStream(file)))
+		{
+			int version = in.readInt();
+			if(version != VERSION)
+			{
+				throw new IOException("Unsupported dictionary version " + version);
+			}
+
+			int count = in.readInt();
+			for(int i=0; i<count; i++)
+			{
+				register(in.readUTF());
+			}
+		}
+	}
+
+	private void write(Path file)
+		throws IOException
+	{
+		var tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try(var out = new DataOutputStream(Files.newOutputStream(tmp)))
+		{
+			out.writeInt(VERSION);
+			out.writeInt(names.size());
+			for(var name : names)
+			{
+				out.writeUTF(name);
+			}
+		}
+
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Create a dictionary containing the given names. The ordinals are
+	 * assigned in the order of the names.
+	 *
+	 * @param names
+	 * @return
+	 */
+	public static SchemaDictionary create(Iterable<String> names)
+	{
+		var dictionary = new SchemaDictionary();
+		for(var name : names)
+		{
+			dictionary.register(name);
+		}
+
+		return dictionary;
+	}
+
+	/**
+	 * Open the dictionary stored in the given file and make sure it contains
+	 * all of the type and field names in the model.
+	 *
+	 * @param file
+	 * @param model
+	 * @return
+	 * @throws IOException
+	 */
+	public static SchemaDictionary open(Path file, Model model)
+		throws IOException
+	{
+		var dictionary = new SchemaDictionary();
+		if(Files.exists(file))
+		{
+			dictionary.read(file);
+		}
+
+		boolean changed = false;
+		for(var type : model.getTypes())
+		{
+			changed |= dictionary.register(type.getName());
+
+			if(type instanceof StructuredDef structuredDef)
+			{
+				for(var field : structuredDef.getFields())
+				{
+					changed |= dictionary.register(field.getName());
+				}
+			}
+		}
+
+		if(changed)
+		{
+			Files.createDirectories(file.getParent());
+			dictionary.write(file);
+		}
+
+		return dictionary;
+	}
+}
@@ -0,0 +1,259 @@
+package com.circumgraph.storage.internal;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.circumgraph.storage.Collection;
+import com.circumgraph.storage.MigrationProgress;
+import com.circumgraph.storage.StorageException;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Background migrations of collections whose schema has changed. Every
+ * object in a collection is re-encoded and reindexed in batches, one
+ * collection at a time. The progress is checkpointed in
+ * {@link SchemaVersions} after every batch and reported via
+ * {@link MigrationProgress} and as metrics.
+ */
+public class SchemaMigrations
+{
+	private static final Logger logger = LoggerFactory.getLogger("com.circumgraph.storage.migration");
+
+	/**
+	 * Number of objects migrated in a single transaction.
+	 */
+	private static final int BATCH_SIZE = 500;
+
+	private final SchemaVersions versions;
+	private final ListIterable<Migration> migrations;
+	private final long objectsPerSecond;
+
+	private final Mono<Void> completion;
+	private Disposable running;
+
+	public SchemaMigrations(
+		SchemaVersions versions,
+		ListIterable<Migration> migrations,
+		long objectsPerSecond
+	)
+	{
+		this.versions = versions;
+		this.migrations = migrations;
+		this.objectsPerSecond = objectsPerSecond;
+
+		completion = Flux.fromIterable(migrations)
+			.concatMap(this::migrate)
+			.subscribeOn(Schedulers.boundedElastic())
+			.then()
+			.cache();
+	}
+
+	/**
+	 * Get the migrations, including those that have completed.
+	 *
+	 * @return
+	 */
+	public ListIterable<? extends MigrationProgress> getMigrations()
+	{
+		return migrations;
+	}
+
+	/**
+	 * Start running the migrations in the background.
+	 */
+	public synchronized void start()
+	{
+		if(running != null || migrations.isEmpty()) return;
+
+		// Failures are logged and recorded on the migration that failed
+		running = completion.subscribe(null, e -> {});
+	}
+
+	/**
+	 * Get a {@link Mono} that completes when all migrations have completed.
+	 *
+	 * @return
+	 */
+	public Mono<Void> await()
+	{
+		return completion;
+	}
+
+	/**
+	 * Stop running migrations, they continue from their last checkpoint
+	 * the next time the storage is started. The metrics of the migrations
+	 * are removed so that a reloaded storage can register its own.
+	 */
+	public synchronized void stop()
+	{
+		if(running != null)
+		{
+			running.dispose();
+		}
+
+		migrations.each(Migration::removeMetrics);
+	}
+
+	private Mono<Void> migrate(Migration migration)
+	{
+		var collection = migration.collection;
+		var name = collection.getDefinition().getName();
+
+		/*
+		 * Objects are found via the main storage in order of their id, as
+		 * the search index is what is out of date. The total only counts
+		 * the objects remaining after the checkpoint so that progress is
+		 * correct when resuming an interrupted migration.
+		 */
+		return collection.storedIds(migration.checkpoint)
+			.count()
+			.doOnNext(migration.total::set)
+			.thenMany(collection.storedIds(migration.checkpoint).buffer(BATCH_SIZE))
+			.concatMap(ids -> collection.migrate(Lists.immutable.ofAll(ids))
+				.then(Mono.fromRunnable(() -> {
+					migration.migrated.addAndGet(ids.size());
+					checkpoint(() -> versions.checkpoint(name, ids.get(ids.size() - 1)));
+				}))
+				.then(throttle(ids.size()))
+			)
+			.then(Mono.<Void>fromRunnable(() -> {
+				checkpoint(() -> versions.completed(name));
+				migration.completed = true;
+			}))
+			.doOnError(e -> {
+				migration.failure = e;
+				logger.warn("Migration of " + name + " failed, it will continue from its last checkpoint on the next start; " + e.getMessage(), e);
+			});
+	}
+
+	private Mono<?> throttle(int objects)
+	{
+		if(objectsPerSecond <= 0)
+		{
+			return Mono.empty();
+		}
+
+		return Mono.delay(Duration.ofMillis(objects * 1000L / objectsPerSecond));
+	}
+
+	private void checkpoint(IORunnable runnable)
+	{
+		try
+		{
+			runnable.run();
+		}
+		catch(IOException e)
+		{
+			throw new StorageException("Could not record progress of migration; " + e.getMessage(), e);
+		}
+	}
+
+	private interface IORunnable
+	{
+		void run()
+			throws IOException;
+	}
+
+	/**
+	 * Migration of a single collection.
+	 */
+	public static class Migration
+		implements MigrationProgress
+	{
+		private final CollectionImpl collection;
+		private final int schemaVersion;
+		private final long checkpoint;
+
+		private final AtomicLong migrated;
+		private final AtomicLong total;
+		private final MeterRegistry meterRegistry;
+		private final Gauge migratedGauge;
+		private final Gauge totalGauge;
+		private volatile boolean completed;
+		private volatile Throwable failure;
+
+		public Migration(
+			CollectionImpl collection,
+			SchemaVersions.Entry version,
+			MeterRegistry meterRegistry
+		)
+		{
+			this.collection = collection;
+			this.schemaVersion = version.getVersion();
+			this.checkpoint = version.getCheckpoint();
+
+			migrated = new AtomicLong();
+			total = new AtomicLong();
+			this.meterRegistry = meterRegistry;
+
+			var name = collection.getDefinition().getName();
+			migratedGauge = Gauge.builder("circumgraph.storage.migration.migrated", migrated, AtomicLong::get)
+				.description("Number of objects migrated after a schema change")
+				.tag("collection", name)
+				.register(meterRegistry);
+
+			totalGauge = Gauge.builder("circumgraph.storage.migration.total", total, AtomicLong::get)
+				.description("Number of objects to migrate after a schema change")
+				.tag("collection", name)
+				.register(meterRegistry);
+		}
+
+		/**
+		 * Remove the gauges of this migration from the registry.
+		 */
+		private void removeMetrics()
+		{
+			meterRegistry.remove(migratedGauge);
+			meterRegistry.remove(totalGauge);
+		}
+
+		@Override
+		public Collection getCollection()
+		{
+			return collection;
+		}
+
+		@Override
+		public int getSchemaVersion()
+		{
+			return schemaVersion;
+		}
+
+		@Override
+		public long getMigrated()
+		{
+			return migrated.get();
+		}
+
+		@Override
+		public long getTotal()
+		{
+			return total.get();
+		}
+
+		@Override
+		public boolean isCompleted()
+		{
+			return completed;
+		}
+
+		@Override
+		public Optional<Throwable> getFailure()
+		{
+			return Optional.ofNullable(failure);
+		}
+	}
+}
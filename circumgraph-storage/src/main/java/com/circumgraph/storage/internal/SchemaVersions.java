@@ -0,0 +1,448 @@
+package com.circumgraph.storage.internal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.InterfaceDef;
+import com.circumgraph.model.ListDef;
+import com.circumgraph.model.NonNullDef;
+import com.circumgraph.model.OutputTypeDef;
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.model.UnionDef;
+import com.circumgraph.storage.StorageModel;
+import com.circumgraph.storage.StorageSchema;
+import com.circumgraph.storage.types.ValueIndexer;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectLongMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.primitive.ObjectLongMaps;
+
+/**
+ * Registry of the schema version of every collection, persisted next to
+ * the storage. Every collection has a fingerprint of the parts of its
+ * schema that affect how objects are encoded and indexed. When the
+ * fingerprint changes the version is increased and the collection is
+ * marked as needing a migration.
+ *
+ * While a migration runs the id of the last migrated object is stored as a
+ * checkpoint, so that a migration interrupted by a restart continues where
+ * it stopped.
+ *
+ * The registry also keeps the sequence numbers reserved by the change feed
+ * of every collection, so that sequence numbers keep increasing across
+ * restarts.
+ */
+public class SchemaVersions
+{
+	private static final int VERSION = 2;
+
+	private final Path file;
+	private final MutableMap<String, Entry> entries;
+	private final MutableObjectLongMap<String> sequences;
+
+	private SchemaVersions(Path file)
+	{
+		this.file = file;
+		this.entries = Maps.mutable.empty();
+		this.sequences = ObjectLongMaps.mutable.empty();
+	}
+
+	/**
+	 * Update the fingerprint of a collection. If the fingerprint differs
+	 * from the stored one, or if the collection has no version yet, the
+	 * version is increased and the collection needs to be migrated.
+	 *
+	 * @param collection
+	 * @param def
+	 * @return
+	 *   current version of the collection
+	 */
+	public synchronized Entry update(String collection, StructuredDef def)
+	{
+		var fingerprint = fingerprint(def);
+		var current = entries.get(collection);
+		if(current != null && current.fingerprint.equals(fingerprint))
+		{
+			return current;
+		}
+
+		var entry = new Entry(
+			current == null ? 1 : current.version + 1,
+			fingerprint,
+			current == null ? 0 : current.migratedVersion,
+			-1
+		);
+
+		entries.put(collection, entry);
+		return entry;
+	}
+
+	/**
+	 * Record that objects up to and including the given id have been
+	 * migrated.
+	 *
+	 * @param collection
+	 * @param lastId
+	 * @throws IOException
+	 */
+	public synchronized void checkpoint(String collection, long lastId)
+		throws IOException
+	{
+		var current = entries.get(collection);
+		entries.put(collection, new Entry(
+			current.version,
+			current.fingerprint,
+			current.migratedVersion,
+			lastId
+		));
+
+		save();
+	}
+
+	/**
+	 * Record that all objects in a collection have been migrated to the
+	 * current version.
+	 *
+	 * @param collection
+	 * @throws IOException
+	 */
+	public synchronized void completed(String collection)
+		throws IOException
+	{
+		var current = entries.get(collection);
+		entries.put(collection, new Entry(
+			current.version,
+			current.fingerprint,
+			current.version,
+			-1
+		));
+
+		save();
+	}
+
+	/**
+	 * Reserve a block of sequence numbers for the change feed of a
+	 * collection. The reservation is persisted before this returns, so
+	 * numbers up to the returned one are never handed out again.
+	 *
+	 * @param collection
+	 * @param count
+	 *   number of sequence numbers to reserve
+	 * @return
+	 *   the last sequence number reserved, the first being the one returned
+	 *   by the previous reservation plus one
+	 * @throws IOException
+	 */
+	public synchronized long reserveSequences(String collection, long count)
+		throws IOException
+	{
+		long reserved = sequences.get(collection) + count;
+		sequences.put(collection, reserved);
+
+		save();
+		return reserved;
+	}
+
+	/**
+	 * Get the last sequence number reserved for the change feed of a
+	 * collection, {@code 0} if none have been reserved.
+	 *
+	 * @param collection
+	 * @return
+	 */
+	public synchronized long getReservedSequence(String collection)
+	{
+		return sequences.get(collection);
+	}
+
+	/**
+	 * Persist the registry.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void save()
+		throws IOException
+	{
+		saveTo(file);
+	}
+
+	/**
+	 * Persist the registry to the given file, used to copy the registry
+	 * into a snapshot.
+	 *
+	 * @param target
+	 * @throws IOException
+	 */
+	public synchronized void saveTo(Path target)
+		throws IOException
+	{
+		var tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		try(var out = new DataOutputStream(Files.newOutputStream(tmp)))
+		{
+			out.writeInt(VERSION);
+			out.writeInt(entries.size());
+			for(var pair : entries.keyValuesView())
+			{
+				var entry = pair.getTwo();
+				out.writeUTF(pair.getOne());
+				out.writeInt(entry.version);
+				out.writeUTF(entry.fingerprint);
+				out.writeInt(entry.migratedVersion);
+				out.writeLong(entry.checkpoint);
+			}
+
+			out.writeInt(sequences.size());
+			for(var pair : sequences.keyValuesView())
+			{
+				out.writeUTF(pair.getOne());
+				out.writeLong(pair.getTwo());
+			}
+		}
+
+		Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void read()
+		throws IOException
+	{
+		try(var in = new DataInputStream(Files.newInputStream(file)))
+		{
+			int version = in.readInt();
+			if(version < 1 || version > VERSION)
+			{
+				throw new IOException("Unsupported schema version registry version " + version);
+			}
+
+			int count = in.readInt();
+			for(int i=0; i<count; i++)
+			{
+				var name = in.readUTF();
+				entries.put(name, new Entry(
+					in.readInt(),
+					in.readUTF(),
+					in.readInt(),
+					in.readLong()
+				));
+			}
+
+			// Sequences were added in version 2
+			if(version >= 2)
+			{
+				int sequenceCount = in.readInt();
+				for(int i=0; i<sequenceCount; i++)
+				{
+					sequences.put(in.readUTF(), in.readLong());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Open the registry stored in the given file.
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static SchemaVersions open(Path file)
+		throws IOException
+	{
+		var versions = new SchemaVersions(file);
+		if(Files.exists(file))
+		{
+			versions.read();
+		}
+
+		return versions;
+	}
+
+	/**
+	 * Calculate the fingerprint of a collection. This covers the stored
+	 * fields, their types and how they are indexed, including fields in
+	 * embedded objects and sub-types.
+	 *
+	 * @param def
+	 * @return
+	 */
+	public static String fingerprint(StructuredDef def)
+	{
+		var builder = new StringBuilder();
+		describeStructured(builder, def, Sets.mutable.empty());
+
+		try
+		{
+			var digest = MessageDigest.getInstance("SHA-256")
+				.digest(builder.toString().getBytes(StandardCharsets.UTF_8));
+
+			var result = new StringBuilder();
+			for(byte b : digest)
+			{
+				result.append(Character.forDigit((b >> 4) & 0xf, 16))
+					.append(Character.forDigit(b & 0xf, 16));
+			}
+
+			return result.toString();
+		}
+		catch(NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void describeStructured(
+		StringBuilder builder,
+		StructuredDef def,
+		MutableSet<String> visited
+	)
+	{
+		builder.append(def.getName());
+		if(! visited.add(def.getName())) return;
+
+		builder.append('{');
+		for(var field : def.getFields())
+		{
+			describeField(builder, field, visited);
+		}
+		builder.append('}');
+
+		if(def instanceof InterfaceDef interfaceDef)
+		{
+			interfaceDef.getImplementors()
+				.toSortedListBy(StructuredDef::getName)
+				.each(subType -> describeStructured(builder, subType, visited));
+		}
+	}
+
+	private static void describeField(
+		StringBuilder builder,
+		FieldDef field,
+		MutableSet<String> visited
+	)
+	{
+		if(StorageModel.getFieldType(field) != StorageModel.FieldType.STORED) return;
+
+		builder.append(field.getName()).append(':');
+		describeType(builder, field.getType(), visited);
+
+		if(StorageModel.isIndexed(field))
+		{
+			builder.append(" @index(")
+				.append(StorageModel.getIndexer(field).map(ValueIndexer::getName).orElse(""))
+				.append(')');
+		}
+
+		if(StorageModel.isSortable(field))
+		{
+			builder.append(" @sortable");
+		}
+
+		if(StorageModel.isHighlightable(field))
+		{
+			builder.append(" @highlightable");
+		}
+
+		builder.append(';');
+	}
+
+	private static void describeType(
+		StringBuilder builder,
+		OutputTypeDef def,
+		MutableSet<String> visited
+	)
+	{
+		if(def instanceof NonNullDef.Output nonNull)
+		{
+			describeType(builder, nonNull.getType(), visited);
+			builder.append('!');
+		}
+		else if(def instanceof ListDef.Output list)
+		{
+			builder.append('[');
+			describeType(builder, list.getItemType(), visited);
+			builder.append(']');
+		}
+		else if(def instanceof StructuredDef structuredDef
+			&& ! structuredDef.findImplements(StorageSchema.ENTITY_NAME))
+		{
+			describeStructured(builder, structuredDef, visited);
+		}
+		else if(def instanceof UnionDef unionDef)
+		{
+			builder.append(unionDef.getName()).append('(');
+			unionDef.getTypes()
+				.toSortedListBy(StructuredDef::getName)
+				.each(subType -> describeType(builder, subType, visited));
+			builder.append(')');
+		}
+		else
+		{
+			builder.append(def.getName());
+		}
+	}
+
+	/**
+	 * Version information about a single collection.
+	 */
+	public static class Entry
+	{
+		private final int version;
+		private final String fingerprint;
+		private final int migratedVersion;
+		private final long checkpoint;
+
+		public Entry(
+			int version,
+			String fingerprint,
+			int migratedVersion,
+			long checkpoint
+		)
+		{
+			this.version = version;
+			this.fingerprint = fingerprint;
+			this.migratedVersion = migratedVersion;
+			this.checkpoint = checkpoint;
+		}
+
+		/**
+		 * Get the current version of the schema.
+		 *
+		 * @return
+		 */
+		public int getVersion()
+		{
+			return version;
+		}
+
+		/**
+		 * Get if all objects have been migrated to the current version.
+		 *
+		 * @return
+		 */
+		public boolean isMigrated()
+		{
+			return migratedVersion == version;
+		}
+
+		/**
+		 * Get the id of the last object migrated, {@code -1} if the
+		 * migration has not started.
+		 *
+		 * @return
+		 */
+		public long getCheckpoint()
+		{
+			return checkpoint;
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package com.circumgraph.storage.internal;
+
+import java.util.function.Supplier;
+
+import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.WriteTracker;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.l4.silo.index.search.PaginatedSearchResult;
+import se.l4.silo.index.search.SearchIndexQuery;
+
+/**
+ * Cache of search results for a single collection. Results are cached by
+ * the query sent to the index, which includes the clauses, the sorting and
+ * the page being fetched. The size of the cache is bounded by the number of
+ * hits it holds.
+ *
+ * Every write to the collection invalidates the cache when it starts and
+ * again when it completes. If the write is part of a transaction created
+ * via {@link com.circumgraph.storage.Storage#transactions()} completion is
+ * when the transaction is committed or rolled back, as learned via its
+ * {@link WriteTracker}. While a write is in progress searches bypass
+ * the cache, which means that a transaction that has written never sees
+ * cached results.
+ *
+ * A reloaded storage keeps the caches of the storage it replaces, so that
+ * writes via either of them invalidate the same cache.
+ */
+public class SearchCache
+{
+	private static final String METRIC_NAME = "circumgraph.storage.search.cache";
+
+	private final MeterRegistry meterRegistry;
+	private final String collection;
+	private final Cache<SearchIndexQuery.Limited<StoredObjectValue>, PaginatedSearchResult<StoredObjectValue>> cache;
+
+	/**
+	 * Number of writes that have started but not yet completed.
+	 */
+	private int pendingWrites;
+	/**
+	 * Version that is increased whenever the cache is invalidated, used to
+	 * discard results of searches that overlapped a write.
+	 */
+	private long version;
+
+	public SearchCache(
+		long maximumHits,
+		MeterRegistry meterRegistry,
+		String collection
+	)
+	{
+		this.meterRegistry = meterRegistry;
+		this.collection = collection;
+
+		cache = Caffeine.newBuilder()
+			.maximumWeight(maximumHits)
+			.weigher((SearchIndexQuery.Limited<StoredObjectValue> key, PaginatedSearchResult<StoredObjectValue> result) ->
+				result.getItems().size() + 1
+			)
+			.recordStats()
+			.build();
+
+		CaffeineCacheMetrics.monitor(
+			meterRegistry,
+			cache,
+			METRIC_NAME,
+			"collection", collection
+		);
+	}
+
+	/**
+	 * Invalidate all cached results, used when the model is reloaded as
+	 * cached objects were read using the previous model.
+	 */
+	public synchronized void invalidateAll()
+	{
+		invalidate();
+	}
+
+	/**
+	 * Remove the metrics of this cache from the registry, used when the
+	 * storage is closed so that a new cache can register its own metrics.
+	 */
+	public void close()
+	{
+		for(var meter : meterRegistry.getMeters())
+		{
+			var id = meter.getId();
+			if(id.getName().startsWith(METRIC_NAME + ".")
+				&& collection.equals(id.getTag("collection")))
+			{
+				meterRegistry.remove(meter);
+			}
+		}
+	}
+
+	/**
+	 * Get the result of a query, either from the cache or by running the
+	 * query.
+	 *
+	 * @param query
+	 * @param loader
+	 *   supplier of the search that runs the query
+	 * @return
+	 */
+	public Mono<PaginatedSearchResult<StoredObjectValue>> get(
+		SearchIndexQuery.Limited<StoredObjectValue> query,
+		Supplier<Mono<PaginatedSearchResult<StoredObjectValue>>> loader
+	)
+	{
+		return Mono.defer(() -> {
+			long loadVersion;
+			synchronized(this)
+			{
+				if(pendingWrites > 0)
+				{
+					return loader.get();
+				}
+
+				var cached = cache.getIfPresent(query);
+				if(cached != null)
+				{
+					return Mono.just(cached);
+				}
+
+				loadVersion = version;
+			}
+
+			return loader.get()
+				.doOnNext(result -> {
+					synchronized(this)
+					{
+						if(loadVersion == version && pendingWrites == 0)
+						{
+							cache.put(query, result);
+						}
+					}
+				});
+		});
+	}
+
+	/**
+	 * Track a write to the collection.
+	 *
+	 * @param mono
+	 * @return
+	 */
+	public <T> Mono<T> write(Mono<T> mono)
+	{
+		return Mono.deferContextual(ctx -> {
+			var tracker = ctx.<WriteTracker>getOrEmpty(WriteTracker.class);
+
+			beginWrite();
+			if(tracker.isPresent())
+			{
+				tracker.get().afterCompletion(this::endWrite);
+				return mono;
+			}
+
+			return mono.doFinally(signal -> endWrite());
+		});
+	}
+
+	/**
+	 * Track a write to the collection.
+	 *
+	 * @param flux
+	 * @return
+	 */
+	public <T> Flux<T> write(Flux<T> flux)
+	{
+		return Flux.deferContextual(ctx -> {
+			var tracker = ctx.<WriteTracker>getOrEmpty(WriteTracker.class);
+
+			beginWrite();
+			if(tracker.isPresent())
+			{
+				tracker.get().afterCompletion(this::endWrite);
+				return flux;
+			}
+
+			return flux.doFinally(signal -> endWrite());
+		});
+	}
+
+	private synchronized void beginWrite()
+	{
+		pendingWrites++;
+		invalidate();
+	}
+
+	private synchronized void endWrite()
+	{
+		invalidate();
+		pendingWrites--;
+	}
+
+	private void invalidate()
+	{
+		version++;
+		cache.invalidateAll();
+	}
+}
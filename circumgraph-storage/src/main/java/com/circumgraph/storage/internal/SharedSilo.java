@@ -0,0 +1,128 @@
+package com.circumgraph.storage.internal;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.circumgraph.storage.StorageException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import se.l4.silo.engine.LocalSilo;
+
+/**
+ * {@link LocalSilo} that keeps track of the operations running against it.
+ * A storage and the storages it is reloaded into share the same instance,
+ * and when it is closed the silo stays open until every running operation
+ * has finished.
+ */
+public class SharedSilo
+{
+	private final LocalSilo silo;
+
+	private final AtomicInteger active;
+	private final AtomicBoolean closed;
+	private final Sinks.Empty<Void> drained;
+
+	private volatile boolean closing;
+
+	public SharedSilo(LocalSilo silo)
+	{
+		this.silo = silo;
+
+		active = new AtomicInteger();
+		closed = new AtomicBoolean();
+		drained = Sinks.empty();
+	}
+
+	/**
+	 * Get the silo.
+	 *
+	 * @return
+	 */
+	public LocalSilo get()
+	{
+		return silo;
+	}
+
+	/**
+	 * Run an operation against the silo. The silo is kept open until the
+	 * operation completes, fails or is cancelled.
+	 *
+	 * @param mono
+	 * @return
+	 */
+	public <T> Mono<T> use(Mono<T> mono)
+	{
+		return Mono.defer(() -> {
+			acquire();
+			return mono.doFinally(s -> release());
+		});
+	}
+
+	/**
+	 * Run an operation against the silo. The silo is kept open until the
+	 * operation completes, fails or is cancelled.
+	 *
+	 * @param flux
+	 * @return
+	 */
+	public <T> Flux<T> use(Flux<T> flux)
+	{
+		return Flux.defer(() -> {
+			acquire();
+			return flux.doFinally(s -> release());
+		});
+	}
+
+	/**
+	 * Close the silo once all running operations have finished. New
+	 * operations fail from the time this is called.
+	 *
+	 * @return
+	 *   mono that completes when the silo has been closed
+	 */
+	public Mono<Void> close()
+	{
+		closing = true;
+		if(active.get() == 0)
+		{
+			closeNow();
+		}
+
+		return drained.asMono();
+	}
+
+	private void acquire()
+	{
+		active.incrementAndGet();
+		if(closing)
+		{
+			release();
+			throw new StorageException("Storage has been closed");
+		}
+	}
+
+	private void release()
+	{
+		if(active.decrementAndGet() == 0 && closing)
+		{
+			closeNow();
+		}
+	}
+
+	private void closeNow()
+	{
+		if(! closed.compareAndSet(false, true)) return;
+
+		try
+		{
+			silo.close();
+			drained.tryEmitEmpty();
+		}
+		catch(RuntimeException e)
+		{
+			drained.tryEmitError(e);
+		}
+	}
+}
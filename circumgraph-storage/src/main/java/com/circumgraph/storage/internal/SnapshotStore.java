@@ -0,0 +1,478 @@
+package com.circumgraph.storage.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+
+import se.l4.silo.engine.Snapshot;
+
+/**
+ * Snapshot of a storage kept in a directory. The data of the snapshot is
+ * split into chunks that are named after the hash of their contents, and a
+ * manifest lists the chunks in order. Chunks that already exist from an
+ * earlier snapshot in the same directory are not written again, which makes
+ * repeated snapshots incremental.
+ *
+ * Chunk boundaries are picked based on the content using a rolling hash,
+ * so data inserted or removed in the middle of the snapshot only changes
+ * the chunks around it instead of shifting every chunk after it. Chunks
+ * are between 256 KiB and 4 MiB, about 1 MiB on average.
+ *
+ * The {@link SchemaDictionary} and {@link SchemaVersions} of the storage
+ * are kept next to the chunks. The versions are captured before the data,
+ * so a migration checkpoint in a snapshot never points past the data it
+ * was taken with.
+ *
+ * The manifest is replaced atomically once all chunks have been written,
+ * so a snapshot that fails halfway leaves the previous snapshot intact.
+ * Chunks that are no longer referenced are removed after the manifest has
+ * been replaced.
+ *
+ * Only a single chunk is held in memory at a time and reads and writes can
+ * be limited to a number of bytes per second. Writing takes a lock on the
+ * directory, so snapshots of the same directory are written one at a time
+ * both within this process and across processes.
+ */
+public class SnapshotStore
+{
+	private static final int VERSION = 1;
+
+	/**
+	 * Minimum size of a chunk, the last chunk may be smaller.
+	 */
+	private static final int MIN_CHUNK_SIZE = 256 * 1024;
+	/**
+	 * Maximum size of a chunk, used if no boundary is found before it.
+	 */
+	private static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+	/**
+	 * Mask applied to the rolling hash, a boundary is found when the masked
+	 * bits are all zero which gives chunks of about 1 MiB on average.
+	 */
+	private static final long BOUNDARY_MASK = (1L << 20) - 1;
+	/**
+	 * Random values for every byte used by the rolling hash. The seed is
+	 * fixed so that boundaries are the same between runs.
+	 */
+	private static final long[] GEAR = new Random(0x5eed_c1c0L).longs(256).toArray();
+
+	/**
+	 * Locks of directories being written to by this process, file locks
+	 * are held by the whole process and can not be used between threads.
+	 * Entries are removed once no thread uses them.
+	 */
+	private static final MutableMap<Path, DirectoryLock> LOCKS = Maps.mutable.empty();
+
+	private static final String MANIFEST = "manifest";
+	private static final String LOCK = "lock";
+	private static final String CHUNKS = "chunks";
+	private static final String DICTIONARY = "names.dictionary";
+	private static final String VERSIONS = "schema.versions";
+
+	private final Path directory;
+
+	public SnapshotStore(Path directory)
+	{
+		this.directory = directory;
+	}
+
+	/**
+	 * Write a snapshot to the directory.
+	 *
+	 * @param snapshot
+	 *   supplier of the snapshot of the data, called after the versions
+	 *   have been captured
+	 * @param dictionary
+	 *   file containing the {@link SchemaDictionary} used by the data
+	 * @param versions
+	 *   versions of the collections in the storage
+	 * @param bytesPerSecond
+	 *   maximum number of bytes to read and write per second, {@code 0}
+	 *   for no limit
+	 * @throws IOException
+	 */
+	public void write(
+		Supplier<Snapshot> snapshot,
+		Path dictionary,
+		SchemaVersions versions,
+		long bytesPerSecond
+	)
+		throws IOException
+	{
+		Files.createDirectories(directory);
+
+		var key = directory.toAbsolutePath().normalize();
+		var directoryLock = acquire(key);
+		try
+		{
+			synchronized(directoryLock)
+			{
+				try(
+					var channel = FileChannel.open(directory.resolve(LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+					var lock = channel.lock()
+				)
+				{
+					writeLocked(snapshot, dictionary, versions, bytesPerSecond);
+				}
+			}
+		}
+		finally
+		{
+			release(key, directoryLock);
+		}
+	}
+
+	private void writeLocked(
+		Supplier<Snapshot> snapshotSupplier,
+		Path dictionary,
+		SchemaVersions versions,
+		long bytesPerSecond
+	)
+		throws IOException
+	{
+		var chunkDir = directory.resolve(CHUNKS);
+		Files.createDirectories(chunkDir);
+
+		var versionsTmp = directory.resolve(VERSIONS + ".snapshot");
+		versions.saveTo(versionsTmp);
+
+		var snapshot = snapshotSupplier.get();
+
+		var throttle = new Throttle(bytesPerSecond);
+		var chunks = Lists.mutable.<String>empty();
+		var buffer = new byte[MAX_CHUNK_SIZE];
+
+		try(var in = snapshot.asStream())
+		{
+			int available = 0;
+			while(true)
+			{
+				available = fill(in, buffer, available, throttle);
+				if(available == 0) break;
+
+				int length = findBoundary(buffer, available);
+				var hash = hash(buffer, length);
+				var chunk = chunkDir.resolve(hash);
+				if(! Files.exists(chunk))
+				{
+					var tmp = chunkDir.resolve(hash + ".tmp");
+					try(var out = Files.newOutputStream(tmp))
+					{
+						out.write(buffer, 0, length);
+					}
+
+					throttle.acquire(length);
+					Files.move(tmp, chunk, StandardCopyOption.ATOMIC_MOVE);
+				}
+
+				chunks.add(hash);
+
+				// Keep the data after the boundary for the next chunk
+				System.arraycopy(buffer, length, buffer, 0, available - length);
+				available -= length;
+			}
+		}
+
+		var dictionaryTmp = directory.resolve(DICTIONARY + ".tmp");
+		Files.copy(dictionary, dictionaryTmp, StandardCopyOption.REPLACE_EXISTING);
+		Files.move(dictionaryTmp, directory.resolve(DICTIONARY), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		Files.move(versionsTmp, directory.resolve(VERSIONS), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		writeManifest(chunks);
+		removeUnreferenced(chunkDir, chunks);
+	}
+
+	/**
+	 * Get if this directory contains a snapshot.
+	 *
+	 * @return
+	 */
+	public boolean exists()
+	{
+		return Files.exists(directory.resolve(MANIFEST));
+	}
+
+	/**
+	 * Copy the {@link SchemaDictionary} of the snapshot to the given file.
+	 *
+	 * @param target
+	 * @throws IOException
+	 */
+	public void restoreDictionary(Path target)
+		throws IOException
+	{
+		Files.createDirectories(target.getParent());
+		Files.copy(directory.resolve(DICTIONARY), target, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Copy the {@link SchemaVersions} of the snapshot to the given file.
+	 * Snapshots written before the versions were included have no copy, in
+	 * which case nothing is restored.
+	 *
+	 * @param target
+	 * @throws IOException
+	 */
+	public void restoreVersions(Path target)
+		throws IOException
+	{
+		var source = directory.resolve(VERSIONS);
+		if(! Files.exists(source)) return;
+
+		Files.createDirectories(target.getParent());
+		Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Read the snapshot in the directory. Chunks are opened one at a time
+	 * as the snapshot is read.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public Snapshot read()
+		throws IOException
+	{
+		var chunkDir = directory.resolve(CHUNKS);
+		var chunks = readManifest().collect(chunkDir::resolve);
+
+		for(var chunk : chunks)
+		{
+			if(! Files.exists(chunk))
+			{
+				throw new IOException("Snapshot is missing the chunk " + chunk.getFileName());
+			}
+		}
+
+		return () -> new SequenceInputStream(new Enumeration<InputStream>()
+		{
+			private int index;
+
+			@Override
+			public boolean hasMoreElements()
+			{
+				return index < chunks.size();
+			}
+
+			@Override
+			public InputStream nextElement()
+			{
+				if(index >= chunks.size())
+				{
+					throw new NoSuchElementException();
+				}
+
+				try
+				{
+					return Files.newInputStream(chunks.get(index++));
+				}
+				catch(IOException e)
+				{
+					throw new se.l4.silo.StorageException("Could not read snapshot; " + e.getMessage(), e);
+				}
+			}
+		});
+	}
+
+	private void writeManifest(ListIterable<String> chunks)
+		throws IOException
+	{
+		var lines = Lists.mutable.of(String.valueOf(VERSION))
+			.withAll(chunks);
+
+		var tmp = directory.resolve(MANIFEST + ".tmp");
+		Files.write(tmp, lines, StandardCharsets.UTF_8);
+		Files.move(tmp, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private ListIterable<String> readManifest()
+		throws IOException
+	{
+		var lines = Files.readAllLines(directory.resolve(MANIFEST), StandardCharsets.UTF_8);
+		if(lines.isEmpty() || ! lines.get(0).equals(String.valueOf(VERSION)))
+		{
+			throw new IOException("Unsupported snapshot version");
+		}
+
+		return Lists.immutable.ofAll(lines.subList(1, lines.size()));
+	}
+
+	private static void removeUnreferenced(Path chunkDir, ListIterable<String> chunks)
+		throws IOException
+	{
+		var referenced = Sets.immutable.ofAll(chunks);
+		MutableList<Path> unreferenced = Lists.mutable.empty();
+		try(var stream = Files.list(chunkDir))
+		{
+			stream
+				.filter(p -> ! referenced.contains(p.getFileName().toString()))
+				.forEach(unreferenced::add);
+		}
+
+		for(var path : unreferenced)
+		{
+			Files.deleteIfExists(path);
+		}
+	}
+
+	/**
+	 * Fill the rest of the buffer from the stream.
+	 *
+	 * @param available
+	 *   number of bytes already in the buffer
+	 * @return
+	 *   number of bytes in the buffer, only less than the size of the buffer
+	 *   if the stream has ended
+	 */
+	private static int fill(InputStream in, byte[] buffer, int available, Throttle throttle)
+		throws IOException
+	{
+		int length = available;
+		while(length < buffer.length)
+		{
+			int read = in.read(buffer, length, buffer.length - length);
+			if(read < 0) break;
+
+			throttle.acquire(read);
+			length += read;
+		}
+
+		return length;
+	}
+
+	/**
+	 * Find where the chunk at the start of the buffer ends, using a gear
+	 * hash that only depends on the last 64 bytes seen.
+	 *
+	 * @param buffer
+	 * @param available
+	 *   number of bytes in the buffer
+	 * @return
+	 *   length of the chunk
+	 */
+	private static int findBoundary(byte[] buffer, int available)
+	{
+		long hash = 0;
+		for(int i=MIN_CHUNK_SIZE; i<available; i++)
+		{
+			hash = (hash << 1) + GEAR[buffer[i] & 0xff];
+			if((hash & BOUNDARY_MASK) == 0)
+			{
+				return i + 1;
+			}
+		}
+
+		return available;
+	}
+
+	private static String hash(byte[] data, int length)
+	{
+		try
+		{
+			var digest = MessageDigest.getInstance("SHA-256");
+			digest.update(data, 0, length);
+
+			var result = new StringBuilder();
+			for(byte b : digest.digest())
+			{
+				result.append(Character.forDigit((b >> 4) & 0xf, 16))
+					.append(Character.forDigit(b & 0xf, 16));
+			}
+
+			return result.toString();
+		}
+		catch(NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static DirectoryLock acquire(Path key)
+	{
+		synchronized(LOCKS)
+		{
+			var lock = LOCKS.getIfAbsentPut(key, DirectoryLock::new);
+			lock.users++;
+			return lock;
+		}
+	}
+
+	private static void release(Path key, DirectoryLock lock)
+	{
+		synchronized(LOCKS)
+		{
+			if(--lock.users == 0)
+			{
+				LOCKS.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Lock of a single directory, with the number of threads using or
+	 * waiting for it.
+	 */
+	private static class DirectoryLock
+	{
+		private int users;
+	}
+
+	/**
+	 * Limits the number of bytes processed per second by sleeping when
+	 * ahead of the allowed rate.
+	 */
+	private static class Throttle
+	{
+		private final long bytesPerSecond;
+		private final long start;
+		private long total;
+
+		public Throttle(long bytesPerSecond)
+		{
+			this.bytesPerSecond = bytesPerSecond;
+			this.start = System.nanoTime();
+		}
+
+		public void acquire(int bytes)
+			throws IOException
+		{
+			if(bytesPerSecond <= 0) return;
+
+			total += bytes;
+
+			long expected = (long) (total / (double) bytesPerSecond * 1_000_000_000);
+			long ahead = expected - (System.nanoTime() - start);
+			if(ahead < 1_000_000) return;
+
+			try
+			{
+				Thread.sleep(ahead / 1_000_000);
+			}
+			catch(InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while writing snapshot");
+			}
+		}
+	}
+}
@@ -1,7 +1,15 @@
 package com.circumgraph.storage.internal;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import com.circumgraph.model.FieldDef;
 import com.circumgraph.model.InterfaceDef;
@@ -15,31 +23,46 @@ import com.circumgraph.model.StructuredDef;
 import com.circumgraph.model.TypeDef;
 import com.circumgraph.model.UnionDef;
 import com.circumgraph.storage.Collection;
-import com.circumgraph.storage.ListValue;
+import com.circumgraph.storage.MigrationProgress;
 import com.circumgraph.storage.SimpleValue;
 import com.circumgraph.storage.Storage;
 import com.circumgraph.storage.StorageModel;
 import com.circumgraph.storage.StorageSchema;
+import com.circumgraph.storage.StorageTransactions;
 import com.circumgraph.storage.StoredObjectRef;
 import com.circumgraph.storage.StoredObjectValue;
 import com.circumgraph.storage.StructuredValue;
 import com.circumgraph.storage.Value;
 import com.circumgraph.storage.internal.indexing.AutoGeneratedIdValueIndexer;
+import com.circumgraph.storage.internal.indexing.FullTextStringValueIndexer;
+import com.circumgraph.storage.internal.indexing.TypeAheadStringValueIndexer;
 import com.circumgraph.storage.search.QueryPath;
 import com.circumgraph.storage.types.ValueIndexer;
 
 import org.eclipse.collections.api.RichIterable;
 import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.map.ImmutableMap;
+import org.eclipse.collections.api.map.MapIterable;
+import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.set.MutableSet;
-
+import org.eclipse.collections.api.set.SetIterable;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import se.l4.silo.CollectionRef;
 import se.l4.silo.StorageException;
-import se.l4.silo.Transactions;
 import se.l4.silo.engine.CollectionDef;
 import se.l4.silo.engine.LocalSilo;
+import se.l4.silo.engine.ObjectCodec;
 import se.l4.silo.engine.index.search.SearchFieldDef;
 import se.l4.silo.engine.index.search.SearchIndexDef;
 import se.l4.silo.engine.index.search.types.SearchFieldType;
@@ -47,27 +70,161 @@ import se.l4.silo.engine.index.search.types.SearchFieldType;
 public class StorageImpl
 	implements Storage
 {
+	private static final Logger logger = LoggerFactory.getLogger("com.circumgraph.storage");
+
+	/**
+	 * Name of the file the {@link SchemaDictionary} is stored in.
+	 */
+	private static final String DICTIONARY = "names.dictionary";
+	/**
+	 * Default limit for the I/O used by snapshots, in bytes per second.
+	 */
+	private static final long DEFAULT_SNAPSHOT_RATE_LIMIT = 32 * 1024 * 1024;
+	/**
+	 * Name of the file the {@link SchemaVersions} are stored in.
+	 */
+	private static final String SCHEMA_VERSIONS = "schema.versions";
+	/**
+	 * Default limit for the number of objects migrated per second.
+	 */
+	private static final long DEFAULT_MIGRATION_RATE_LIMIT = 5000;
+	/**
+	 * Pool used to set up collections in parallel, bounded by the number of
+	 * available processors. Threads are released when idle.
+	 */
+	private static final ExecutorService STARTUP_EXECUTOR = createStartupExecutor();
+
 	private final Model model;
-	private final LocalSilo silo;
+	private final Path path;
+	private final SharedSilo silo;
+	private final SchemaVersions versions;
+	private final ImmutableMap<String, ReloadableObjectCodec> codecs;
+	private final ImmutableMap<String, ChangeFeed> changeFeeds;
+	private final ImmutableMap<String, SearchCache> searchCaches;
 	private final ImmutableMap<String, CollectionImpl> collections;
 
-	public StorageImpl(Model model, LocalSilo silo)
+	private final MeterRegistry meterRegistry;
+	private final long searchCacheSize;
+	private final long snapshotRateLimit;
+	private final long migrationRateLimit;
+	private final SchemaMigrations migrations;
+
+	/**
+	 * If this storage has been replaced by a reloaded storage, which then
+	 * owns the change feeds, caches and silo.
+	 */
+	private volatile boolean retired;
+	/**
+	 * Storage that replaced this storage, used to find collections for
+	 * references from collections that were kept when reloading.
+	 */
+	private volatile StorageImpl successor;
+
+	public StorageImpl(
+		Model model,
+		Path path,
+		SharedSilo silo,
+		SchemaVersions versions,
+		ImmutableMap<String, ReloadableObjectCodec> codecs,
+		MapIterable<String, ChangeFeed> changeFeeds,
+		MapIterable<String, SearchCache> searchCaches,
+		MapIterable<String, CollectionImpl> keptCollections,
+		MeterRegistry meterRegistry,
+		long searchCacheSize,
+		long snapshotRateLimit,
+		long migrationRateLimit
+	)
+		throws IOException
 	{
 		this.model = model;
+		this.path = path;
 		this.silo = silo;
+		this.versions = versions;
+		this.codecs = codecs;
+		this.meterRegistry = meterRegistry;
+		this.searchCacheSize = searchCacheSize;
+		this.snapshotRateLimit = snapshotRateLimit;
+		this.migrationRateLimit = migrationRateLimit;
+
+		var defs = model.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
+			.get()
+			.getImplementors();
+
+		// Keep the feeds of a reloaded storage so subscribers keep receiving changes
+		MutableMap<String, ChangeFeed> feeds = Maps.mutable.empty();
+		for(var def : defs)
+		{
+			var feed = changeFeeds.get(def.getName());
+			feeds.put(def.getName(), feed == null ? new ChangeFeed(versions, def.getName()) : feed);
+		}
+		this.changeFeeds = feeds.toImmutable();
+
+		/*
+		 * Caches are also kept, so writes via the replaced storage
+		 * invalidate the caches used by this storage.
+		 */
+		this.searchCaches = searchCacheSize > 0
+			? defs.toMap(
+				StructuredDef::getName,
+				def -> searchCaches.getIfAbsent(def.getName(), () -> new SearchCache(searchCacheSize, meterRegistry, def.getName()))
+			).toImmutable()
+			: Maps.immutable.empty();
+
+		/*
+		 * Collections kept from a reloaded storage are used as is, only
+		 * collections that are new or have changed are set up. Mappers are
+		 * shared between collections via the model, so they are resolved
+		 * one collection at a time before the rest of the setup runs in
+		 * parallel.
+		 */
+		var createdDefs = defs.reject(def -> keptCollections.containsKey(def.getName()));
 
 		var providers = new ValueProviders();
 		var mappers = new ValueMappers(model, this, providers);
-		this.collections = model.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
-			.get()
-			.getImplementors()
-			.toMap(StructuredDef::getName, def -> new CollectionImpl(
-				silo.transactions(),
-				def,
-				silo.getCollection(CollectionRef.create("collection:" + def.getName(), Long.class, StoredObjectValue.class)),
-				mappers.createRoot(def)
-			))
-			.toImmutable();
+		long mapperStart = System.currentTimeMillis();
+		var rootMappers = createdDefs.toMap(StructuredDef::getName, mappers::createRoot);
+		logger.info(
+			"Mapper resolution of {} collections took {} ms",
+			createdDefs.size(),
+			System.currentTimeMillis() - mapperStart
+		);
+
+		var created = collectInParallel("Collection setup", createdDefs, def -> new CollectionImpl(
+			silo,
+			def,
+			silo.get().getCollection(collectionRef(def.getName())),
+			rootMappers.get(def.getName()),
+			generateKeysetFields(def),
+			generateFacetFields(def),
+			new CollectionMetrics(meterRegistry, def.getName()),
+			this.searchCaches.get(def.getName()),
+			this.changeFeeds.get(def.getName())
+		));
+
+		MutableMap<String, CollectionImpl> all = Maps.mutable.empty();
+		keptCollections.forEachKeyValue(all::put);
+		created.forEachKeyValue(all::put);
+		this.collections = all.toImmutable();
+
+		/*
+		 * Collections whose schema has changed are migrated in the
+		 * background, in the same order every time so that a migration
+		 * interrupted by a restart is the first to continue.
+		 */
+		var pending = Lists.mutable.<SchemaMigrations.Migration>empty();
+		for(var collection : collections.valuesView().toSortedListBy(c -> c.getDefinition().getName()))
+		{
+			var def = collection.getDefinition();
+			var version = versions.update(def.getName(), def);
+			if(! version.isMigrated())
+			{
+				pending.add(new SchemaMigrations.Migration(collection, version, meterRegistry));
+			}
+		}
+
+		versions.save();
+
+		this.migrations = new SchemaMigrations(versions, pending, migrationRateLimit);
 	}
 
 	@Override
@@ -85,49 +242,468 @@ public class StorageImpl
 	@Override
 	public Collection get(String id)
 	{
-		return collections.get(id);
+		var current = successor;
+		return current == null ? collections.get(id) : current.get(id);
 	}
 
 	@Override
 	public void close()
 	{
-		silo.close();
+		migrations.stop();
+
+		if(! retired)
+		{
+			changeFeeds.each(ChangeFeed::close);
+			searchCaches.each(SearchCache::close);
+			silo.close();
+		}
 	}
 
 	@Override
-	public Transactions transactions()
+	public StorageTransactions transactions()
 	{
-		return silo.transactions();
+		return new StorageTransactionsImpl(silo.get().transactions());
 	}
 
-	public static RichIterable<CollectionDef<Long, StoredObjectValue>> generateCollectionDefinitions(
-		Model model
+	@Override
+	public Mono<Void> snapshot(Path directory)
+	{
+		return silo.use(Mono.<Void>fromRunnable(() -> {
+			try
+			{
+				new SnapshotStore(directory).write(
+					silo.get()::createSnapshot,
+					path.resolve(DICTIONARY),
+					versions,
+					snapshotRateLimit
+				);
+			}
+			catch(IOException e)
+			{
+				throw new com.circumgraph.storage.StorageException("Could not create snapshot; " + e.getMessage(), e);
+			}
+		})).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	@Override
+	public ListIterable<? extends MigrationProgress> getMigrations()
+	{
+		return migrations.getMigrations();
+	}
+
+	@Override
+	public Mono<Void> awaitMigrations()
+	{
+		return migrations.await();
+	}
+
+	@Override
+	public Mono<Storage> reload(Model newModel)
+	{
+		return Mono.defer(() -> {
+			if(retired)
+			{
+				return Mono.error(new com.circumgraph.storage.StorageException("Storage has already been reloaded"));
+			}
+
+			/*
+			 * Collections where nothing they use has changed are kept, and
+			 * only the codecs of other collections are replaced.
+			 */
+			var unchanged = findUnchanged(model, newModel);
+			var changedDefs = newModel.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
+				.get()
+				.getImplementors()
+				.reject(def -> unchanged.contains(def.getName()));
+
+			migrations.stop();
+			retired = true;
+
+			if(isStoredAlike(model, newModel))
+			{
+				/*
+				 * Silo fixes collections and their indexes when opened, but as
+				 * nothing that affects them has changed the silo is kept.
+				 */
+				return Mono.fromCallable(() -> {
+					var dictionary = SchemaDictionary.open(path.resolve(DICTIONARY), newModel);
+					var newCodecs = generateCodecs(newModel, dictionary, changedDefs);
+					newCodecs.forEachKeyValue((name, codec) -> codecs.get(name).setDelegate(codec));
+
+					return createReloaded(
+						newModel,
+						silo,
+						codecs,
+						collections.select((name, collection) -> unchanged.contains(name))
+					);
+				}).subscribeOn(Schedulers.boundedElastic());
+			}
+
+			/*
+			 * The silo needs to be opened with the new collections. Running
+			 * operations are allowed to finish before it is closed and
+			 * collections that have not changed are moved to the new silo.
+			 */
+			return silo.close()
+				.then(Mono.fromCallable(() -> {
+					var dictionary = SchemaDictionary.open(path.resolve(DICTIONARY), newModel);
+					var newCodecs = generateCodecs(newModel, dictionary, changedDefs)
+						.collectValues((name, codec) -> new ReloadableObjectCodec(codec));
+
+					return codecs.select((name, codec) -> unchanged.contains(name))
+						.newWithAllKeyValues(newCodecs.keyValuesView());
+				}).subscribeOn(Schedulers.boundedElastic()))
+				.flatMap(newCodecs -> openSilo(path, newModel, newCodecs)
+					.flatMap(newSilo -> Mono.fromCallable(() -> createReloaded(
+						newModel,
+						newSilo,
+						newCodecs,
+						collections.select((name, collection) -> unchanged.contains(name))
+							.collectValues((name, collection) -> collection.rebind(newSilo, newSilo.get().getCollection(collectionRef(name))))
+					)))
+				);
+		}).cast(Storage.class);
+	}
+
+	/**
+	 * Create the storage that replaces this storage after a reload.
+	 *
+	 * @param newModel
+	 * @param newSilo
+	 * @param newCodecs
+	 * @param kept
+	 *   collections that are kept as they have not changed
+	 * @return
+	 */
+	private StorageImpl createReloaded(
+		Model newModel,
+		SharedSilo newSilo,
+		ImmutableMap<String, ReloadableObjectCodec> newCodecs,
+		MapIterable<String, CollectionImpl> kept
 	)
+		throws IOException
 	{
-		ValueSerializers serializers = new ValueSerializers(model);
-		return model.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
+		// Cached results may contain objects decoded using the old model
+		searchCaches.each(SearchCache::invalidateAll);
+
+		var storage = new StorageImpl(
+			newModel,
+			path,
+			newSilo,
+			versions,
+			newCodecs,
+			changeFeeds,
+			searchCaches,
+			kept,
+			meterRegistry,
+			searchCacheSize,
+			snapshotRateLimit,
+			migrationRateLimit
+		);
+
+		// Release what belongs to collections that have been removed
+		changeFeeds.forEachKeyValue((name, feed) -> {
+			if(storage.collections.containsKey(name)) return;
+
+			feed.close();
+			var cache = searchCaches.get(name);
+			if(cache != null) cache.close();
+		});
+
+		successor = storage;
+		storage.startMigrations();
+		return storage;
+	}
+
+	/**
+	 * Start migrating collections whose schema has changed.
+	 */
+	public void startMigrations()
+	{
+		migrations.start();
+	}
+
+	/**
+	 * Check if two models result in the same collections, with objects
+	 * stored and indexed in the same way.
+	 *
+	 * @param current
+	 * @param updated
+	 * @return
+	 */
+	private static boolean isStoredAlike(Model current, Model updated)
+	{
+		var currentDefs = current.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
 			.get()
 			.getImplementors()
+			.toMap(StructuredDef::getName, def -> def);
+
+		var updatedDefs = updated.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
+			.get()
+			.getImplementors();
+
+		if(currentDefs.size() != updatedDefs.size())
+		{
+			return false;
+		}
+
+		return updatedDefs.allSatisfy(def -> {
+			var currentDef = currentDefs.get(def.getName());
+			return currentDef != null
+				&& SchemaVersions.fingerprint(currentDef).equals(SchemaVersions.fingerprint(def));
+		});
+	}
+
+	/**
+	 * Find the collections that are unchanged between two models. A
+	 * collection is unchanged if every type it uses, directly or via its
+	 * fields, is the same in both models.
+	 *
+	 * @param current
+	 * @param updated
+	 * @return
+	 *   names of unchanged collections
+	 */
+	private static SetIterable<String> findUnchanged(Model current, Model updated)
+	{
+		return updated.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
+			.get()
+			.getImplementors()
+			.select(def -> {
+				var names = Sets.mutable.<String>empty();
+				collectTypeNames(def, names);
+				return names.allSatisfy(name -> current.get(name).equals(updated.get(name)));
+			})
+			.collect(StructuredDef::getName);
+	}
+
+	/**
+	 * Collect the names of a type and all of the types it uses.
+	 *
+	 * @param def
+	 * @param names
+	 */
+	private static void collectTypeNames(TypeDef def, MutableSet<String> names)
+	{
+		if(def instanceof NonNullDef nonNull)
+		{
+			collectTypeNames(nonNull.getType(), names);
+			return;
+		}
+		else if(def instanceof ListDef listDef)
+		{
+			collectTypeNames(listDef.getItemType(), names);
+			return;
+		}
+
+		if(! names.add(def.getName())) return;
+
+		if(def instanceof StructuredDef structuredDef)
+		{
+			structuredDef.getFields().each(field -> collectTypeNames(field.getType(), names));
+			structuredDef.getImplements().each(i -> collectTypeNames(i, names));
+
+			if(def instanceof InterfaceDef interfaceDef)
+			{
+				interfaceDef.getImplementors().each(i -> collectTypeNames(i, names));
+			}
+		}
+		else if(def instanceof UnionDef unionDef)
+		{
+			unionDef.getTypes().each(t -> collectTypeNames(t, names));
+		}
+	}
+
+	/**
+	 * Generate the codecs used to store objects in every collection.
+	 *
+	 * @param model
+	 * @param dictionary
+	 * @return
+	 */
+	public static ImmutableMap<String, ObjectCodecImpl> generateCodecs(
+		Model model,
+		SchemaDictionary dictionary
+	)
+	{
+		var defs = model.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
+			.get()
+			.getImplementors();
+
+		return generateCodecs(model, dictionary, defs);
+	}
+
+	/**
+	 * Generate the codecs used to store objects in some of the collections.
+	 *
+	 * @param model
+	 * @param dictionary
+	 * @param defs
+	 *   definitions of the collections to generate codecs for
+	 * @return
+	 */
+	public static ImmutableMap<String, ObjectCodecImpl> generateCodecs(
+		Model model,
+		SchemaDictionary dictionary,
+		RichIterable<? extends StructuredDef> defs
+	)
+	{
+		/*
+		 * Serializers are shared between collections via the model, so
+		 * codecs are created one at a time.
+		 */
+		long start = System.currentTimeMillis();
+		ValueSerializers serializers = new ValueSerializers(model);
+		ValueSerializers ordinalSerializers = new ValueSerializers(model, dictionary);
+
+		ImmutableMap<String, ObjectCodecImpl> result = defs.toMap(StructuredDef::getName, def -> new ObjectCodecImpl(
+			model,
+			dictionary,
+			serializers.resolvePolymorphic(
+				def,
+				Lists.immutable.of(def),
+				false
+			),
+			ordinalSerializers.resolvePolymorphic(
+				def,
+				Lists.immutable.of(def),
+				false
+			)
+		)).toImmutable();
+
+		logger.info("Codec creation of {} collections took {} ms", defs.size(), System.currentTimeMillis() - start);
+		return result;
+	}
+
+	public static RichIterable<CollectionDef<Long, StoredObjectValue>> generateCollectionDefinitions(
+		Model model,
+		MapIterable<String, ? extends ObjectCodec<StoredObjectValue>> codecs
+	)
+	{
+		var defs = model.get(StorageSchema.ENTITY_NAME, InterfaceDef.class)
+			.get()
+			.getImplementors();
+
+		return collectInParallel("Index generation", defs, def -> CollectionDef.create(StoredObjectValue.class, "collection:" + def.getName())
+			.withId(Long.class, StorageImpl::getID)
+			.withCodec(codecs.get(def.getName()))
+			.addIndex(generateIndexDef(model, def))
+			.build()
+		).valuesView();
+	}
+
+	/**
+	 * Open the silo containing the collections of a model.
+	 *
+	 * @param path
+	 * @param model
+	 * @param codecs
+	 * @return
+	 */
+	private static Mono<SharedSilo> openSilo(
+		Path path,
+		Model model,
+		MapIterable<String, ? extends ObjectCodec<StoredObjectValue>> codecs
+	)
+	{
+		return Mono.defer(() -> {
+			var defs = generateCollectionDefinitions(model, codecs);
+
+			long siloStart = System.currentTimeMillis();
+			return LocalSilo.open(path)
+				.addCollections(defs)
+				.start()
+				.doOnNext(silo -> logger.info(
+					"Opened {} collections and their indexes in {} ms",
+					defs.size(),
+					System.currentTimeMillis() - siloStart
+				))
+				.map(SharedSilo::new);
+		});
+	}
+
+	/**
+	 * Get the reference used to get the Silo collection of a collection.
+	 *
+	 * @param name
+	 * @return
+	 */
+	private static CollectionRef<Long, StoredObjectValue> collectionRef(String name)
+	{
+		return CollectionRef.create("collection:" + name, Long.class, StoredObjectValue.class);
+	}
+
+	/**
+	 * Apply a function to every collection on the pool of threads used
+	 * during startup, so that the time to open a storage scales with the
+	 * number of cores rather than the number of collections. The function
+	 * must not resolve anything that is shared between collections. The
+	 * time taken is logged per collection.
+	 *
+	 * @param task
+	 *   description of the work, used when logging
+	 * @param defs
+	 *   definitions of the collections
+	 * @param function
+	 *   function to apply to every definition
+	 * @return
+	 *   map from the name of every collection to the result
+	 */
+	private static <R> ImmutableMap<String, R> collectInParallel(
+		String task,
+		RichIterable<? extends StructuredDef> defs,
+		Function<StructuredDef, R> function
+	)
+	{
+		long start = System.currentTimeMillis();
+
+		ImmutableMap<String, R> result = defs.toList()
+			.asParallel(STARTUP_EXECUTOR, 1)
 			.collect(def -> {
-				var codec = new ObjectCodecImpl(
-					serializers.resolvePolymorphic(
-						def,
-						Lists.immutable.of(def),
-						false
-					)
-				);
+				long collectionStart = System.currentTimeMillis();
+				var value = function.apply(def);
+				logger.debug("{} of {} took {} ms", task, def.getName(), System.currentTimeMillis() - collectionStart);
+				return Tuples.pair(def.getName(), value);
+			})
+			.toList()
+			.toMap(Pair::getOne, Pair::getTwo)
+			.toImmutable();
+
+		logger.info(
+			"{} of {} collections took {} ms",
+			task,
+			defs.size(),
+			System.currentTimeMillis() - start
+		);
+
+		return result;
+	}
+
+	private static ExecutorService createStartupExecutor()
+	{
+		int threads = Runtime.getRuntime().availableProcessors();
+		var counter = new AtomicInteger();
+
+		var executor = new ThreadPoolExecutor(
+			threads,
+			threads,
+			30,
+			TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(),
+			r -> {
+				var thread = new Thread(r, "circumgraph-startup-" + counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		);
 
-				return CollectionDef.create(StoredObjectValue.class, "collection:" + def.getName())
-					.withId(Long.class, StorageImpl::getID)
-					.withCodec(codec)
-					.addIndex(generateIndexDef(model, def))
-					.build();
-			});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
 	}
 
 	public static Long getID(StructuredValue value)
 	{
-		SimpleValue id = (SimpleValue) value.getFields().get("id");
+		SimpleValue id = (SimpleValue) value.getField("id").orElse(null);
 		if(id == null)
 		{
 			throw new StorageException("No identifier present");
@@ -138,7 +714,7 @@ public class StorageImpl
 
 	public static Builder open(Model model, Path path)
 	{
-		return new BuilderImpl(model, path);
+		return new BuilderImpl(model, path, Metrics.globalRegistry, 0, DEFAULT_SNAPSHOT_RATE_LIMIT, null, DEFAULT_MIGRATION_RATE_LIMIT);
 	}
 
 	public static class BuilderImpl
@@ -146,25 +722,147 @@ public class StorageImpl
 	{
 		private final Model model;
 		private final Path path;
+		private final MeterRegistry meterRegistry;
+		private final long searchCacheSize;
+		private final long snapshotRateLimit;
+		private final Path restoreFrom;
+		private final long migrationRateLimit;
 
 		public BuilderImpl(
 			Model model,
-			Path path
+			Path path,
+			MeterRegistry meterRegistry,
+			long searchCacheSize,
+			long snapshotRateLimit,
+			Path restoreFrom,
+			long migrationRateLimit
 		)
 		{
 			this.model = model;
 			this.path = path;
+			this.meterRegistry = meterRegistry;
+			this.searchCacheSize = searchCacheSize;
+			this.snapshotRateLimit = snapshotRateLimit;
+			this.restoreFrom = restoreFrom;
+			this.migrationRateLimit = migrationRateLimit;
+		}
+
+		@Override
+		public Builder withMeterRegistry(MeterRegistry registry)
+		{
+			return new BuilderImpl(model, path, registry, searchCacheSize, snapshotRateLimit, restoreFrom, migrationRateLimit);
+		}
+
+		@Override
+		public Builder withSearchCache(long maximumHits)
+		{
+			return new BuilderImpl(model, path, meterRegistry, maximumHits, snapshotRateLimit, restoreFrom, migrationRateLimit);
+		}
+
+		@Override
+		public Builder withSnapshotRateLimit(long bytesPerSecond)
+		{
+			return new BuilderImpl(model, path, meterRegistry, searchCacheSize, bytesPerSecond, restoreFrom, migrationRateLimit);
+		}
+
+		@Override
+		public Builder withRestoreFrom(Path directory)
+		{
+			return new BuilderImpl(model, path, meterRegistry, searchCacheSize, snapshotRateLimit, directory, migrationRateLimit);
+		}
+
+		@Override
+		public Builder withMigrationRateLimit(long objectsPerSecond)
+		{
+			return new BuilderImpl(model, path, meterRegistry, searchCacheSize, snapshotRateLimit, restoreFrom, objectsPerSecond);
 		}
 
 		@Override
 		public Mono<Storage> start()
 		{
-			return Mono.fromSupplier(() -> StorageImpl.generateCollectionDefinitions(model))
-				.flatMap(defs -> LocalSilo.open(path)
-					.addCollections(defs)
-					.start()
-				)
-				.map(silo -> new StorageImpl(model, silo));
+			var snapshots = restoreFrom == null ? null : new SnapshotStore(restoreFrom);
+
+			return Mono.fromCallable(() -> {
+				if(snapshots != null)
+				{
+					prepareRestore(snapshots);
+				}
+
+				var dictionary = SchemaDictionary.open(path.resolve(DICTIONARY), model);
+				return generateCodecs(model, dictionary)
+					.collectValues((name, codec) -> new ReloadableObjectCodec(codec));
+			})
+				.flatMap(codecs -> openSilo(path, model, codecs)
+					.flatMap(silo -> snapshots == null ? Mono.just(silo) : Mono.fromCallable(() -> {
+						silo.get().installSnapshot(snapshots.read());
+						return silo;
+					}).subscribeOn(Schedulers.boundedElastic()))
+					.map(silo -> open(silo, codecs))
+				);
+		}
+
+		private StorageImpl open(
+			SharedSilo silo,
+			ImmutableMap<String, ReloadableObjectCodec> codecs
+		)
+		{
+			try
+			{
+				var storage = new StorageImpl(
+					model,
+					path,
+					silo,
+					SchemaVersions.open(path.resolve(SCHEMA_VERSIONS)),
+					codecs,
+					Maps.immutable.empty(),
+					Maps.immutable.empty(),
+					Maps.immutable.empty(),
+					meterRegistry,
+					searchCacheSize,
+					snapshotRateLimit,
+					migrationRateLimit
+				);
+
+				storage.startMigrations();
+				return storage;
+			}
+			catch(IOException e)
+			{
+				silo.close();
+				throw new com.circumgraph.storage.StorageException("Could not open schema versions; " + e.getMessage(), e);
+			}
+		}
+
+		/**
+		 * Verify that a snapshot can be restored and copy the dictionary of
+		 * the snapshot so that the data is read using the same ordinals. The
+		 * schema versions are copied so that collections are only migrated
+		 * if the schema has changed since the snapshot was taken.
+		 *
+		 * @param snapshots
+		 * @throws IOException
+		 */
+		private void prepareRestore(SnapshotStore snapshots)
+			throws IOException
+		{
+			if(! snapshots.exists())
+			{
+				throw new com.circumgraph.storage.StorageException("No snapshot found in " + restoreFrom);
+			}
+
+			if(Files.isDirectory(path))
+			{
+				try(var files = Files.list(path))
+				{
+					if(files.findAny().isPresent())
+					{
+						throw new com.circumgraph.storage.StorageException("Can not restore snapshot, " + path + " is not empty");
+					}
+				}
+			}
+
+			snapshots.restoreDictionary(path.resolve(DICTIONARY));
+			snapshots.restoreVersions(path.resolve(SCHEMA_VERSIONS));
 		}
 	}
 
@@ -180,10 +878,27 @@ public class StorageImpl
 		Model model,
 		StructuredDef def
 	)
+	{
+		return SearchIndexDef.create(StoredObjectValue.class, "main")
+			.addFields(generateIndexFields(model, def))
+			.build();
+	}
+
+	/**
+	 * Generate the fields that are indexed for the given {@link StructuredDef}.
+	 *
+	 * @param model
+	 * @param def
+	 * @return
+	 */
+	public static ListIterable<SearchFieldDef<StoredObjectValue>> generateIndexFields(
+		Model model,
+		StructuredDef def
+	)
 	{
 		var fields = Lists.mutable.<SearchFieldDef<StoredObjectValue>>empty();
 
-		ValueGenerator gen = (root, consumer) -> consumer.accept(root);
+		var gen = ValuePath.root();
 
 		var rootPath = QueryPath.root(def);
 
@@ -199,9 +914,126 @@ public class StorageImpl
 			fields::add
 		);
 
-		return SearchIndexDef.create(StoredObjectValue.class, "main")
-			.addFields(fields)
-			.build();
+		// Index the id so it can be used to break ties in keyset pagination
+		fields.add(SearchFieldDef.create(StoredObjectValue.class, getIdSortField(def))
+			.withType(SearchFieldType.forLong().build())
+			.withSupplier(StorageImpl::getID)
+			.withSortable(true)
+			.build()
+		);
+
+		return fields;
+	}
+
+	/**
+	 * Get the name of the field in the index that contains the id of an
+	 * object in a sortable form.
+	 *
+	 * @param def
+	 * @return
+	 */
+	public static String getIdSortField(StructuredDef def)
+	{
+		return QueryPath.root(def).toIndexName() + ".__id";
+	}
+
+	/**
+	 * Generate functions to extract values of fields that can be used for
+	 * keyset pagination. This is limited to sortable fields directly in the
+	 * entity that are non-null, as objects missing a value would not be
+	 * matched when continuing from a cursor. Full text fields are also
+	 * skipped as they can not be matched against exact values.
+	 *
+	 * @param def
+	 * @return
+	 */
+	public static ImmutableMap<String, Function<StoredObjectValue, Object>> generateKeysetFields(
+		StructuredDef def
+	)
+	{
+		MutableMap<String, Function<StoredObjectValue, Object>> result = Maps.mutable.empty();
+		var rootPath = QueryPath.root(def);
+
+		for(var field : def.getFields())
+		{
+			if(! StorageModel.isIndexed(field) || ! StorageModel.isSortable(field)) continue;
+			if(! (field.getType() instanceof NonNullDef.Output nonNull)) continue;
+			if(! (nonNull.getType() instanceof SimpleValueDef)) continue;
+
+			var indexer = StorageModel.getIndexer(field);
+			if(indexer.isEmpty()
+				|| indexer.get() instanceof FullTextStringValueIndexer
+				|| indexer.get() instanceof TypeAheadStringValueIndexer)
+			{
+				continue;
+			}
+
+			var name = field.getName();
+			result.put(
+				rootPath.field(name).toIndexName(),
+				value -> extractValue(value.getField(name).orElse(null))
+			);
+		}
+
+		return result.toImmutable();
+	}
+
+	/**
+	 * Generate the fields that can be used for facets, mapped to a function
+	 * that converts values counted by the index into values of the field.
+	 * This is limited to indexed fields directly in the entity that contain
+	 * simple values or references, either directly or in a list. Full text
+	 * fields are skipped as their values are not exact.
+	 *
+	 * @param def
+	 * @return
+	 */
+	public static ImmutableMap<String, Function<Object, Object>> generateFacetFields(
+		StructuredDef def
+	)
+	{
+		MutableMap<String, Function<Object, Object>> result = Maps.mutable.empty();
+		var rootPath = QueryPath.root(def);
+
+		for(var field : def.getFields())
+		{
+			if(! StorageModel.isIndexed(field)) continue;
+
+			var indexer = StorageModel.getIndexer(field);
+			if(indexer.isPresent()
+				&& (indexer.get() instanceof FullTextStringValueIndexer
+				|| indexer.get() instanceof TypeAheadStringValueIndexer))
+			{
+				continue;
+			}
+
+			var type = field.getType();
+			if(type instanceof NonNullDef.Output nonNull)
+			{
+				type = nonNull.getType();
+			}
+
+			if(type instanceof ListDef.Output listDef)
+			{
+				type = listDef.getItemType();
+				if(type instanceof NonNullDef.Output nonNull)
+				{
+					type = nonNull.getType();
+				}
+			}
+
+			if(type instanceof SimpleValueDef)
+			{
+				result.put(rootPath.field(field.getName()).toIndexName(), Function.identity());
+			}
+			else if(type instanceof StructuredDef structuredDef && structuredDef.findImplements(StorageSchema.ENTITY_NAME))
+			{
+				// References are indexed using their decoded identifier
+				result.put(rootPath.field(field.getName()).toIndexName(), id -> AutoGeneratedIds.encode((Long) id));
+			}
+		}
+
+		return result.toImmutable();
 	}
 
 	/**
@@ -222,7 +1054,7 @@ public class StorageImpl
 		TypeDef def,
 		QueryPath path,
 		boolean multiple,
-		ValueGenerator generator,
+		ValuePath generator,
 
 		Consumer<SearchFieldDef<StoredObjectValue>> fieldReceiver
 	)
@@ -249,10 +1081,7 @@ public class StorageImpl
 				path,
 				true,
 
-				(root, consumer) -> generator.generate(root, v -> {
-					var listValue = (ListValue) v;
-					listValue.items().forEach(consumer);
-				}),
+				generator.listItems(),
 
 				fieldReceiver
 			);
@@ -338,7 +1167,7 @@ public class StorageImpl
 
 						if(! fields.add(fieldPath.toIndexName())) continue;
 
-						ValueGenerator fieldGenerator = createFieldGenerator(generator, name);
+						var fieldGenerator = generator.field(name);
 
 						collectIndexedFields(
 							model,
@@ -366,7 +1195,7 @@ public class StorageImpl
 				for(var fieldDef : structuredDef.getFields())
 				{
 					var name = fieldDef.getName();
-					ValueGenerator fieldGenerator = createFieldGenerator(generator, name);
+					var fieldGenerator = generator.field(name);
 
 					collectIndexedFields(
 						model,
@@ -433,7 +1262,7 @@ public class StorageImpl
 
 						if(! fields.add(fieldPath.toIndexName())) continue;
 
-						ValueGenerator fieldGenerator = createFieldGenerator(generator, name);
+						var fieldGenerator = generator.field(name);
 
 						collectIndexedFields(
 							model,
@@ -455,7 +1284,7 @@ public class StorageImpl
 	private static void collectSimpleValueIndexer(
 		QueryPath path,
 		boolean multiple,
-		ValueGenerator generator,
+		ValuePath generator,
 		Consumer<SearchFieldDef<StoredObjectValue>> fieldReceiver,
 		ValueIndexer indexer,
 		boolean sortable,
@@ -469,8 +1298,9 @@ public class StorageImpl
 				.withHighlighting(highlightable)
 				.collection()
 				.withSupplier(value -> {
-					var list = Lists.mutable.empty();
-					generator.generate(value, v -> list.add(extractValue(v)));
+					var list = Lists.mutable.<Object>empty();
+					generator.collect(value, list);
+					list.replaceAll(StorageImpl::extractValue);
 					return (Iterable) list;
 				})
 				.build();
@@ -482,11 +1312,7 @@ public class StorageImpl
 			var searchField = SearchFieldDef.create(StoredObjectValue.class, path.toIndexName())
 				.withType((SearchFieldType<Object>) indexer.getSearchFieldType())
 				.withHighlighting(highlightable)
-				.withSupplier(value -> {
-					var list = Lists.mutable.empty();
-					generator.generate(value, v -> list.add(extractValue(v)));
-					return (Object) list.getFirst();
-				})
+				.withSupplier(value -> extractValue(generator.first(value)))
 				.withSortable(sortable)
 				.build();
 
@@ -495,7 +1321,7 @@ public class StorageImpl
 	}
 
 	private static SearchFieldDef<StoredObjectValue> createTypenameField(
-		ValueGenerator generator,
+		ValuePath generator,
 		QueryPath path,
 		OutputTypeDef def
 	)
@@ -503,16 +1329,8 @@ public class StorageImpl
 		return SearchFieldDef.create(StoredObjectValue.class, path.typename().toIndexName())
 			.withType(SearchFieldType.forString().token().build())
 			.withSupplier(value -> {
-				if(value == null) return null;
-
-				var list = Lists.mutable.<String>empty();
-				generator.generate(value, v -> {
-					if(def.isAssignableFrom(v.getDefinition()))
-					{
-						list.add(v.getDefinition().getName());
-					}
-				});
-				return (String) list.getFirst();
+				var matching = generator.first(value, def);
+				return matching == null ? null : matching.getDefinition().getName();
 			})
 			.build();
 	}
@@ -533,24 +1351,4 @@ public class StorageImpl
 		return null;
 	}
 
-	interface ValueGenerator
-	{
-		void generate(Value root, Consumer<Value> consumer);
-	}
-
-	private static ValueGenerator createFieldGenerator(ValueGenerator generator, String name)
-	{
-		return (root, consumer) -> generator.generate(
-			root,
-			v -> {
-				if(! (v instanceof StructuredValue sv)) return;
-
-				var value = sv.getFields().get(name);
-				if(value != null)
-				{
-					consumer.accept(value);
-				}
-			}
-		);
-	}
 }
@@ -0,0 +1,63 @@
+package com.circumgraph.storage.internal;
+
+import com.circumgraph.storage.StorageTransaction;
+import com.circumgraph.storage.WriteTracker;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.l4.silo.Transaction;
+
+/**
+ * Implementation of {@link StorageTransaction} on top of a Silo
+ * {@link Transaction}. Work is run with the transaction itself and a
+ * {@link WriteTracker} in its context, the tracker is completed when the
+ * transaction is committed or rolled back.
+ */
+public class StorageTransactionImpl
+	implements StorageTransaction
+{
+	private final Transaction tx;
+	private final WriteTracker writes;
+
+	public StorageTransactionImpl(Transaction tx)
+	{
+		this.tx = tx;
+		this.writes = WriteTracker.create();
+	}
+
+	@Override
+	public <T> Mono<T> wrap(Mono<T> mono)
+	{
+		return writes.wrap(tx.wrap(mono))
+			.contextWrite(ctx -> ctx.put(StorageTransaction.class, this));
+	}
+
+	@Override
+	public <T> Flux<T> wrap(Flux<T> flux)
+	{
+		return writes.wrap(tx.wrap(flux))
+			.contextWrite(ctx -> ctx.put(StorageTransaction.class, this));
+	}
+
+	@Override
+	public Mono<Void> commit()
+	{
+		return tx.commit()
+			.then(Mono.fromRunnable(() -> writes.complete(true)))
+			.doFinally(s -> writes.complete(false))
+			.then();
+	}
+
+	@Override
+	public Mono<Void> rollback()
+	{
+		return tx.rollback()
+			.doFinally(s -> writes.complete(false));
+	}
+
+	@Override
+	public String toString()
+	{
+		return "StorageTransaction{tx=" + tx + "}";
+	}
+}
@@ -0,0 +1,68 @@
+package com.circumgraph.storage.internal;
+
+import com.circumgraph.storage.StorageTransaction;
+import com.circumgraph.storage.StorageTransactions;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.l4.silo.Transactions;
+
+/**
+ * Implementation of {@link StorageTransactions} on top of the transactions
+ * of a silo.
+ */
+public class StorageTransactionsImpl
+	implements StorageTransactions
+{
+	private final Transactions txs;
+
+	public StorageTransactionsImpl(Transactions txs)
+	{
+		this.txs = txs;
+	}
+
+	@Override
+	public Mono<StorageTransaction> newTransaction()
+	{
+		return txs.newTransaction()
+			.map(StorageTransactionImpl::new);
+	}
+
+	@Override
+	public <T> Mono<T> transactional(Mono<T> mono)
+	{
+		return Mono.deferContextual(ctx -> {
+			if(ctx.hasKey(StorageTransaction.class))
+			{
+				return txs.transactional(mono);
+			}
+
+			return Mono.usingWhen(
+				newTransaction(),
+				tx -> tx.wrap(mono),
+				StorageTransaction::commit,
+				(tx, e) -> tx.rollback(),
+				StorageTransaction::rollback
+			);
+		});
+	}
+
+	@Override
+	public <T> Flux<T> transactional(Flux<T> flux)
+	{
+		return Flux.deferContextual(ctx -> {
+			if(ctx.hasKey(StorageTransaction.class))
+			{
+				return txs.transactional(flux);
+			}
+
+			return Flux.usingWhen(
+				newTransaction(),
+				tx -> tx.wrap(flux),
+				StorageTransaction::commit,
+				(tx, e) -> tx.rollback(),
+				StorageTransaction::rollback
+			);
+		});
+	}
+}
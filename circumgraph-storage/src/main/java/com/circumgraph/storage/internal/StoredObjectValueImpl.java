@@ -10,23 +10,69 @@ import com.circumgraph.storage.StoredObjectValue;
 import com.circumgraph.storage.StructuredValue;
 import com.circumgraph.storage.Value;
 
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.map.MapIterable;
-
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.map.mutable.ConcurrentHashMap;
+
+/**
+ * {@link StoredObjectValue} that is either backed by a decoded value or
+ * decoded lazily. Values backed by {@link EncodedFields} decode every field
+ * separately the first time it is accessed, so fields that are never used
+ * are never decoded.
+ */
 public class StoredObjectValueImpl
 	implements StoredObjectValue
 {
 	private final long id;
+	private final StructuredDef definition;
+
+	private final EncodedFields encodedFields;
+	private final MutableMap<String, Optional<? extends Value>> decodedFields;
 
-	private StructuredValue value;
+	private volatile StructuredValue value;
 	private Supplier<StructuredValue> supplier;
 
+	/**
+	 * Create a value where every field is decoded when first needed. The
+	 * identifier and definition are available without decoding.
+	 *
+	 * @param id
+	 * @param definition
+	 * @param encodedFields
+	 */
 	public StoredObjectValueImpl(
 		long id,
+		StructuredDef definition,
+		EncodedFields encodedFields
+	)
+	{
+		this.id = id;
+		this.definition = Objects.requireNonNull(definition);
+		this.encodedFields = Objects.requireNonNull(encodedFields);
+		this.decodedFields = ConcurrentHashMap.newMap();
+	}
+
+	/**
+	 * Create a value that is decoded as a whole when first needed. The
+	 * identifier and definition are available without decoding.
+	 *
+	 * @param id
+	 * @param definition
+	 * @param supplier
+	 */
+	public StoredObjectValueImpl(
+		long id,
+		StructuredDef definition,
 		Supplier<StructuredValue> supplier
 	)
 	{
 		this.id = id;
-		this.supplier = supplier;
+		this.definition = Objects.requireNonNull(definition);
+		this.supplier = Objects.requireNonNull(supplier);
+		this.encodedFields = null;
+		this.decodedFields = null;
 	}
 
 	public StoredObjectValueImpl(
@@ -34,7 +80,10 @@ public class StoredObjectValueImpl
 	)
 	{
 		this.value = Objects.requireNonNull(value);
+		this.definition = value.getDefinition();
 		this.id = value.getField("id", SimpleValue.class).get().asID();
+		this.encodedFields = null;
+		this.decodedFields = null;
 	}
 
 	@Override
@@ -45,18 +94,53 @@ public class StoredObjectValueImpl
 
 	private StructuredValue get()
 	{
-		if(value == null)
+		var current = value;
+		if(current == null)
 		{
-			value = supplier.get();
+			synchronized(this)
+			{
+				current = value;
+				if(current == null)
+				{
+					if(encodedFields != null)
+					{
+						MutableMap<String, Value> values = Maps.mutable.empty();
+						for(var name : encodedFields.getNames())
+						{
+							decode(name).ifPresent(v -> values.put(name, v));
+						}
+
+						current = value = StructuredValue.create(definition, values);
+					}
+					else
+					{
+						current = value = supplier.get();
+
+						// Release the encoded data
+						supplier = null;
+					}
+				}
+			}
 		}
 
-		return value;
+		return current;
+	}
+
+	/**
+	 * Decode a single field, or return it if it has already been decoded.
+	 *
+	 * @param name
+	 * @return
+	 */
+	private Optional<? extends Value> decode(String name)
+	{
+		return decodedFields.getIfAbsentPut(name, () -> Optional.ofNullable(encodedFields.decode(name)));
 	}
 
 	@Override
 	public StructuredDef getDefinition()
 	{
-		return get().getDefinition();
+		return definition;
 	}
 
 	@Override
@@ -68,19 +152,31 @@ public class StoredObjectValueImpl
 	@Override
 	public Optional<? extends Value> getField(String name)
 	{
+		if(encodedFields != null && value == null)
+		{
+			return decode(name);
+		}
+
 		return get().getField(name);
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public <V extends Value> Optional<? extends V> getField(String name, Class<V> type)
 	{
+		if(encodedFields != null && value == null)
+		{
+			var field = decode(name).orElse(null);
+			return type.isInstance(field) ? Optional.of((V) field) : Optional.empty();
+		}
+
 		return get().getField(name, type);
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return Objects.hash(id, supplier, value);
+		return Long.hashCode(id);
 	}
 
 	@Override
@@ -90,7 +186,7 @@ public class StoredObjectValueImpl
 		if (obj == null) return false;
 		if (getClass() != obj.getClass()) return false;
 		StoredObjectValueImpl other = (StoredObjectValueImpl) obj;
-		return id == other.id && Objects.equals(supplier, other.supplier) && Objects.equals(value, other.value);
+		return id == other.id && Objects.equals(get(), other.get());
 	}
 
 	@Override
@@ -98,4 +194,27 @@ public class StoredObjectValueImpl
 	{
 		return "StoredEntityValue{id=" + id + "}";
 	}
+
+	/**
+	 * Fields of an object that are kept encoded and can be decoded one at
+	 * a time.
+	 */
+	public interface EncodedFields
+	{
+		/**
+		 * Get the names of the fields that are available.
+		 *
+		 * @return
+		 */
+		RichIterable<String> getNames();
+
+		/**
+		 * Decode a single field.
+		 *
+		 * @param name
+		 * @return
+		 *   the value, or {@code null} if the field is not available
+		 */
+		Value decode(String name);
+	}
 }
@@ -0,0 +1,175 @@
+package com.circumgraph.storage.internal;
+
+import java.util.Arrays;
+
+import com.circumgraph.model.OutputTypeDef;
+import com.circumgraph.storage.ListValue;
+import com.circumgraph.storage.StructuredValue;
+import com.circumgraph.storage.Value;
+
+import org.eclipse.collections.api.list.MutableList;
+
+/**
+ * Path to values within a stored object, used to extract the values that
+ * are indexed. A path is built once per indexed field and is a flat list of
+ * steps that either pick a field of a {@link StructuredValue} or expand the
+ * items of a {@link ListValue}.
+ *
+ * Finding the first value does not allocate and collecting values only adds
+ * to the given receiver, making it cheap to run for every indexed field of
+ * every stored object.
+ */
+public class ValuePath
+{
+	private static final ValuePath ROOT = new ValuePath(new String[0]);
+
+	/**
+	 * Steps of this path, a field name to pick a field or {@code null} to
+	 * expand the items of a list.
+	 */
+	private final String[] steps;
+
+	private ValuePath(String[] steps)
+	{
+		this.steps = steps;
+	}
+
+	/**
+	 * Get a path that points to the field with the given name.
+	 *
+	 * @param name
+	 * @return
+	 */
+	public ValuePath field(String name)
+	{
+		return append(name);
+	}
+
+	/**
+	 * Get a path that points to the items of a list.
+	 *
+	 * @return
+	 */
+	public ValuePath listItems()
+	{
+		return append(null);
+	}
+
+	private ValuePath append(String step)
+	{
+		var result = Arrays.copyOf(steps, steps.length + 1);
+		result[steps.length] = step;
+		return new ValuePath(result);
+	}
+
+	/**
+	 * Get the first value this path points to.
+	 *
+	 * @param root
+	 * @return
+	 *   value or {@code null} if no value is present
+	 */
+	public Value first(Value root)
+	{
+		return first(root, 0, null);
+	}
+
+	/**
+	 * Get the first value this path points to that is of the given type.
+	 *
+	 * @param root
+	 * @param type
+	 *   type the value must be assignable to
+	 * @return
+	 *   value or {@code null} if no value is present
+	 */
+	public Value first(Value root, OutputTypeDef type)
+	{
+		return first(root, 0, type);
+	}
+
+	private Value first(Value value, int step, OutputTypeDef type)
+	{
+		if(value == null) return null;
+
+		if(step == steps.length)
+		{
+			return type == null || type.isAssignableFrom(value.getDefinition())
+				? value
+				: null;
+		}
+
+		var name = steps[step];
+		if(name == null)
+		{
+			if(! (value instanceof ListValue<?> listValue)) return null;
+
+			var items = listValue.items();
+			for(int i=0, n=items.size(); i<n; i++)
+			{
+				var result = first(items.get(i), step + 1, type);
+				if(result != null)
+				{
+					return result;
+				}
+			}
+
+			return null;
+		}
+
+		if(! (value instanceof StructuredValue structuredValue)) return null;
+
+		return first(structuredValue.getField(name).orElse(null), step + 1, type);
+	}
+
+	/**
+	 * Collect all of the values this path points to.
+	 *
+	 * @param root
+	 * @param receiver
+	 *   list that values are added to
+	 */
+	public void collect(Value root, MutableList<? super Value> receiver)
+	{
+		collect(root, 0, receiver);
+	}
+
+	private void collect(Value value, int step, MutableList<? super Value> receiver)
+	{
+		if(value == null) return;
+
+		if(step == steps.length)
+		{
+			receiver.add(value);
+			return;
+		}
+
+		var name = steps[step];
+		if(name == null)
+		{
+			if(! (value instanceof ListValue<?> listValue)) return;
+
+			var items = listValue.items();
+			for(int i=0, n=items.size(); i<n; i++)
+			{
+				collect(items.get(i), step + 1, receiver);
+			}
+
+			return;
+		}
+
+		if(! (value instanceof StructuredValue structuredValue)) return;
+
+		collect(structuredValue.getField(name).orElse(null), step + 1, receiver);
+	}
+
+	/**
+	 * Get the path pointing to the root value.
+	 *
+	 * @return
+	 */
+	public static ValuePath root()
+	{
+		return ROOT;
+	}
+}
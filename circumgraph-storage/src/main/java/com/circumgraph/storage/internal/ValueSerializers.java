@@ -47,14 +47,44 @@ public class ValueSerializers
 	@SuppressWarnings("rawtypes")
 	public static final MetadataKey<ValueSerializer> SERIALIZER = MetadataKey.create("storage:serializer", ValueSerializer.class);
 
+	@SuppressWarnings("rawtypes")
+	public static final MetadataKey<ValueSerializer> ORDINAL_SERIALIZER = MetadataKey.create("storage:ordinal-serializer", ValueSerializer.class);
+
 	private final Model model;
 	private final MapIterable<ScalarDef, ValueSerializer<SimpleValue>> scalars;
 
+	private final SchemaDictionary dictionary;
+	@SuppressWarnings("rawtypes")
+	private final MetadataKey<ValueSerializer> key;
+
+	/**
+	 * Create serializers that write type and field names.
+	 *
+	 * @param model
+	 */
 	public ValueSerializers(
 		Model model
 	)
+	{
+		this(model, null);
+	}
+
+	/**
+	 * Create serializers that write ordinals from the given dictionary
+	 * instead of type and field names.
+	 *
+	 * @param model
+	 * @param dictionary
+	 *   dictionary to use, or {@code null} to write names
+	 */
+	public ValueSerializers(
+		Model model,
+		SchemaDictionary dictionary
+	)
 	{
 		this.model = model;
+		this.dictionary = dictionary;
+		this.key = dictionary == null ? SERIALIZER : ORDINAL_SERIALIZER;
 
 		scalars = Scalars.instance()
 			.list()
@@ -65,13 +95,13 @@ public class ValueSerializers
 	{
 		if(def instanceof HasMetadata md)
 		{
-			var current = md.getMetadata(SERIALIZER);
+			var current = md.getMetadata(key);
 			if(current.isPresent())
 			{
 				return current.get();
 			}
 
-			md.setRuntimeMetadata(SERIALIZER, new DeferredValueSerializer(md));
+			md.setRuntimeMetadata(key, new DeferredValueSerializer(md, key));
 		}
 
 		ValueSerializer<?> serializer;
@@ -117,7 +147,7 @@ public class ValueSerializers
 
 		if(def instanceof HasMetadata md)
 		{
-			md.setRuntimeMetadata(SERIALIZER, serializer);
+			md.setRuntimeMetadata(key, serializer);
 		}
 
 		return serializer;
@@ -182,7 +212,8 @@ public class ValueSerializers
 
 		return new PolymorphicValueSerializer(
 			def,
-			defs
+			defs,
+			dictionary
 		);
 	}
 
@@ -201,7 +232,8 @@ public class ValueSerializers
 					}
 
 					return resolve(f.getType());
-				})
+				}),
+			dictionary
 		);
 	}
 }
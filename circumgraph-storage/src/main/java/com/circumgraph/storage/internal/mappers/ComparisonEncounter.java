@@ -0,0 +1,64 @@
+package com.circumgraph.storage.internal.mappers;
+
+import java.util.function.Supplier;
+
+import com.circumgraph.model.validation.ValidationMessage;
+import com.circumgraph.storage.Collection;
+import com.circumgraph.storage.Value;
+
+/**
+ * Encounter used when values in a mutation are only mapped to be compared
+ * against values that are already stored, such as when removing items from
+ * a list. Errors are ignored, references are not verified and default
+ * values are not created.
+ */
+class ComparisonEncounter
+	implements MappingEncounter
+{
+	static final ComparisonEncounter INSTANCE = new ComparisonEncounter();
+
+	private ComparisonEncounter()
+	{
+	}
+
+	@Override
+	public void reportError(ValidationMessage message)
+	{
+	}
+
+	@Override
+	public void verifyExists(
+		Collection collection,
+		String id,
+		Supplier<ValidationMessage> error
+	)
+	{
+	}
+
+	@Override
+	public void link(String collection, long object)
+	{
+	}
+
+	@Override
+	public void unlink(String collection, long object)
+	{
+	}
+
+	@Override
+	public Value externalize(Value value)
+	{
+		return value;
+	}
+
+	@Override
+	public void removeExternal(Value value)
+	{
+	}
+
+	@Override
+	public boolean shouldCreateDefaults()
+	{
+		return false;
+	}
+}
@@ -55,7 +55,8 @@ public class EnumValueMapper
 		SetEnumValueMutation mutation
 	)
 	{
-		return Mono.defer(() -> {
+		// Supplier is used as it allows StructuredValueMapper to map directly
+		return Mono.fromSupplier(() -> {
 			var value = SimpleValue.create(def, mutation.getValue());
 			if(value != null && ! values.contains(value.get()))
 			{
@@ -67,7 +68,7 @@ public class EnumValueMapper
 					.build());
 			}
 
-			return Mono.just(value);
+			return value;
 		});
 	}
 }
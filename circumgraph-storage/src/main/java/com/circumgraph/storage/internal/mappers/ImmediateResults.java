@@ -0,0 +1,58 @@
+package com.circumgraph.storage.internal.mappers;
+
+import java.util.concurrent.Callable;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+/**
+ * Helpers for resolving results of mappers, providers and validators
+ * without subscribing to them. Reactor implements {@link Callable} for
+ * publishers that can produce at most one item without waiting, such as
+ * {@link Mono#just(Object)}, {@link Mono#empty()} and
+ * {@link Mono#fromSupplier(java.util.function.Supplier)}.
+ *
+ * Mappers use this to map values that need no I/O directly, only falling
+ * back to operators for the values that actually need them.
+ */
+public final class ImmediateResults
+{
+	private ImmediateResults()
+	{
+	}
+
+	/**
+	 * Get if the result of the given publisher can be resolved without
+	 * subscribing to it.
+	 *
+	 * @param publisher
+	 * @return
+	 */
+	public static boolean isImmediate(Publisher<?> publisher)
+	{
+		return publisher instanceof Callable;
+	}
+
+	/**
+	 * Resolve the result of a publisher that is immediate.
+	 *
+	 * @param publisher
+	 *   publisher for which {@link #isImmediate(Publisher)} is {@code true}
+	 * @return
+	 *   the single item of the publisher or {@code null} if it is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(Publisher<? extends T> publisher)
+	{
+		try
+		{
+			return ((Callable<T>) publisher).call();
+		}
+		catch(Exception e)
+		{
+			throw Exceptions.propagate(e);
+		}
+	}
+}
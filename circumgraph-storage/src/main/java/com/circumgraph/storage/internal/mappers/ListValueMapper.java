@@ -1,25 +1,51 @@
 package com.circumgraph.storage.internal.mappers;
 
+import java.util.Objects;
+import java.util.function.Function;
+
 import com.circumgraph.model.ListDef;
 import com.circumgraph.model.ObjectLocation;
 import com.circumgraph.model.OutputTypeDef;
+import com.circumgraph.model.validation.ValidationMessage;
+import com.circumgraph.model.validation.ValidationMessageType;
 import com.circumgraph.storage.ListValue;
+import com.circumgraph.storage.StructuredValue;
 import com.circumgraph.storage.Value;
 import com.circumgraph.storage.internal.ValueMutationHandler;
+import com.circumgraph.storage.mutation.ListAddMutation;
+import com.circumgraph.storage.mutation.ListInsertMutation;
 import com.circumgraph.storage.mutation.ListMutation;
+import com.circumgraph.storage.mutation.ListRemoveMutation;
 import com.circumgraph.storage.mutation.ListSetMutation;
 import com.circumgraph.storage.mutation.Mutation;
 import com.circumgraph.storage.mutation.NullMutation;
 import com.circumgraph.storage.types.ValueMapper;
 
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.impl.collector.Collectors2;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Mapper for {@link ListValue}. Supports replacing the entire list via
+ * {@link ListSetMutation} and changing parts of it via
+ * {@link ListAddMutation}, {@link ListInsertMutation} and
+ * {@link ListRemoveMutation}. Only the values in a mutation are mapped, the
+ * items of the previous list are kept as is.
+ */
 public class ListValueMapper<V extends Value, M extends Mutation>
 	implements ValueMapper<ListValue<V>, ListMutation<M>>
 {
+	private static final ValidationMessageType INVALID_INDEX = ValidationMessageType.error()
+		.withCode("storage:mutation:invalid-list-index")
+		.withMessage("Can not insert at index {{index}}, index must be between 0 and {{size}}")
+		.withArgument("index")
+		.withArgument("size")
+		.build();
+
 	private static final Object NULL = new Object();
 
 	private final ListDef.Output typeDef;
@@ -41,7 +67,6 @@ public class ListValueMapper<V extends Value, M extends Mutation>
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public Mono<ListValue<V>> applyMutation(
 		MappingEncounter encounter,
 		ObjectLocation location,
@@ -49,43 +74,187 @@ public class ListValueMapper<V extends Value, M extends Mutation>
 		ListMutation<M> mutation
 	)
 	{
-		return Mono.defer(() -> {
-			if(mutation instanceof ListSetMutation)
+		ListIterable<V> previousItems = previousValue != null
+			? previousValue.items()
+			: Lists.immutable.empty();
+
+		if(mutation instanceof ListSetMutation<M> set)
+		{
+			/*
+			 * Set mutations fully replace the previous value, map the
+			 * new values and return them.
+			 */
+			return mapItems(encounter, location, set.getValues(), values -> values);
+		}
+		else if(mutation instanceof ListAddMutation<M> add)
+		{
+			// Map the new values and add them to the end of the list
+			return mapItems(encounter, location, add.getValues(), values -> {
+				MutableList<V> result = Lists.mutable.ofInitialCapacity(previousItems.size() + values.size());
+				result.addAllIterable(previousItems);
+				result.addAllIterable(values);
+				return result;
+			});
+		}
+		else if(mutation instanceof ListInsertMutation<M> insert)
+		{
+			var index = insert.getIndex();
+			if(index < 0 || index > previousItems.size())
+			{
+				encounter.reportError(INVALID_INDEX.toMessage()
+					.withLocation(location)
+					.withArgument("index", index)
+					.withArgument("size", previousItems.size())
+					.build()
+				);
+
+				return Mono.justOrEmpty(previousValue);
+			}
+
+			// Map the new values and insert them at the requested index
+			return mapItems(encounter, location, insert.getValues(), values -> {
+				MutableList<V> result = Lists.mutable.ofInitialCapacity(previousItems.size() + values.size());
+				result.addAllIterable(previousItems.subList(0, index));
+				result.addAllIterable(values);
+				result.addAllIterable(previousItems.subList(index, previousItems.size()));
+				return result;
+			});
+		}
+		else if(mutation instanceof ListRemoveMutation<M> remove)
+		{
+			/*
+			 * Values to remove are only compared against the current items,
+			 * so they are mapped without validation, reference checks or
+			 * defaults. This allows removing references to objects that
+			 * have been deleted.
+			 */
+			return mapItems(ComparisonEncounter.INSTANCE, location, remove.getValues(), values ->
+				previousItems.reject(item -> values.anySatisfy(value -> matches(item, value)))
+			);
+		}
+
+		return Mono.justOrEmpty(previousValue);
+	}
+
+	/**
+	 * Check if an item in the list matches a value being removed. Structured
+	 * values match if all of the fields in the removed value match, fields
+	 * not given in the mutation are ignored.
+	 *
+	 * @param item
+	 *   current item in the list
+	 * @param value
+	 *   value mapped from the remove mutation
+	 * @return
+	 */
+	private static boolean matches(Value item, Value value)
+	{
+		if(value instanceof StructuredValue structuredValue)
+		{
+			if(! (item instanceof StructuredValue structuredItem)
+				|| ! structuredItem.getDefinition().equals(structuredValue.getDefinition()))
+			{
+				return false;
+			}
+
+			var fields = structuredItem.getFields();
+			return structuredValue.getFields()
+				.keyValuesView()
+				.allSatisfy(p -> matches(fields.get(p.getOne()), p.getTwo()));
+		}
+		else if(value instanceof ListValue<?> listValue)
+		{
+			return item instanceof ListValue<?> listItem
+				&& listItem.items().corresponds(listValue.items(), ListValueMapper::matches);
+		}
+
+		return Objects.equals(item, value);
+	}
+
+	/**
+	 * Map the values of a mutation and combine them into a new list.
+	 *
+	 * @param encounter
+	 * @param location
+	 * @param mutations
+	 *   mutations for the values to map
+	 * @param combiner
+	 *   function that takes the mapped values and returns the items of the
+	 *   new list
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private Mono<ListValue<V>> mapItems(
+		MappingEncounter encounter,
+		ObjectLocation location,
+		ListIterable<M> mutations,
+		Function<ListIterable<V>, ListIterable<V>> combiner
+	)
+	{
+		var items = Lists.mutable.<Mono<?>>ofInitialCapacity(mutations.size());
+		boolean immediate = true;
+		for(var m : mutations)
+		{
+			Mono<?> item;
+			if(m instanceof NullMutation)
 			{
 				/*
-				 * Set mutations fully replace the previous value, map the
-				 * new values and return them.
-				 */
-				var casted = (ListSetMutation<M>) mutation;
-				return Flux.fromIterable(casted.getValues())
-					.flatMapSequential(m -> {
-						if(m instanceof NullMutation)
-						{
-							/*
-							* NullMutation should set the value to null - validate
-							* that is possible before attempting to do so.
-							*/
-							return itemMapper.getValidator().validate(location, null)
-								.doOnNext(encounter::reportError)
-								.then(Mono.just(NULL));
-						}
-
-						return itemMapper.getMapper().applyMutation(
-							encounter,
-							location,
-							null,
-							m
-						);
-					})
-					.collect(Collectors2.toImmutableList())
-					.map(values -> ListValue.create(
-							typeDef,
-							values.collect(v -> v == NULL ? null : (V) v)
-						)
-					);
+				* NullMutation should set the value to null - validate
+				* that is possible before attempting to do so.
+				*/
+				var messages = itemMapper.getValidator().validate(location, null);
+				if(ImmediateResults.isImmediate(messages))
+				{
+					ValidationMessage message = ImmediateResults.get(messages);
+					if(message != null)
+					{
+						encounter.reportError(message);
+					}
+
+					item = Mono.just(NULL);
+				}
+				else
+				{
+					item = messages
+						.doOnNext(encounter::reportError)
+						.then(Mono.just(NULL));
+				}
 			}
+			else
+			{
+				item = itemMapper.getMapper().applyMutation(
+					encounter,
+					location,
+					null,
+					m
+				);
+			}
+
+			immediate &= ImmediateResults.isImmediate(item);
+			items.add(item);
+		}
+
+		if(immediate)
+		{
+			// All items are known, create the list directly
+			var values = Lists.mutable.<V>ofInitialCapacity(items.size());
+			for(var item : items)
+			{
+				Object value = ImmediateResults.get(item);
+				if(value != null)
+				{
+					values.add(value == NULL ? null : (V) value);
+				}
+			}
+
+			return Mono.just(ListValue.create(typeDef, combiner.apply(values)));
+		}
 
-			return Mono.just(previousValue);
-		});
+		return Flux.mergeSequential(items)
+			.collect(Collectors2.toImmutableList())
+			.map(values -> ListValue.create(
+				typeDef,
+				combiner.apply(values.collect(v -> v == NULL ? null : (V) v))
+			));
 	}
 }
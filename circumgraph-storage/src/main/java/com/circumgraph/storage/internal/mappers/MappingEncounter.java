@@ -1,6 +1,9 @@
 package com.circumgraph.storage.internal.mappers;
 
+import java.util.function.Supplier;
+
 import com.circumgraph.model.validation.ValidationMessage;
+import com.circumgraph.storage.Collection;
 import com.circumgraph.storage.Value;
 import com.circumgraph.storage.mutation.Mutation;
 import com.circumgraph.storage.types.ValueMapper;
@@ -17,6 +20,21 @@ public interface MappingEncounter
 	 */
 	void reportError(ValidationMessage message);
 
+	/**
+	 * Verify that an object exists in a collection. Checks are collected
+	 * while a mutation is being mapped and then performed together, with one
+	 * lookup per collection. If the object does not exist the error from the
+	 * given supplier is reported.
+	 *
+	 * @param collection
+	 *   collection the object should exist in
+	 * @param id
+	 *   identifier of the object
+	 * @param error
+	 *   supplier of the error to report if the object does not exist
+	 */
+	void verifyExists(Collection collection, String id, Supplier<ValidationMessage> error);
+
 	/**
 	 * Register a link between the current object and another object.
 	 *
@@ -47,4 +65,17 @@ public interface MappingEncounter
 	 * @param value
 	 */
 	void removeExternal(Value value);
+
+	/**
+	 * Get if default values should be created for fields that are not
+	 * present in the mutation or the previous value. Encounters that only
+	 * map values to compare them against stored values leave such fields
+	 * out.
+	 *
+	 * @return
+	 */
+	default boolean shouldCreateDefaults()
+	{
+		return true;
+	}
 }
@@ -62,32 +62,30 @@ public class PolymorphicValueMapper
 		TypedMutation mutation
 	)
 	{
-		return Mono.defer(() -> {
-			var mapper = subTypes.get(mutation.getDef().getName());
-			if(mapper == null)
-			{
-				/*
-				 * Tried to store an unsupported type, report an error and
-				 * return nothing.
-				 */
-				encounter.reportError(createInvalidSubTypeError(location, mutation.getDef()));
-
-				return Mono.empty();
-			}
-
+		var mapper = subTypes.get(mutation.getDef().getName());
+		if(mapper == null)
+		{
 			/*
-			 * If this mapper supports diverging types and the new polymorphic
-			 * type is not assignable from the previous type the previous value
-			 * is discarded.
+			 * Tried to store an unsupported type, report an error and
+			 * return nothing.
 			 */
-			var actualPreviousValue = ! diverging
-				|| (previousValue != null && mapper.getDef().isAssignableFrom(previousValue.getDefinition()))
-				? previousValue
-				: null;
+			encounter.reportError(createInvalidSubTypeError(location, mutation.getDef()));
+
+			return Mono.empty();
+		}
+
+		/*
+		 * If this mapper supports diverging types and the new polymorphic
+		 * type is not assignable from the previous type the previous value
+		 * is discarded.
+		 */
+		var actualPreviousValue = ! diverging
+			|| (previousValue != null && mapper.getDef().isAssignableFrom(previousValue.getDefinition()))
+			? previousValue
+			: null;
 
-			return ((ValueMapper) mapper)
-				.applyMutation(encounter, location, actualPreviousValue, mutation);
-		});
+		return ((ValueMapper) mapper)
+			.applyMutation(encounter, location, actualPreviousValue, mutation);
 	}
 
 	private ValidationMessage createInvalidSubTypeError(
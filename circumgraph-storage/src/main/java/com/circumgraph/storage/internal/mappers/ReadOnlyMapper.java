@@ -42,19 +42,17 @@ public class ReadOnlyMapper<V extends Value, M extends Mutation>
 		M mutation
 	)
 	{
-		return Mono.defer(() -> {
-			if(previousValue != null)
-			{
-				encounter.reportError(WRITE_ERROR.toMessage()
-					.withLocation(location)
-					.build()
-				);
+		if(previousValue != null)
+		{
+			encounter.reportError(WRITE_ERROR.toMessage()
+				.withLocation(location)
+				.build()
+			);
 
-				return Mono.just(previousValue);
-			}
+			return Mono.just(previousValue);
+		}
 
-			return mapper.applyMutation(encounter, location, previousValue, mutation);
-		});
+		return mapper.applyMutation(encounter, location, previousValue, mutation);
 	}
 
 	@Override
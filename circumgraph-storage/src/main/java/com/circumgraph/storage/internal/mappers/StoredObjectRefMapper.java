@@ -57,24 +57,22 @@ public class StoredObjectRefMapper
 		StoredObjectRefMutation mutation
 	)
 	{
-		return Mono.defer(() -> {
-			var value = new StoredObjectRefImpl(def, mutation.getId());
+		var value = new StoredObjectRefImpl(def, mutation.getId());
 
-			return collection.get()
-				.contains(value.getId())
-				.flatMap(b -> {
-					if(! b)
-					{
-						encounter.reportError(INVALID_REFERENCE.toMessage()
-							.withLocation(location)
-							.withArgument("type", def.getName())
-							.withArgument("id", value.getId())
-							.build()
-						);
-					}
+		/*
+		 * Existence is verified by the encounter, which checks all of the
+		 * references in a mutation at once.
+		 */
+		encounter.verifyExists(
+			collection.get(),
+			value.getId(),
+			() -> INVALID_REFERENCE.toMessage()
+				.withLocation(location)
+				.withArgument("type", def.getName())
+				.withArgument("id", value.getId())
+				.build()
+		);
 
-					return Mono.just(value);
-				});
-		});
+		return Mono.just(value);
 	}
 }
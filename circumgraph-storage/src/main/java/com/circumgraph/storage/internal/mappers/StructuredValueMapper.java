@@ -3,6 +3,7 @@ package com.circumgraph.storage.internal.mappers;
 import com.circumgraph.model.ObjectLocation;
 import com.circumgraph.model.OutputTypeDef;
 import com.circumgraph.model.StructuredDef;
+import com.circumgraph.model.validation.ValidationMessage;
 import com.circumgraph.storage.StructuredValue;
 import com.circumgraph.storage.Value;
 import com.circumgraph.storage.internal.ValueMutationHandler;
@@ -11,18 +12,21 @@ import com.circumgraph.storage.mutation.NullMutation;
 import com.circumgraph.storage.mutation.StructuredMutation;
 import com.circumgraph.storage.types.ValueMapper;
 
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.tuple.Pair;
-import org.eclipse.collections.impl.collector.Collectors2;
 import org.eclipse.collections.impl.tuple.Tuples;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
- * Mapper for {@link StructuredValue}.
+ * Mapper for {@link StructuredValue}. Fields are mapped directly when their
+ * mappers, providers and validators do not need I/O, only fields that do,
+ * such as references, are mapped via Reactor.
  */
 public class StructuredValueMapper
 	implements ValueMapper<StructuredValue, StructuredMutation>
@@ -54,85 +58,164 @@ public class StructuredValueMapper
 		StructuredMutation mutation
 	)
 	{
-		return Mono.defer(() -> {
-			boolean hasPreviousValue = previousValue != null;
-
-			MutableMap<String, Value> previousFieldValues = hasPreviousValue
-				? Maps.mutable.ofMapIterable(previousValue.getFields())
-				: Maps.mutable.ofInitialCapacity(fields.size());
-
-			var fieldMutations = mutation.getFields();
-
-			return Flux.fromIterable(fields.keyValuesView())
-				.flatMap(pair -> {
-					var key = pair.getOne();
-					var mapper = (ValueMutationHandler<Value, Mutation>) pair.getTwo();
-
-					var fieldMutation = fieldMutations.get(key);
-					if(fieldMutation == null)
-					{
-						/*
-						 * Not mutating the value means two cases:
-						 *
-						 * 1) A value exists, return it
-						 * 2) No value exists, create a default value
-						 */
-						if(previousFieldValues.containsKey(key))
-						{
-							/*
-							 * This value has previously been set, return it if
-							 * the definition is compatible.
-							 */
-							var previousFieldValue = previousFieldValues.get(key);
-							if(mapper.getDef().isAssignableFrom(previousFieldValue.getDefinition()))
-							{
-								// TODO: This should check if type are compatible - not equal, type widening and narrowing should be supportd
-								return Mono.just(Tuples.pair(key, previousFieldValue));
-							}
-						}
-
-						// No value, create and validate initial value
-						return mapper.getDefault().create()
-							.flatMap(initialValue -> {
-								return mapper.getValidator().validate(
-									location.forField(key),
-									initialValue
-								)
-									.doOnNext(encounter::reportError)
-									.then(Mono.just(Tuples.pair(key, initialValue)));
-							})
-							// If there is no value - validate it as null
-							.switchIfEmpty(mapper.getValidator().validate(location.forField(key), null)
-								.doOnNext(encounter::reportError)
-								.then(Mono.empty())
-							);
-					}
-
-					if(fieldMutation instanceof NullMutation)
-					{
-						/*
-						 * NullMutation should set the value to null - validate
-						 * that is possible before attempting to do so.
-						 */
-						return mapper.getValidator()
-							.validate(location.forField(key), null)
-							.doOnNext(encounter::reportError)
-							.then(Mono.empty());
-					}
-
-					/*
-					 * Field is being mutated so defer to the mapper for
-					 * the field.
-					 */
-					return mapper.getMapper().applyMutation(
-						encounter,
-						location.forField(key),
-						previousFieldValues.get(key),
-						fieldMutation
-					).map(updatedValue -> Tuples.pair(key, updatedValue));
-				})
-				.collect(Collectors2.toMap(Pair::getOne, Pair::getTwo))
-				.map(newValues -> StructuredValue.create(type, newValues));
-		});
+		var previousFieldValues = previousValue != null
+			? previousValue.getFields()
+			: null;
+
+		var fieldMutations = mutation.getFields();
+
+		MutableMap<String, Value> values = Maps.mutable.ofInitialCapacity(fields.size());
+		MutableList<Mono<Pair<String, Value>>> pending = null;
+
+		for(var pair : fields.keyValuesView())
+		{
+			var key = pair.getOne();
+			var handler = (ValueMutationHandler<Value, Mutation>) pair.getTwo();
+
+			var fieldMutation = fieldMutations.get(key);
+			var previousFieldValue = previousFieldValues != null
+				? previousFieldValues.get(key)
+				: null;
+
+			Mono<Value> result;
+			if(fieldMutation == null)
+			{
+				/*
+				 * Not mutating the value means two cases:
+				 *
+				 * 1) A value exists, keep it if the definition is compatible
+				 * 2) No value exists, create a default value
+				 */
+				if(previousFieldValue != null
+					&& handler.getDef().isAssignableFrom(previousFieldValue.getDefinition()))
+				{
+					// TODO: This should check if type are compatible - not equal, type widening and narrowing should be supportd
+					values.put(key, previousFieldValue);
+					continue;
+				}
+
+				if(! encounter.shouldCreateDefaults())
+				{
+					// Only comparing, leave fields that were not given out
+					continue;
+				}
+
+				// No value, create and validate initial value
+				result = createDefault(encounter, location.forField(key), handler);
+			}
+			else if(fieldMutation instanceof NullMutation)
+			{
+				/*
+				 * NullMutation should set the value to null - validate
+				 * that is possible before attempting to do so.
+				 */
+				result = validate(encounter, location.forField(key), handler, null);
+			}
+			else
+			{
+				/*
+				 * Field is being mutated so defer to the mapper for
+				 * the field.
+				 */
+				result = handler.getMapper().applyMutation(
+					encounter,
+					location.forField(key),
+					previousFieldValue,
+					fieldMutation
+				);
+			}
+
+			if(ImmediateResults.isImmediate(result))
+			{
+				// The value is known, no need to go via Reactor
+				Value value = ImmediateResults.get(result);
+				if(value != null)
+				{
+					values.put(key, value);
+				}
+			}
+			else
+			{
+				if(pending == null)
+				{
+					pending = Lists.mutable.empty();
+				}
+
+				pending.add(result.map(value -> Tuples.pair(key, value)));
+			}
+		}
+
+		if(pending == null)
+		{
+			return Mono.just(StructuredValue.create(type, values));
+		}
+
+		/*
+		 * Some fields need I/O, merge them in as they complete. Merging
+		 * serializes the pairs so the map is never updated concurrently.
+		 */
+		return Flux.merge(pending)
+			.doOnNext(pair -> values.put(pair.getOne(), pair.getTwo()))
+			.then(Mono.fromSupplier(() -> StructuredValue.create(type, values)));
+	}
+
+	/**
+	 * Create and validate the default value of a field.
+	 *
+	 * @param encounter
+	 * @param location
+	 * @param handler
+	 * @return
+	 */
+	private static Mono<Value> createDefault(
+		MappingEncounter encounter,
+		ObjectLocation location,
+		ValueMutationHandler<Value, Mutation> handler
+	)
+	{
+		var initialValue = handler.getDefault().create();
+		if(ImmediateResults.isImmediate(initialValue))
+		{
+			return validate(encounter, location, handler, ImmediateResults.get(initialValue));
+		}
+
+		return initialValue
+			.flatMap(value -> validate(encounter, location, handler, value))
+			// If there is no value - validate it as null
+			.switchIfEmpty(Mono.defer(() -> validate(encounter, location, handler, null)));
+	}
+
+	/**
+	 * Validate a value, reporting any errors to the encounter.
+	 *
+	 * @param encounter
+	 * @param location
+	 * @param handler
+	 * @param value
+	 * @return
+	 *   the value, or empty if the value is {@code null}
+	 */
+	private static Mono<Value> validate(
+		MappingEncounter encounter,
+		ObjectLocation location,
+		ValueMutationHandler<Value, Mutation> handler,
+		Value value
+	)
+	{
+		var messages = handler.getValidator().validate(location, value);
+		if(ImmediateResults.isImmediate(messages))
+		{
+			ValidationMessage message = ImmediateResults.get(messages);
+			if(message != null)
+			{
+				encounter.reportError(message);
+			}
+
+			return Mono.justOrEmpty(value);
+		}
+
+		return messages
+			.doOnNext(encounter::reportError)
+			.then(Mono.justOrEmpty(value));
 	}
 }
@@ -0,0 +1,53 @@
+package com.circumgraph.storage.internal.mutation;
+
+import java.util.Objects;
+
+import com.circumgraph.storage.mutation.ListAddMutation;
+import com.circumgraph.storage.mutation.Mutation;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Implementation of {@link ListAddMutation}.
+ */
+public class ListAddMutationImpl<M extends Mutation>
+	implements ListAddMutation<M>
+{
+	private final ListIterable<M> values;
+
+	public ListAddMutationImpl(
+		ListIterable<M> values
+	)
+	{
+		this.values = values;
+	}
+
+	@Override
+	public ListIterable<M> getValues()
+	{
+		return values;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(values);
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public boolean equals(Object obj)
+	{
+		if(this == obj) return true;
+		if(obj == null) return false;
+		if(getClass() != obj.getClass()) return false;
+		ListAddMutationImpl other = (ListAddMutationImpl) obj;
+		return Objects.equals(values, other.values);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ListAddMutation{values=" + values + "}";
+	}
+}
@@ -0,0 +1,63 @@
+package com.circumgraph.storage.internal.mutation;
+
+import java.util.Objects;
+
+import com.circumgraph.storage.mutation.ListInsertMutation;
+import com.circumgraph.storage.mutation.Mutation;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Implementation of {@link ListInsertMutation}.
+ */
+public class ListInsertMutationImpl<M extends Mutation>
+	implements ListInsertMutation<M>
+{
+	private final int index;
+	private final ListIterable<M> values;
+
+	public ListInsertMutationImpl(
+		int index,
+		ListIterable<M> values
+	)
+	{
+		this.index = index;
+		this.values = values;
+	}
+
+	@Override
+	public int getIndex()
+	{
+		return index;
+	}
+
+	@Override
+	public ListIterable<M> getValues()
+	{
+		return values;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(index, values);
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public boolean equals(Object obj)
+	{
+		if(this == obj) return true;
+		if(obj == null) return false;
+		if(getClass() != obj.getClass()) return false;
+		ListInsertMutationImpl other = (ListInsertMutationImpl) obj;
+		return index == other.index
+			&& Objects.equals(values, other.values);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ListInsertMutation{index=" + index + ", values=" + values + "}";
+	}
+}
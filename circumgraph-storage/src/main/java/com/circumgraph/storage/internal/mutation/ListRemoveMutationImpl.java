@@ -0,0 +1,53 @@
+package com.circumgraph.storage.internal.mutation;
+
+import java.util.Objects;
+
+import com.circumgraph.storage.mutation.ListRemoveMutation;
+import com.circumgraph.storage.mutation.Mutation;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Implementation of {@link ListRemoveMutation}.
+ */
+public class ListRemoveMutationImpl<M extends Mutation>
+	implements ListRemoveMutation<M>
+{
+	private final ListIterable<M> values;
+
+	public ListRemoveMutationImpl(
+		ListIterable<M> values
+	)
+	{
+		this.values = values;
+	}
+
+	@Override
+	public ListIterable<M> getValues()
+	{
+		return values;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(values);
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public boolean equals(Object obj)
+	{
+		if(this == obj) return true;
+		if(obj == null) return false;
+		if(getClass() != obj.getClass()) return false;
+		ListRemoveMutationImpl other = (ListRemoveMutationImpl) obj;
+		return Objects.equals(values, other.values);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ListRemoveMutation{values=" + values + "}";
+	}
+}
@@ -0,0 +1,44 @@
+package com.circumgraph.storage.internal.search;
+
+import com.circumgraph.storage.search.FacetBucket;
+import com.circumgraph.storage.search.FacetRange;
+
+/**
+ * Implementation of {@link FacetBucket}.
+ */
+public class FacetBucketImpl
+	implements FacetBucket
+{
+	private final Object value;
+	private final FacetRange range;
+	private final int count;
+
+	public FacetBucketImpl(
+		Object value,
+		FacetRange range,
+		int count
+	)
+	{
+		this.value = value;
+		this.range = range;
+		this.count = count;
+	}
+
+	@Override
+	public Object getValue()
+	{
+		return value;
+	}
+
+	@Override
+	public FacetRange getRange()
+	{
+		return range;
+	}
+
+	@Override
+	public int getCount()
+	{
+		return count;
+	}
+}
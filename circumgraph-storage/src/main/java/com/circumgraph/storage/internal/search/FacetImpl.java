@@ -0,0 +1,37 @@
+package com.circumgraph.storage.internal.search;
+
+import com.circumgraph.storage.search.Facet;
+import com.circumgraph.storage.search.FacetBucket;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Implementation of {@link Facet}.
+ */
+public class FacetImpl
+	implements Facet
+{
+	private final String id;
+	private final ListIterable<FacetBucket> buckets;
+
+	public FacetImpl(
+		String id,
+		ListIterable<FacetBucket> buckets
+	)
+	{
+		this.id = id;
+		this.buckets = buckets;
+	}
+
+	@Override
+	public String getId()
+	{
+		return id;
+	}
+
+	@Override
+	public ListIterable<FacetBucket> getBuckets()
+	{
+		return buckets;
+	}
+}
@@ -0,0 +1,55 @@
+package com.circumgraph.storage.internal.search;
+
+import com.circumgraph.storage.search.FacetQuery;
+import com.circumgraph.storage.search.FacetRange;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Implementation of {@link FacetQuery}.
+ */
+public class FacetQueryImpl
+	implements FacetQuery
+{
+	private final String id;
+	private final String field;
+	private final int limit;
+	private final ListIterable<FacetRange> ranges;
+
+	public FacetQueryImpl(
+		String id,
+		String field,
+		int limit,
+		ListIterable<FacetRange> ranges
+	)
+	{
+		this.id = id;
+		this.field = field;
+		this.limit = limit;
+		this.ranges = ranges;
+	}
+
+	@Override
+	public String getId()
+	{
+		return id;
+	}
+
+	@Override
+	public String getField()
+	{
+		return field;
+	}
+
+	@Override
+	public int getLimit()
+	{
+		return limit;
+	}
+
+	@Override
+	public ListIterable<FacetRange> getRanges()
+	{
+		return ranges;
+	}
+}
@@ -0,0 +1,34 @@
+package com.circumgraph.storage.internal.search;
+
+import com.circumgraph.storage.search.FacetRange;
+
+/**
+ * Implementation of {@link FacetRange}.
+ */
+public class FacetRangeImpl
+	implements FacetRange
+{
+	private final Object from;
+	private final Object to;
+
+	public FacetRangeImpl(
+		Object from,
+		Object to
+	)
+	{
+		this.from = from;
+		this.to = to;
+	}
+
+	@Override
+	public Object getFrom()
+	{
+		return from;
+	}
+
+	@Override
+	public Object getTo()
+	{
+		return to;
+	}
+}
@@ -0,0 +1,319 @@
+package com.circumgraph.storage.internal.search;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+import com.circumgraph.storage.search.Cursor;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Cursor that points to a hit using the values it was sorted on together
+ * with its identifier. Used to continue a sorted search directly after the
+ * hit without having to skip all of the hits before it.
+ *
+ * The offset of the hit is kept so that the cursor can still be used as an
+ * offset if the sort of the query changes.
+ */
+public class KeysetCursor
+	implements Cursor
+{
+	private static final byte TAG = 1;
+
+	private static final byte STRING = 0;
+	private static final byte INT = 1;
+	private static final byte LONG = 2;
+	private static final byte FLOAT = 3;
+	private static final byte BOOLEAN = 4;
+	private static final byte LOCAL_DATE = 5;
+	private static final byte LOCAL_DATE_TIME = 6;
+	private static final byte LOCAL_TIME = 7;
+	private static final byte OFFSET_DATE_TIME = 8;
+	private static final byte OFFSET_TIME = 9;
+	private static final byte ZONED_DATE_TIME = 10;
+
+	private final int offset;
+	private final ListIterable<Object> values;
+	private final long id;
+
+	public KeysetCursor(
+		int offset,
+		ListIterable<Object> values,
+		long id
+	)
+	{
+		this.offset = offset;
+		this.values = values;
+		this.id = id;
+	}
+
+	/**
+	 * Get the offset of the hit this cursor points to.
+	 *
+	 * @return
+	 */
+	public int getOffset()
+	{
+		return offset;
+	}
+
+	/**
+	 * Get the values that the hit was sorted on.
+	 *
+	 * @return
+	 */
+	public ListIterable<Object> getValues()
+	{
+		return values;
+	}
+
+	/**
+	 * Get the identifier of the hit, used to break ties between hits with
+	 * the same sort values.
+	 *
+	 * @return
+	 */
+	public long getId()
+	{
+		return id;
+	}
+
+	@Override
+	public byte[] encode()
+	{
+		try
+		{
+			var baos = new ByteArrayOutputStream();
+			var out = new DataOutputStream(baos);
+
+			out.writeByte(TAG);
+			out.writeInt(offset);
+			out.writeLong(id);
+			out.writeByte(values.size());
+			for(var value : values)
+			{
+				writeValue(out, value);
+			}
+
+			out.flush();
+			return baos.toByteArray();
+		}
+		catch(IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(offset, values, id);
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if(this == obj) return true;
+		if(obj == null) return false;
+		if(getClass() != obj.getClass()) return false;
+		KeysetCursor other = (KeysetCursor) obj;
+		return offset == other.offset
+			&& id == other.id
+			&& Objects.equals(values, other.values);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "KeysetCursor{offset=" + offset + ", values=" + values + ", id=" + id + "}";
+	}
+
+	/**
+	 * Get if the given value can be encoded in a cursor.
+	 *
+	 * @param value
+	 * @return
+	 */
+	public static boolean isSupported(Object value)
+	{
+		return value instanceof String
+			|| value instanceof Integer
+			|| value instanceof Long
+			|| value instanceof Double
+			|| value instanceof Boolean
+			|| value instanceof LocalDate
+			|| value instanceof LocalDateTime
+			|| value instanceof LocalTime
+			|| value instanceof OffsetDateTime
+			|| value instanceof OffsetTime
+			|| value instanceof ZonedDateTime;
+	}
+
+	private static void writeValue(DataOutputStream out, Object value)
+		throws IOException
+	{
+		if(value instanceof String s)
+		{
+			out.writeByte(STRING);
+			writeString(out, s);
+		}
+		else if(value instanceof Integer i)
+		{
+			out.writeByte(INT);
+			out.writeInt(i);
+		}
+		else if(value instanceof Long l)
+		{
+			out.writeByte(LONG);
+			out.writeLong(l);
+		}
+		else if(value instanceof Double d)
+		{
+			out.writeByte(FLOAT);
+			out.writeDouble(d);
+		}
+		else if(value instanceof Boolean b)
+		{
+			out.writeByte(BOOLEAN);
+			out.writeBoolean(b);
+		}
+		else if(value instanceof LocalDate)
+		{
+			out.writeByte(LOCAL_DATE);
+			writeString(out, value.toString());
+		}
+		else if(value instanceof LocalDateTime)
+		{
+			out.writeByte(LOCAL_DATE_TIME);
+			writeString(out, value.toString());
+		}
+		else if(value instanceof LocalTime)
+		{
+			out.writeByte(LOCAL_TIME);
+			writeString(out, value.toString());
+		}
+		else if(value instanceof OffsetDateTime)
+		{
+			out.writeByte(OFFSET_DATE_TIME);
+			writeString(out, value.toString());
+		}
+		else if(value instanceof OffsetTime)
+		{
+			out.writeByte(OFFSET_TIME);
+			writeString(out, value.toString());
+		}
+		else if(value instanceof ZonedDateTime)
+		{
+			out.writeByte(ZONED_DATE_TIME);
+			writeString(out, value.toString());
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unsupported value in cursor: " + value);
+		}
+	}
+
+	/**
+	 * Write a string as UTF-8 prefixed with its length in bytes. Used
+	 * instead of {@link DataOutputStream#writeUTF(String)} which is limited
+	 * to 64 KB.
+	 *
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	private static void writeString(DataOutputStream out, String value)
+		throws IOException
+	{
+		var bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in)
+		throws IOException
+	{
+		int length = in.readInt();
+		if(length < 0 || length > in.available())
+		{
+			throw new IOException("Invalid string length " + length);
+		}
+
+		var bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static Object readValue(DataInputStream in)
+		throws IOException
+	{
+		byte tag = in.readByte();
+		switch(tag)
+		{
+			case STRING:
+				return readString(in);
+			case INT:
+				return in.readInt();
+			case LONG:
+				return in.readLong();
+			case FLOAT:
+				return in.readDouble();
+			case BOOLEAN:
+				return in.readBoolean();
+			case LOCAL_DATE:
+				return LocalDate.parse(readString(in));
+			case LOCAL_DATE_TIME:
+				return LocalDateTime.parse(readString(in));
+			case LOCAL_TIME:
+				return LocalTime.parse(readString(in));
+			case OFFSET_DATE_TIME:
+				return OffsetDateTime.parse(readString(in));
+			case OFFSET_TIME:
+				return OffsetTime.parse(readString(in));
+			case ZONED_DATE_TIME:
+				return ZonedDateTime.parse(readString(in));
+			default:
+				throw new IllegalArgumentException("Unknown value in cursor: " + tag);
+		}
+	}
+
+	public static Cursor from(byte[] data)
+	{
+		try
+		{
+			var in = new DataInputStream(new ByteArrayInputStream(data));
+
+			// Skip the tag
+			in.readByte();
+
+			int offset = in.readInt();
+			long id = in.readLong();
+
+			int count = in.readByte() & 0xff;
+			var values = Lists.mutable.<Object>withInitialCapacity(count);
+			for(int i=0; i<count; i++)
+			{
+				values.add(readValue(in));
+			}
+
+			return new KeysetCursor(offset, values.toImmutable(), id);
+		}
+		catch(IOException e)
+		{
+			throw new IllegalArgumentException("Invalid cursor", e);
+		}
+	}
+}
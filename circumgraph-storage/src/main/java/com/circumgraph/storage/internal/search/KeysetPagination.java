@@ -0,0 +1,143 @@
+package com.circumgraph.storage.internal.search;
+
+import java.util.function.Function;
+
+import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.internal.StorageImpl;
+import com.circumgraph.storage.search.Cursor;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+import se.l4.silo.index.EqualsMatcher;
+import se.l4.silo.index.RangeMatcher;
+import se.l4.silo.index.search.QueryClause;
+import se.l4.silo.index.search.query.AndQuery;
+import se.l4.silo.index.search.query.FieldQuery;
+import se.l4.silo.index.search.query.OrQuery;
+
+/**
+ * Keyset pagination for a sorted query. Creates {@link KeysetCursor}s for
+ * hits and turns such a cursor back into a clause that matches everything
+ * sorted after it, so that deep pages can be fetched without an offset.
+ *
+ * Created by {@link QueryImpl} when all of the sort fields of a query
+ * support it.
+ */
+public class KeysetPagination
+{
+	private final String idField;
+	private final ListIterable<QueryImpl.SortField> fields;
+	private final ListIterable<Function<StoredObjectValue, Object>> extractors;
+	private final KeysetCursor after;
+
+	public KeysetPagination(
+		String idField,
+		ListIterable<QueryImpl.SortField> fields,
+		ListIterable<Function<StoredObjectValue, Object>> extractors,
+		KeysetCursor after
+	)
+	{
+		this.idField = idField;
+		this.fields = fields;
+		this.extractors = extractors;
+		this.after = after;
+	}
+
+	/**
+	 * Get the field used to break ties between hits with the same sort
+	 * values.
+	 *
+	 * @return
+	 */
+	public String getIdField()
+	{
+		return idField;
+	}
+
+	/**
+	 * Get the number of hits that are skipped by {@link #toClause()}.
+	 *
+	 * @return
+	 */
+	public int getSkipped()
+	{
+		return after == null ? 0 : after.getOffset() + 1;
+	}
+
+	/**
+	 * Get if a cursor is being continued from.
+	 *
+	 * @return
+	 */
+	public boolean hasAfter()
+	{
+		return after != null;
+	}
+
+	/**
+	 * Create a clause that matches all of the hits sorted after the cursor.
+	 * For sort fields {@code a, b} and the tie-breaking id this becomes
+	 * {@code a > x OR (a = x AND b > y) OR (a = x AND b = y AND id > z)}.
+	 *
+	 * @return
+	 */
+	public QueryClause toClause()
+	{
+		var or = OrQuery.create();
+		var values = after.getValues();
+
+		for(int i=0, n=fields.size(); i<=n; i++)
+		{
+			var and = AndQuery.create();
+			for(int j=0; j<i; j++)
+			{
+				and = and.add(FieldQuery.create(
+					fields.get(j).getField(),
+					EqualsMatcher.create(values.get(j))
+				));
+			}
+
+			if(i < n)
+			{
+				var field = fields.get(i);
+				and = and.add(FieldQuery.create(
+					field.getField(),
+					field.isAscending()
+						? RangeMatcher.between(values.get(i), false, null, true)
+						: RangeMatcher.between(null, true, values.get(i), false)
+				));
+			}
+			else
+			{
+				and = and.add(FieldQuery.create(
+					idField,
+					RangeMatcher.between(after.getId(), false, null, true)
+				));
+			}
+
+			or = or.add(and.build());
+		}
+
+		return or.build();
+	}
+
+	/**
+	 * Create a cursor for the given hit. If a value of the hit can not be
+	 * used in a {@link KeysetCursor} an {@link OffsetBasedCursor} is
+	 * returned instead.
+	 *
+	 * @param offset
+	 * @param value
+	 * @return
+	 */
+	public Cursor createCursor(int offset, StoredObjectValue value)
+	{
+		var values = extractors.collect(f -> f.apply(value));
+		if(! values.allSatisfy(KeysetCursor::isSupported))
+		{
+			return new OffsetBasedCursor(offset);
+		}
+
+		return new KeysetCursor(offset, values, StorageImpl.getID(value));
+	}
+}
@@ -63,7 +63,7 @@ public class OffsetBasedCursor
 		int offset = (data[1] & 0xff) |
 			(data[2] & 0xff) << 8 |
 			(data[3] & 0xff) << 16 |
-			(data[3] & 0xff) << 24;
+			(data[4] & 0xff) << 24;
 
 		return new OffsetBasedCursor(offset);
 	}
@@ -1,22 +1,51 @@
 package com.circumgraph.storage.internal.search;
 
+import java.util.function.Function;
+
+import com.circumgraph.storage.StorageSearchException;
 import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.search.Facet;
+import com.circumgraph.storage.search.FacetBucket;
+import com.circumgraph.storage.search.FacetQuery;
 import com.circumgraph.storage.search.Page;
 import com.circumgraph.storage.search.Query;
 
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MapIterable;
+
 import se.l4.silo.index.FieldSort;
+import se.l4.silo.index.search.PaginatedSearchResult;
 import se.l4.silo.index.search.QueryClause;
 import se.l4.silo.index.search.SearchIndexQuery;
+import se.l4.silo.index.search.facets.FacetRequest;
+import se.l4.silo.index.search.facets.RangeFacetRequest;
+import se.l4.silo.index.search.facets.TermsFacetRequest;
 
 public class QueryImpl
 	implements Query
 {
 	private SearchIndexQuery.Builder<StoredObjectValue> query;
 	private Page page;
+	private boolean scoresNeeded;
+	private boolean itemsNeeded;
+
+	/**
+	 * Fields being sorted on, tracked to support keyset pagination. Only
+	 * valid if {@link #untrackedSort} is {@code false}.
+	 */
+	private final MutableList<SortField> sortFields;
+	private boolean untrackedSort;
+
+	private final MutableList<FacetQuery> facets;
 
 	public QueryImpl()
 	{
 		query = SearchIndexQuery.create("main", StoredObjectValue.class);
+		sortFields = Lists.mutable.empty();
+		facets = Lists.mutable.empty();
+		itemsNeeded = true;
 	}
 
 	@Override
@@ -29,9 +58,37 @@ public class QueryImpl
 	@Override
 	public Query withScoresNeeded(boolean scoresNeeded)
 	{
+		this.scoresNeeded = scoresNeeded;
 		return this;
 	}
 
+	@Override
+	public Query withItemsNeeded(boolean itemsNeeded)
+	{
+		this.itemsNeeded = itemsNeeded;
+		return this;
+	}
+
+	/**
+	 * Get if the items matching this query should be loaded.
+	 *
+	 * @return
+	 */
+	public boolean isItemsNeeded()
+	{
+		return itemsNeeded;
+	}
+
+	/**
+	 * Get the number of items requested by this query.
+	 *
+	 * @return
+	 */
+	public int getLimit()
+	{
+		return page == null ? 10 : page.getLimit();
+	}
+
 	@Override
 	public Query addClause(QueryClause clause)
 	{
@@ -49,6 +106,9 @@ public class QueryImpl
 	@Override
 	public Query addSort(FieldSort sort)
 	{
+		// The field of an instance of FieldSort is not known
+		untrackedSort = true;
+
 		query = query.sort(sort);
 		return this;
 	}
@@ -58,7 +118,7 @@ public class QueryImpl
 	{
 		for(var sort : sorts)
 		{
-			query = query.sort(sort);
+			addSort(sort);
 		}
 
 		return this;
@@ -67,17 +127,213 @@ public class QueryImpl
 	@Override
 	public Query addSort(String field, boolean ascending)
 	{
-		return addSort(FieldSort.create(field, ascending));
+		sortFields.add(new SortField(field, ascending));
+
+		query = query.sort(FieldSort.create(field, ascending));
+		return this;
+	}
+
+	@Override
+	public Query addFacet(FacetQuery facet)
+	{
+		facets.add(facet);
+		return this;
+	}
+
+	/**
+	 * Get the facets requested for this query.
+	 *
+	 * @return
+	 */
+	public ListIterable<FacetQuery> getFacets()
+	{
+		return facets;
 	}
 
-	public SearchIndexQuery.Limited<StoredObjectValue> buildQuery()
+	/**
+	 * Resolve if keyset pagination can be used for this query. This is
+	 * possible if the query is sorted and all of the sort fields have a
+	 * known way to extract their value. Queries with facets never use keyset
+	 * pagination as continuing from a cursor limits the hits the index
+	 * counts facets for.
+	 *
+	 * @param idField
+	 *   field used to break ties between hits
+	 * @param sortValues
+	 *   functions to extract the values of fields that can be used for
+	 *   keyset pagination
+	 * @return
+	 *   pagination or {@code null} if keyset pagination is not supported
+	 */
+	public KeysetPagination resolveKeyset(
+		String idField,
+		MapIterable<String, Function<StoredObjectValue, Object>> sortValues
+	)
 	{
-		var limit = page == null ? 10 : page.getLimit();
+		if(untrackedSort
+			|| sortFields.isEmpty()
+			|| ! facets.isEmpty()
+			|| ! sortFields.allSatisfy(f -> sortValues.containsKey(f.getField())))
+		{
+			return null;
+		}
+
 		var cursor = page == null ? null : page.getCursor().orElse(null);
+		var after = cursor instanceof KeysetCursor keyset
+			&& keyset.getValues().size() == sortFields.size()
+				? keyset
+				: null;
+
+		return new KeysetPagination(
+			idField,
+			sortFields.toImmutable(),
+			sortFields.collect(f -> sortValues.get(f.getField())),
+			after
+		);
+	}
+
+	public SearchIndexQuery.Limited<StoredObjectValue> buildQuery(
+		KeysetPagination keyset
+	)
+	{
+		var cursor = page == null ? null : page.getCursor().orElse(null);
+
+		/*
+		 * Hits are ordered by relevance if the query is not sorted, so scores
+		 * are needed in that case unless only the number of hits is used.
+		 */
+		var query = this.query.withScoresNeeded(
+			scoresNeeded || (itemsNeeded && sortFields.isEmpty() && ! untrackedSort)
+		);
+
+		if(keyset != null)
+		{
+			// Always sort on the id last so that the order is stable
+			query = query.sort(FieldSort.create(keyset.getIdField(), true));
+		}
+
+		// Facets are counted by the index in the same pass as the hits
+		for(var facet : facets)
+		{
+			query = query.addFacet(toRequest(facet));
+		}
+
+		int offset;
+		if(keyset != null && keyset.hasAfter())
+		{
+			query = query.add(keyset.toClause());
+			offset = 0;
+		}
+		else if(cursor instanceof KeysetCursor keysetCursor)
+		{
+			offset = keysetCursor.getOffset() + 1;
+		}
+		else
+		{
+			offset = cursor == null ? 0 : ((OffsetBasedCursor) cursor).getOffset() + 1;
+		}
+
 		return query
 			.limited()
-			.offset(cursor == null ? 0 : ((OffsetBasedCursor) cursor).getOffset() + 1)
-			.limit(limit)
+			.offset(offset)
+			/*
+			 * If items are not needed only a single hit is loaded, the index
+			 * still counts all of the matches. A limit of zero is not used as
+			 * the index always collects at least one hit, and as objects are
+			 * decoded lazily the hit that is loaded has none of its fields
+			 * decoded unless they are accessed.
+			 */
+			.limit(itemsNeeded ? getLimit() : 1)
 			.build();
 	}
+
+	/**
+	 * Read the facets requested by this query from the result of a query
+	 * built via {@link #buildQuery(KeysetPagination)}.
+	 *
+	 * @param result
+	 * @param fields
+	 *   functions to convert values counted by the index into values of
+	 *   the field, per field that supports facets
+	 * @return
+	 */
+	public ListIterable<Facet> readFacets(
+		PaginatedSearchResult<StoredObjectValue> result,
+		MapIterable<String, Function<Object, Object>> fields
+	)
+	{
+		return facets.collect(facet -> {
+			var values = result.getFacets().get(facet.getId())
+				.orElseThrow(() -> new StorageSearchException("Facet " + facet.getId() + " was not calculated"))
+				.getValues();
+
+			if(facet.getRanges().isEmpty())
+			{
+				var converter = fields.get(facet.getField());
+				return new FacetImpl(
+					facet.getId(),
+					values.collect(v -> (FacetBucket) new FacetBucketImpl(converter.apply(v.getValue()), null, v.getCount()))
+				);
+			}
+
+			// Ranges are returned in the same order as they were requested
+			return new FacetImpl(
+				facet.getId(),
+				facet.getRanges().collectWithIndex((range, i) -> (FacetBucket) new FacetBucketImpl(
+					null,
+					range,
+					i < values.size() ? values.get(i).getCount() : 0
+				))
+			);
+		});
+	}
+
+	/**
+	 * Convert a facet into a request for the index.
+	 *
+	 * @param facet
+	 * @return
+	 */
+	private static FacetRequest toRequest(FacetQuery facet)
+	{
+		if(facet.getRanges().isEmpty())
+		{
+			return TermsFacetRequest.create(facet.getId(), facet.getField())
+				.withLimit(facet.getLimit())
+				.build();
+		}
+
+		var request = RangeFacetRequest.create(facet.getId(), facet.getField());
+		for(var range : facet.getRanges())
+		{
+			request = request.addRange(range.getFrom(), range.getTo());
+		}
+
+		return request.build();
+	}
+
+	/**
+	 * Field that is being sorted on.
+	 */
+	public static class SortField
+	{
+		private final String field;
+		private final boolean ascending;
+
+		public SortField(String field, boolean ascending)
+		{
+			this.field = field;
+			this.ascending = ascending;
+		}
+
+		public String getField()
+		{
+			return field;
+		}
+
+		public boolean isAscending()
+		{
+			return ascending;
+		}
+	}
 }
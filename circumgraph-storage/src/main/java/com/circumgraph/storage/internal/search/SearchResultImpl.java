@@ -1,11 +1,14 @@
 package com.circumgraph.storage.internal.search;
 
 import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.search.Cursor;
 import com.circumgraph.storage.search.Edge;
+import com.circumgraph.storage.search.Facet;
 import com.circumgraph.storage.search.PageCursors;
 import com.circumgraph.storage.search.PageInfo;
 import com.circumgraph.storage.search.SearchResult;
 
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.list.ListIterable;
 
 import se.l4.silo.index.search.PaginatedSearchResult;
@@ -17,25 +20,87 @@ public class SearchResultImpl
 	implements SearchResult
 {
 	private final PaginatedSearchResult<StoredObjectValue> result;
+	private final KeysetPagination keyset;
+
+	private final int offset;
+	private final int total;
+	private final int limit;
+
+	private final ListIterable<Edge> edges;
 	private final PageInfo pageInfo;
+	private final ListIterable<Facet> facets;
 
+	/**
+	 * Create a result for a query that might have used keyset pagination. If
+	 * a keyset cursor was continued from the result only contains the hits
+	 * after the cursor, so the skipped hits are added to the offset and
+	 * total.
+	 *
+	 * @param result
+	 * @param keyset
+	 *   pagination used, or {@code null} if the query is not keyset based
+	 * @param limit
+	 *   number of items requested
+	 * @param itemsNeeded
+	 *   if the items were requested, if not the result has no edges
+	 * @param facets
+	 *   facets calculated for the query
+	 */
 	public SearchResultImpl(
-		PaginatedSearchResult<StoredObjectValue> result
+		PaginatedSearchResult<StoredObjectValue> result,
+		KeysetPagination keyset,
+		int limit,
+		boolean itemsNeeded,
+		ListIterable<Facet> facets
 	)
 	{
 		this.result = result;
+		this.keyset = keyset;
+		this.limit = limit;
+		this.facets = facets;
+
+		int skipped = keyset == null ? 0 : keyset.getSkipped();
+		offset = (int) result.getOffset() + skipped;
+		total = (int) result.getTotal() + skipped;
+
+		int size;
+		if(itemsNeeded)
+		{
+			edges = result
+				.getItems()
+				.collectWithIndex((hit, i) -> new EdgeImpl(
+					hit.score(),
+					createCursor(offset + i, hit.item()),
+					hit.item()
+				));
+
+			size = result.getSize();
+		}
+		else
+		{
+			edges = Lists.immutable.empty();
+			size = Math.max(0, Math.min(limit, total - offset));
+		}
+
 		pageInfo = new PageInfoImpl(
-			result.getTotal() > result.getOffset() + result.getSize(),
-			result.getOffset() > 1,
-			new OffsetBasedCursor((int) result.getOffset()),
-			new OffsetBasedCursor((int) (result.getOffset() + result.getSize()))
+			total > offset + size,
+			offset > 1,
+			edges.isEmpty() ? new OffsetBasedCursor(offset) : edges.getFirst().getCursor(),
+			edges.isEmpty() ? new OffsetBasedCursor(offset) : edges.getLast().getCursor()
 		);
 	}
 
+	private Cursor createCursor(int offset, StoredObjectValue value)
+	{
+		return keyset == null
+			? new OffsetBasedCursor(offset)
+			: keyset.createCursor(offset, value);
+	}
+
 	@Override
 	public int getTotalCount()
 	{
-		return (int) result.getTotal();
+		return total;
 	}
 
 	@Override
@@ -54,9 +119,9 @@ public class SearchResultImpl
 	public PageCursors getPageCursors(int max)
 	{
 		return new PageCursorsImpl(
-			(int) result.getOffset(),
-			(int) result.getTotal(),
-			(int) result.getLimit(),
+			offset,
+			total,
+			limit,
 			max
 		);
 	}
@@ -64,19 +129,24 @@ public class SearchResultImpl
 	@Override
 	public ListIterable<Edge> getEdges()
 	{
-		int offset = (int) result.getOffset();
-		return result
-			.getItems()
-			.collectWithIndex((hit, i) -> new EdgeImpl(
-				hit.score(),
-				new OffsetBasedCursor(offset + i),
-				hit.item()
-			));
+		return edges;
 	}
 
 	@Override
 	public ListIterable<StoredObjectValue> getNodes()
 	{
-		return getEdges().collect(Edge::getNode);
+		return edges.collect(Edge::getNode);
+	}
+
+	@Override
+	public ListIterable<Facet> getFacets()
+	{
+		return facets;
+	}
+
+	@Override
+	public Facet getFacet(String id)
+	{
+		return facets.detect(f -> f.getId().equals(id));
 	}
 }
@@ -3,10 +3,10 @@ package com.circumgraph.storage.internal.serializers;
 import java.io.IOException;
 
 import com.circumgraph.model.HasMetadata;
+import com.circumgraph.model.MetadataKey;
 import com.circumgraph.model.ModelException;
 import com.circumgraph.model.TypeDef;
 import com.circumgraph.storage.Value;
-import com.circumgraph.storage.internal.ValueSerializers;
 import com.circumgraph.storage.types.ValueSerializer;
 
 import se.l4.exobytes.streaming.StreamingInput;
@@ -16,12 +16,16 @@ public class DeferredValueSerializer
 	implements ValueSerializer<Value>
 {
 	private final HasMetadata def;
+	@SuppressWarnings("rawtypes")
+	private final MetadataKey<ValueSerializer> key;
 
 	private ValueSerializer<?> serializer;
 
-	public DeferredValueSerializer(HasMetadata def)
+	@SuppressWarnings("rawtypes")
+	public DeferredValueSerializer(HasMetadata def, MetadataKey<ValueSerializer> key)
 	{
 		this.def = def;
+		this.key = key;
 	}
 
 	@Override
@@ -36,7 +40,7 @@ public class DeferredValueSerializer
 		var serializer = this.serializer;
 		if(serializer == null)
 		{
-			serializer = def.getMetadata(ValueSerializers.SERIALIZER).get();
+			serializer = def.getMetadata(key).get();
 			if(serializer instanceof DeferredValueSerializer)
 			{
 				throw new ModelException("Internal error; Can not resolve non-deferred serializer for " + def);
@@ -6,6 +6,7 @@ import com.circumgraph.model.ObjectDef;
 import com.circumgraph.model.OutputTypeDef;
 import com.circumgraph.model.TypeDef;
 import com.circumgraph.storage.Value;
+import com.circumgraph.storage.internal.SchemaDictionary;
 import com.circumgraph.storage.types.ValueSerializer;
 
 import org.eclipse.collections.api.map.MapIterable;
@@ -16,21 +17,26 @@ import se.l4.exobytes.streaming.Token;
 
 /**
  * Handler that takes care of polymorphism. This type of value actually handles
- * {@link ObjectDef objects} or references to stored objects.
+ * {@link ObjectDef objects} or references to stored objects. The type is
+ * written either as its name or, if a {@link SchemaDictionary} is available,
+ * as the ordinal of its name.
  */
 public class PolymorphicValueSerializer
 	implements ValueSerializer<Value>
 {
 	private final OutputTypeDef def;
 	private final MapIterable<String, ValueSerializer<?>> subTypes;
+	private final SchemaDictionary dictionary;
 
 	public PolymorphicValueSerializer(
 		OutputTypeDef def,
-		MapIterable<String, ValueSerializer<?>> subTypes
+		MapIterable<String, ValueSerializer<?>> subTypes,
+		SchemaDictionary dictionary
 	)
 	{
 		this.def = def;
 		this.subTypes = subTypes;
+		this.dictionary = dictionary;
 	}
 
 	@Override
@@ -39,6 +45,18 @@ public class PolymorphicValueSerializer
 		return def;
 	}
 
+	/**
+	 * Get the serializer used for a sub-type.
+	 *
+	 * @param typename
+	 * @return
+	 *   serializer or {@code null} if the type is not supported
+	 */
+	public ValueSerializer<?> getSubType(String typename)
+	{
+		return subTypes.get(typename);
+	}
+
 	@Override
 	public Value read(StreamingInput in)
 		throws IOException
@@ -46,11 +64,13 @@ public class PolymorphicValueSerializer
 		in.next(Token.LIST_START);
 
 		in.next(Token.VALUE);
-		String typename = in.readString();
+		String typename = dictionary == null
+			? in.readString()
+			: dictionary.getName(in.readInt());
 
 		Value result;
 
-		ValueSerializer<?> subType = subTypes.get(typename);
+		ValueSerializer<?> subType = typename == null ? null : subTypes.get(typename);
 		if(subType == null)
 		{
 			in.skipNext();
@@ -75,7 +95,14 @@ public class PolymorphicValueSerializer
 		out.writeListStart(2);
 
 		String typename = object.getDefinition().getName();
-		out.writeString(typename);
+		if(dictionary == null)
+		{
+			out.writeString(typename);
+		}
+		else
+		{
+			out.writeInt(dictionary.getOrdinal(typename));
+		}
 
 		((ValueSerializer) subTypes.get(typename)).write(object, out);
 
@@ -6,6 +6,7 @@ import com.circumgraph.model.StructuredDef;
 import com.circumgraph.model.TypeDef;
 import com.circumgraph.storage.StructuredValue;
 import com.circumgraph.storage.Value;
+import com.circumgraph.storage.internal.SchemaDictionary;
 import com.circumgraph.storage.types.ValueSerializer;
 
 import org.eclipse.collections.api.factory.Maps;
@@ -17,19 +18,27 @@ import se.l4.exobytes.streaming.StreamingInput;
 import se.l4.exobytes.streaming.StreamingOutput;
 import se.l4.exobytes.streaming.Token;
 
+/**
+ * Serializer for {@link StructuredValue}. Fields are keyed either by their
+ * name or, if a {@link SchemaDictionary} is available, by the ordinal of
+ * their name.
+ */
 public class StructuredValueSerializer
 	implements ValueSerializer<StructuredValue>
 {
 	private final StructuredDef type;
 	private final MapIterable<String, ValueSerializer<?>> fields;
+	private final SchemaDictionary dictionary;
 
 	public StructuredValueSerializer(
 		StructuredDef type,
-		MapIterable<String, ValueSerializer<?>> fields
+		MapIterable<String, ValueSerializer<?>> fields,
+		SchemaDictionary dictionary
 	)
 	{
 		this.type = type;
 		this.fields = fields;
+		this.dictionary = dictionary;
 	}
 
 	@Override
@@ -38,6 +47,18 @@ public class StructuredValueSerializer
 		return type;
 	}
 
+	/**
+	 * Get the serializer used for a field.
+	 *
+	 * @param field
+	 * @return
+	 *   serializer or {@code null} if the field is not stored
+	 */
+	public ValueSerializer<?> getFieldSerializer(String field)
+	{
+		return fields.get(field);
+	}
+
 	@Override
 	public StructuredValue read(StreamingInput in)
 		throws IOException
@@ -51,9 +72,11 @@ public class StructuredValueSerializer
 		while(in.peek() != Token.OBJECT_END)
 		{
 			in.next();
-			String field = in.readString();
+			String field = dictionary == null
+				? in.readString()
+				: dictionary.getName(in.readInt());
 
-			ValueSerializer<?> serializer = fields.get(field);
+			ValueSerializer<?> serializer = field == null ? null : fields.get(field);
 			if(serializer == null)
 			{
 				// No serializer, the field has been removed so the value has to be skipped
@@ -86,7 +109,15 @@ public class StructuredValueSerializer
 				throw new IOException("Tried writing field that does not exist: " + e.getOne());
 			}
 
-			out.writeString(e.getOne());
+			if(dictionary == null)
+			{
+				out.writeString(e.getOne());
+			}
+			else
+			{
+				out.writeInt(dictionary.getOrdinal(e.getOne()));
+			}
+
 			out.writeObject(serializer, e.getTwo());
 		}
 
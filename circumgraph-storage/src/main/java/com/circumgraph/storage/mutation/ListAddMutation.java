@@ -0,0 +1,45 @@
+package com.circumgraph.storage.mutation;
+
+import com.circumgraph.storage.internal.mutation.ListAddMutationImpl;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Mutation that adds values to the end of a list.
+ */
+public interface ListAddMutation<M extends Mutation>
+	extends ListMutation<M>
+{
+	/**
+	 * Get the values that should be added to the list.
+	 *
+	 * @return
+	 */
+	ListIterable<M> getValues();
+
+	/**
+	 * Create a mutation that will add the given values.
+	 *
+	 * @param <M>
+	 * @param values
+	 * @return
+	 */
+	static <M extends Mutation> ListAddMutation<M> create(Iterable<M> values)
+	{
+		return new ListAddMutationImpl<>(Lists.immutable.ofAll(values));
+	}
+
+	/**
+	 * Create a mutation that will add the given values.
+	 *
+	 * @param <M>
+	 * @param values
+	 * @return
+	 */
+	@SafeVarargs
+	static <M extends Mutation> ListAddMutation<M> create(M... values)
+	{
+		return create(Lists.immutable.of(values));
+	}
+}
@@ -0,0 +1,55 @@
+package com.circumgraph.storage.mutation;
+
+import com.circumgraph.storage.internal.mutation.ListInsertMutationImpl;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Mutation that inserts values into a list at a certain index.
+ */
+public interface ListInsertMutation<M extends Mutation>
+	extends ListMutation<M>
+{
+	/**
+	 * Get the index the values should be inserted at. The index must be
+	 * between zero and the size of the list.
+	 *
+	 * @return
+	 */
+	int getIndex();
+
+	/**
+	 * Get the values that should be inserted.
+	 *
+	 * @return
+	 */
+	ListIterable<M> getValues();
+
+	/**
+	 * Create a mutation that will insert the given values.
+	 *
+	 * @param <M>
+	 * @param index
+	 * @param values
+	 * @return
+	 */
+	static <M extends Mutation> ListInsertMutation<M> create(int index, Iterable<M> values)
+	{
+		return new ListInsertMutationImpl<>(index, Lists.immutable.ofAll(values));
+	}
+
+	/**
+	 * Create a mutation that will insert the given values.
+	 *
+	 * @param <M>
+	 * @param index
+	 * @param values
+	 * @return
+	 */
+	@SafeVarargs
+	static <M extends Mutation> ListInsertMutation<M> create(int index, M... values)
+	{
+		return create(index, Lists.immutable.of(values));
+	}
+}
@@ -0,0 +1,46 @@
+package com.circumgraph.storage.mutation;
+
+import com.circumgraph.storage.internal.mutation.ListRemoveMutationImpl;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Mutation that removes values from a list. Every item in the list that is
+ * equal to one of the values is removed.
+ */
+public interface ListRemoveMutation<M extends Mutation>
+	extends ListMutation<M>
+{
+	/**
+	 * Get the values that should be removed from the list.
+	 *
+	 * @return
+	 */
+	ListIterable<M> getValues();
+
+	/**
+	 * Create a mutation that will remove the given values.
+	 *
+	 * @param <M>
+	 * @param values
+	 * @return
+	 */
+	static <M extends Mutation> ListRemoveMutation<M> create(Iterable<M> values)
+	{
+		return new ListRemoveMutationImpl<>(Lists.immutable.ofAll(values));
+	}
+
+	/**
+	 * Create a mutation that will remove the given values.
+	 *
+	 * @param <M>
+	 * @param values
+	 * @return
+	 */
+	@SafeVarargs
+	static <M extends Mutation> ListRemoveMutation<M> create(M... values)
+	{
+		return create(Lists.immutable.of(values));
+	}
+}
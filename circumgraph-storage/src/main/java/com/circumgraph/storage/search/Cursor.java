@@ -1,5 +1,6 @@
 package com.circumgraph.storage.search;
 
+import com.circumgraph.storage.internal.search.KeysetCursor;
 import com.circumgraph.storage.internal.search.OffsetBasedCursor;
 
 /**
@@ -21,6 +22,9 @@ public interface Cursor
 			case 0:
 				// Offset based
 				return OffsetBasedCursor.from(data);
+			case 1:
+				// Sort values and id of the last hit
+				return KeysetCursor.from(data);
 			default:
 				throw new IllegalArgumentException();
 		}
@@ -0,0 +1,27 @@
+package com.circumgraph.storage.search;
+
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Facet calculated for a search, contains the number of hits for values
+ * or ranges of a field.
+ */
+public interface Facet
+{
+	/**
+	 * Get the identifier of the {@link FacetQuery} this facet was
+	 * calculated for.
+	 *
+	 * @return
+	 */
+	String getId();
+
+	/**
+	 * Get the buckets of this facet. For facets counting values they are
+	 * ordered with the most common value first, for ranges they are in the
+	 * same order as requested.
+	 *
+	 * @return
+	 */
+	ListIterable<FacetBucket> getBuckets();
+}
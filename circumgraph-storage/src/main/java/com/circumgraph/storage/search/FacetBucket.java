@@ -0,0 +1,30 @@
+package com.circumgraph.storage.search;
+
+/**
+ * Bucket in a {@link Facet}, either a single value or a range.
+ */
+public interface FacetBucket
+{
+	/**
+	 * Get the value of this bucket.
+	 *
+	 * @return
+	 *   value or {@code null} if this bucket represents a range
+	 */
+	Object getValue();
+
+	/**
+	 * Get the range of this bucket.
+	 *
+	 * @return
+	 *   range or {@code null} if this bucket represents a value
+	 */
+	FacetRange getRange();
+
+	/**
+	 * Get the number of hits in this bucket.
+	 *
+	 * @return
+	 */
+	int getCount();
+}
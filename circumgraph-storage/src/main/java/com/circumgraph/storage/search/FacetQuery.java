@@ -0,0 +1,79 @@
+package com.circumgraph.storage.search;
+
+import com.circumgraph.storage.internal.search.FacetQueryImpl;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+
+/**
+ * Facet requested as part of a {@link Query}. Facets either count the
+ * number of hits for every value of a field, or the number of hits with a
+ * value within a set of ranges.
+ */
+public interface FacetQuery
+{
+	/**
+	 * Get the identifier of this facet, used to find it in the
+	 * {@link SearchResult}.
+	 *
+	 * @return
+	 */
+	String getId();
+
+	/**
+	 * Get the field that values are taken from, in the same format as used
+	 * for sorting.
+	 *
+	 * @return
+	 */
+	String getField();
+
+	/**
+	 * Get the maximum number of values to return for a facet counting
+	 * values.
+	 *
+	 * @return
+	 */
+	int getLimit();
+
+	/**
+	 * Get the ranges to count hits in. If empty values are counted.
+	 *
+	 * @return
+	 */
+	ListIterable<FacetRange> getRanges();
+
+	/**
+	 * Create a facet that counts the number of hits per value of a field.
+	 * The values with most hits are returned first.
+	 *
+	 * @param id
+	 *   identifier of the facet
+	 * @param field
+	 *   field to count values of
+	 * @param limit
+	 *   maximum number of values to return
+	 * @return
+	 */
+	static FacetQuery terms(String id, String field, int limit)
+	{
+		return new FacetQueryImpl(id, field, limit, Lists.immutable.empty());
+	}
+
+	/**
+	 * Create a facet that counts the number of hits with a value within
+	 * each of the given ranges.
+	 *
+	 * @param id
+	 *   identifier of the facet
+	 * @param field
+	 *   field to count values of
+	 * @param ranges
+	 *   ranges to count hits in
+	 * @return
+	 */
+	static FacetQuery ranges(String id, String field, Iterable<? extends FacetRange> ranges)
+	{
+		return new FacetQueryImpl(id, field, 0, Lists.immutable.ofAll(ranges));
+	}
+}
@@ -0,0 +1,40 @@
+package com.circumgraph.storage.search;
+
+import com.circumgraph.storage.internal.search.FacetRangeImpl;
+
+/**
+ * Range used for a {@link FacetQuery}. The start of the range is inclusive
+ * and the end is exclusive.
+ */
+public interface FacetRange
+{
+	/**
+	 * Get the start of the range.
+	 *
+	 * @return
+	 *   start or {@code null} if the range has no lower bound
+	 */
+	Object getFrom();
+
+	/**
+	 * Get the end of the range.
+	 *
+	 * @return
+	 *   end or {@code null} if the range has no upper bound
+	 */
+	Object getTo();
+
+	/**
+	 * Create a range between the two values.
+	 *
+	 * @param from
+	 *   inclusive start, {@code null} for no lower bound
+	 * @param to
+	 *   exclusive end, {@code null} for no upper bound
+	 * @return
+	 */
+	static FacetRange between(Object from, Object to)
+	{
+		return new FacetRangeImpl(from, to);
+	}
+}
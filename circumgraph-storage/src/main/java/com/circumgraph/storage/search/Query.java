@@ -42,6 +42,8 @@ public interface Query
 	 * No scores means that all {@link Edge edges} will return {@code 0} instead
 	 * of the actual score when {@link Edge#getScore()} is called. This allows
 	 * for an optimization in the query where it can be resolved faster.
+	 * Scores are always calculated for queries without a sort, as hits are
+	 * then ordered by their relevance.
 	 *
 	 * @param scoresNeeded
 	 *   {@code true} if scores should be calculated
@@ -50,6 +52,21 @@ public interface Query
 	 */
 	Query withScoresNeeded(boolean scoresNeeded);
 
+	/**
+	 * Set if the items matching the query are needed. This will default to
+	 * {@code true} if this is not used.
+	 *
+	 * No items means that the result will have no {@link Edge edges}, but
+	 * the total count and page information is still available. This allows
+	 * counting hits without loading the objects that match.
+	 *
+	 * @param itemsNeeded
+	 *   {@code true} if items should be loaded
+	 * @return
+	 *   self
+	 */
+	Query withItemsNeeded(boolean itemsNeeded);
+
 	/**
 	 * Add a clause to the query. All top level clauses must match, effectively
 	 * creating a {@link se.l4.silo.index.search.query.AndQuery}.
@@ -105,4 +122,16 @@ public interface Query
 	 *   self
 	 */
 	Query addSort(Iterable<? extends FieldSort> sorts);
+
+	/**
+	 * Add a facet to calculate for all hits matching the query. Facets are
+	 * counted by the search index in the same pass as the hits are found and
+	 * are available via {@link SearchResult#getFacets()}.
+	 *
+	 * @param facet
+	 *   facet to calculate
+	 * @return
+	 *   self
+	 */
+	Query addFacet(FacetQuery facet);
 }
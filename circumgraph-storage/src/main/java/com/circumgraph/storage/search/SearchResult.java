@@ -52,4 +52,20 @@ public interface SearchResult
 	 * @return
 	 */
 	ListIterable<StoredObjectValue> getNodes();
+
+	/**
+	 * Get the facets requested via {@link Query#addFacet(FacetQuery)}.
+	 *
+	 * @return
+	 */
+	ListIterable<Facet> getFacets();
+
+	/**
+	 * Get a facet using its identifier.
+	 *
+	 * @param id
+	 * @return
+	 *   facet or {@code null} if no facet with the identifier was requested
+	 */
+	Facet getFacet(String id);
 }
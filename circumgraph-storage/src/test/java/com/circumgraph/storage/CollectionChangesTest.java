@@ -0,0 +1,224 @@
+package com.circumgraph.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.NonNullDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+
+public class CollectionChangesTest
+	extends StorageTest
+{
+	private Schema schema;
+	private Collection collection;
+
+	@BeforeEach
+	public void setup()
+	{
+		schema = Schema.create()
+			.addType(ObjectDef.create("Test")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("value")
+					.withType(NonNullDef.output(ScalarDef.INT))
+					.build()
+				)
+				.build()
+			)
+			.build();
+
+		storage = open(schema);
+		collection = storage.get("Test");
+	}
+
+	private StoredObjectValue store(int value)
+	{
+		return collection.store(collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(value))
+			.build()
+		).block();
+	}
+
+	@Test
+	public void testStoreAndDelete()
+	{
+		var changes = collection.changes()
+			.take(2)
+			.collectList()
+			.toFuture();
+
+		var stored = store(1);
+		collection.delete(stored.getId()).block();
+
+		var result = changes.join();
+		assertThat(result.get(0).getId(), is(stored.getId()));
+		assertThat(result.get(0).getDefinition().getName(), is("Test"));
+		assertThat(result.get(0).getOperation(), is(CollectionChange.Operation.STORED));
+
+		assertThat(result.get(1).getId(), is(stored.getId()));
+		assertThat(result.get(1).getOperation(), is(CollectionChange.Operation.DELETED));
+		assertThat(result.get(1).getSequence(), is(result.get(0).getSequence() + 1));
+	}
+
+	@Test
+	public void testUnchangedNotEmitted()
+	{
+		var stored = store(1);
+
+		var changes = collection.changes()
+			.take(1)
+			.collectList()
+			.toFuture();
+
+		collection.store(stored.getId(), collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(1))
+			.build()
+		).block();
+
+		var updated = collection.store(stored.getId(), collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(2))
+			.build()
+		).block();
+
+		var result = changes.join();
+		assertThat(result.get(0).getId(), is(updated.getId()));
+	}
+
+	@Test
+	public void testSequenceIncreasesAfterRestart()
+	{
+		var first = collection.changes()
+			.take(1)
+			.collectList()
+			.toFuture();
+
+		store(1);
+
+		var sequence = first.join().get(0).getSequence();
+
+		storage.close();
+		storage = Storage.open(createModel(schema), tmp)
+			.start()
+			.block();
+		collection = storage.get("Test");
+
+		var next = collection.changes()
+			.take(1)
+			.collectList()
+			.toFuture();
+
+		store(2);
+
+		assertThat(next.join().get(0).getSequence() > sequence, is(true));
+
+		assertThrows(StorageException.class, () -> {
+			collection.changes(sequence).blockFirst(Duration.ofSeconds(5));
+		});
+	}
+
+	@Test
+	public void testResume()
+	{
+		var first = collection.changes()
+			.take(1)
+			.collectList()
+			.toFuture();
+
+		store(1);
+		store(2);
+		store(3);
+
+		var sequence = first.join().get(0).getSequence();
+
+		var resumed = collection.changes(sequence)
+			.take(2)
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		assertThat(resumed.get(0).getSequence(), is(sequence + 1));
+		assertThat(resumed.get(1).getSequence(), is(sequence + 2));
+	}
+
+	@Test
+	public void testResumeUnavailable()
+	{
+		assertThrows(StorageException.class, () -> {
+			collection.changes(0).blockFirst(Duration.ofSeconds(5));
+		});
+	}
+
+	@Test
+	public void testRolledBackNotEmitted()
+	{
+		var changes = collection.changes()
+			.take(1)
+			.collectList()
+			.toFuture();
+
+		var tx = storage.transactions().newTransaction().block();
+
+		tx.wrap(collection.store(collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(1))
+			.build()
+		)).block();
+
+		tx.rollback().block();
+
+		var stored = store(2);
+
+		assertThat(changes.join().get(0).getId(), is(stored.getId()));
+	}
+
+	@Test
+	public void testNotEmittedBeforeCommit()
+	{
+		var changes = collection.changes()
+			.take(1)
+			.collectList()
+			.toFuture();
+
+		var tx = storage.transactions().newTransaction().block();
+
+		var stored = tx.wrap(collection.store(collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(1))
+			.build()
+		)).block();
+
+		assertThat(changes.isDone(), is(false));
+
+		tx.commit().block();
+
+		assertThat(changes.join().get(0).getId(), is(stored.getId()));
+	}
+
+	@Test
+	public void testTransactionalEmittedAfterCommit()
+	{
+		var changes = collection.changes()
+			.take(2)
+			.collectList()
+			.toFuture();
+
+		var stored = storage.transactions().transactional(Flux.range(1, 2)
+			.concatMap(i -> collection.store(collection.newMutation()
+				.updateField("value", ScalarValueMutation.createInt(i))
+				.build()
+			))
+		).collectList().block();
+
+		var result = changes.join();
+		assertThat(result.get(0).getId(), is(stored.get(0).getId()));
+		assertThat(result.get(1).getId(), is(stored.get(1).getId()));
+	}
+}
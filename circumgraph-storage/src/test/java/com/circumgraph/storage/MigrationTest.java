@@ -0,0 +1,133 @@
+package com.circumgraph.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+
+import com.circumgraph.model.DirectiveUse;
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.search.Query;
+import com.circumgraph.storage.search.QueryPath;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import se.l4.silo.index.EqualsMatcher;
+import se.l4.silo.index.RangeMatcher;
+
+public class MigrationTest
+	extends StorageTest
+{
+	private Schema createSchema(boolean indexed)
+	{
+		var field = FieldDef.create("value")
+			.withType(ScalarDef.INT);
+
+		if(indexed)
+		{
+			field = field.addDirective(DirectiveUse.create("index").build());
+		}
+
+		return Schema.create()
+			.addType(ObjectDef.create("Test")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(field.build())
+				.build()
+			)
+			.build();
+	}
+
+	private Storage start(Schema schema)
+	{
+		return Storage.open(createModel(schema), tmp)
+			.withMigrationRateLimit(0)
+			.start()
+			.block();
+	}
+
+	@Test
+	public void testNoMigrationWhenUnchanged()
+	{
+		var first = start(createSchema(false));
+		first.awaitMigrations().block(Duration.ofSeconds(10));
+		first.close();
+
+		storage = start(createSchema(false));
+		assertThat(storage.getMigrations().isEmpty(), is(true));
+	}
+
+	@Test
+	public void testFieldBecomesIndexed()
+	{
+		var first = start(createSchema(false));
+		first.awaitMigrations().block(Duration.ofSeconds(10));
+
+		var collection = first.get("Test");
+		for(int i=0; i<10; i++)
+		{
+			collection.store(collection.newMutation()
+				.updateField("value", ScalarValueMutation.createInt(i))
+				.build()
+			).block();
+		}
+
+		first.close();
+
+		storage = start(createSchema(true));
+		assertThat(storage.getMigrations().size(), is(1));
+
+		storage.awaitMigrations().block(Duration.ofSeconds(10));
+
+		var migration = storage.getMigrations().getFirst();
+		assertThat(migration.isCompleted(), is(true));
+		assertThat(migration.getMigrated(), is(10L));
+
+		collection = storage.get("Test");
+		var root = QueryPath.root(collection.getDefinition());
+		var results = collection.search(Query.create()
+			.addClause(root.field("value").toQuery(EqualsMatcher.create(5)))
+		).block();
+
+		assertThat(results.getTotalCount(), is(1));
+	}
+
+	@Test
+	public void testMigratesMoreThanOneBatch()
+	{
+		var first = start(createSchema(false));
+		first.awaitMigrations().block(Duration.ofSeconds(10));
+
+		// Stored without the field being indexed, more than a single batch
+		var collection = first.get("Test");
+		collection.storeAll(Flux.range(0, 1200)
+			.map(i -> collection.newMutation()
+				.updateField("value", ScalarValueMutation.createInt(i))
+				.build()
+			)
+		).blockLast();
+
+		first.close();
+
+		storage = start(createSchema(true));
+		storage.awaitMigrations().block(Duration.ofSeconds(30));
+
+		var migration = storage.getMigrations().getFirst();
+		assertThat(migration.isCompleted(), is(true));
+		assertThat(migration.getFailure().isPresent(), is(false));
+		assertThat(migration.getTotal(), is(1200L));
+		assertThat(migration.getMigrated(), is(1200L));
+
+		collection = storage.get("Test");
+		var root = QueryPath.root(collection.getDefinition());
+		var results = collection.search(Query.create()
+			.addClause(root.field("value").toQuery(RangeMatcher.between(1100, true, 1200, false)))
+		).block();
+
+		assertThat(results.getTotalCount(), is(100));
+	}
+}
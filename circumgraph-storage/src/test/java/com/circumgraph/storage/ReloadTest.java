@@ -0,0 +1,176 @@
+package com.circumgraph.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.time.Duration;
+
+import com.circumgraph.model.DirectiveUse;
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.search.Query;
+import com.circumgraph.storage.search.QueryPath;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import se.l4.silo.index.EqualsMatcher;
+
+public class ReloadTest
+	extends StorageTest
+{
+	private Schema createSchema(String description, boolean indexed)
+	{
+		var field = FieldDef.create("value")
+			.withType(ScalarDef.INT)
+			.withDescription(description);
+
+		if(indexed)
+		{
+			field = field.addDirective(DirectiveUse.create("index").build());
+		}
+
+		return Schema.create()
+			.addType(ObjectDef.create("Test")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(field.build())
+				.build()
+			)
+			.addType(ObjectDef.create("Other")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("name")
+					.withType(ScalarDef.STRING)
+					.build()
+				)
+				.build()
+			)
+			.build();
+	}
+
+	private String storeOther(String name)
+	{
+		var collection = storage.get("Other");
+		return collection.store(collection.newMutation()
+			.updateField("name", ScalarValueMutation.createString(name))
+			.build()
+		).block().getId();
+	}
+
+	private String store(int value)
+	{
+		var collection = storage.get("Test");
+		return collection.store(collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(value))
+			.build()
+		).block().getId();
+	}
+
+	@Test
+	public void testReloadWithoutStorageChanges()
+	{
+		open(createSchema("First", false));
+		var id = store(10);
+
+		var model = createModel(createSchema("Second", false));
+		var reloaded = storage.reload(model).block();
+		storage = reloaded;
+
+		assertThat(reloaded.getModel(), sameInstance(model));
+		assertThat(reloaded.getMigrations().isEmpty(), is(true));
+
+		var object = reloaded.get("Test").get(id).block();
+		var def = object.getDefinition();
+		assertThat(def.getField("value").get().getDescription().get(), is("Second"));
+		assertThat(def, sameInstance(reloaded.get("Test").getDefinition()));
+		assertThat(((SimpleValue) object.getFields().get("value")).get(), is(10));
+
+		var secondId = store(20);
+		var second = reloaded.get("Test").get(secondId).block();
+		assertThat(((SimpleValue) second.getFields().get("value")).get(), is(20));
+	}
+
+	@Test
+	public void testReloadWithChangedIndex()
+	{
+		open(createSchema("First", false));
+		store(10);
+
+		var reloaded = storage.reload(createModel(createSchema("First", true))).block();
+		storage = reloaded;
+
+		assertThat(reloaded.getMigrations().size(), is(1));
+		reloaded.awaitMigrations().block(Duration.ofSeconds(10));
+
+		var collection = reloaded.get("Test");
+		var root = QueryPath.root(collection.getDefinition());
+		var results = collection.search(Query.create()
+			.addClause(root.field("value").toQuery(EqualsMatcher.create(10)))
+		).block();
+
+		assertThat(results.getTotalCount(), is(1));
+	}
+
+	@Test
+	public void testReloadKeepsUnchangedCollections()
+	{
+		open(createSchema("First", false));
+		var test = storage.get("Test");
+		var other = storage.get("Other");
+
+		storage = storage.reload(createModel(createSchema("Second", false))).block();
+
+		assertThat(storage.get("Other"), sameInstance(other));
+		assertThat(storage.get("Test"), not(sameInstance(test)));
+	}
+
+	@Test
+	public void testReloadWithChangedIndexKeepsOtherCollections()
+	{
+		open(createSchema("First", false));
+		var id = storeOther("kept");
+
+		storage = storage.reload(createModel(createSchema("First", true))).block();
+
+		var object = storage.get("Other").get(id).block();
+		assertThat(((SimpleValue) object.getFields().get("name")).get(), is("kept"));
+
+		var secondId = storeOther("stored");
+		var second = storage.get("Other").get(secondId).block();
+		assertThat(((SimpleValue) second.getFields().get("name")).get(), is("stored"));
+	}
+
+	@Test
+	public void testReloadKeepsSearchCache()
+	{
+		var registry = new SimpleMeterRegistry();
+		var previous = Storage.open(createModel(createSchema("First", false)), tmp)
+			.withMeterRegistry(registry)
+			.withSearchCache(1000)
+			.start()
+			.block();
+
+		storage = previous.reload(createModel(createSchema("Second", false))).block();
+
+		var collection = storage.get("Test");
+		assertThat(collection.search(Query.create()).block().getTotalCount(), is(0));
+
+		// Writing via the replaced storage must invalidate the cache in use
+		var previousCollection = previous.get("Test");
+		previousCollection.store(previousCollection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(10))
+			.build()
+		).block();
+
+		assertThat(collection.search(Query.create()).block().getTotalCount(), is(1));
+
+		var gauges = registry.find("circumgraph.storage.search.cache.size")
+			.tag("collection", "Test")
+			.gauges();
+		assertThat(gauges.size(), is(1));
+	}
+}
@@ -0,0 +1,152 @@
+package com.circumgraph.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.NonNullDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.search.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SearchCacheTest
+	extends StorageTest
+{
+	private SimpleMeterRegistry registry;
+	private Collection collection;
+
+	@BeforeEach
+	public void setup()
+	{
+		var schema = Schema.create()
+			.addType(ObjectDef.create("Test")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("value")
+					.withType(NonNullDef.output(ScalarDef.INT))
+					.build()
+				)
+				.build()
+			)
+			.build();
+
+		registry = new SimpleMeterRegistry();
+		storage = Storage.open(createModel(schema), tmp)
+			.withMeterRegistry(registry)
+			.withSearchCache(1000)
+			.start()
+			.block();
+
+		collection = storage.get("Test");
+	}
+
+	private StoredObjectValue store(int value)
+	{
+		return collection.store(collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(value))
+			.build()
+		).block();
+	}
+
+	private double cacheGets(String result)
+	{
+		return registry.get("circumgraph.storage.search.cache.gets")
+			.tag("collection", "Test")
+			.tag("result", result)
+			.functionCounter()
+			.count();
+	}
+
+	@Test
+	public void testRepeatedSearchIsCached()
+	{
+		store(1);
+
+		var results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(1));
+		assertThat(cacheGets("hit"), is(0.0));
+
+		results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(1));
+		assertThat(cacheGets("hit"), is(1.0));
+	}
+
+	@Test
+	public void testSearchSeesStore()
+	{
+		store(1);
+
+		var results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(1));
+
+		store(2);
+
+		results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(2));
+	}
+
+	@Test
+	public void testSearchSeesDelete()
+	{
+		var stored = store(1);
+
+		var results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(1));
+
+		collection.delete(stored.getId()).block();
+
+		results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(0));
+	}
+
+	@Test
+	public void testSearchSeesCommittedTransaction()
+	{
+		store(1);
+
+		var results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(1));
+
+		var tx = storage.transactions().newTransaction().block();
+
+		tx.wrap(collection.store(collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(2))
+			.build()
+		)).block();
+
+		tx.commit().block();
+
+		results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(2));
+	}
+
+	@Test
+	public void testSearchBeforeCommitNotCached()
+	{
+		store(1);
+
+		var results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(1));
+
+		var tx = storage.transactions().newTransaction().block();
+
+		tx.wrap(collection.store(collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(2))
+			.build()
+		)).block();
+
+		results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(1));
+
+		tx.commit().block();
+
+		results = collection.search(Query.create()).block();
+		assertThat(results.getTotalCount(), is(2));
+	}
+}
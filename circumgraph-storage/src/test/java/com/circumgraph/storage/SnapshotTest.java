@@ -0,0 +1,197 @@
+package com.circumgraph.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.Model;
+import com.circumgraph.model.NonNullDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.search.Query;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import reactor.core.publisher.Mono;
+
+public class SnapshotTest
+	extends StorageTest
+{
+	@TempDir
+	Path snapshots;
+
+	@TempDir
+	Path restored;
+
+	private Model model;
+
+	@BeforeEach
+	public void setup()
+	{
+		var schema = Schema.create()
+			.addType(ObjectDef.create("Test")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("value")
+					.withType(NonNullDef.output(ScalarDef.INT))
+					.build()
+				)
+				.build()
+			)
+			.build();
+
+		model = createModel(schema);
+		storage = Storage.open(model, tmp)
+			.withSnapshotRateLimit(0)
+			.start()
+			.block();
+	}
+
+	private StoredObjectValue store(Storage storage, int value)
+	{
+		var collection = storage.get("Test");
+		return collection.store(collection.newMutation()
+			.updateField("value", ScalarValueMutation.createInt(value))
+			.build()
+		).block();
+	}
+
+	@Test
+	public void testSnapshotAndRestore()
+	{
+		var stored = store(storage, 1);
+
+		storage.snapshot(snapshots).block();
+
+		// Changes after the snapshot should not be restored
+		store(storage, 2);
+
+		var restoredStorage = Storage.open(model, restored)
+			.withRestoreFrom(snapshots)
+			.start()
+			.block();
+
+		try
+		{
+			var collection = restoredStorage.get("Test");
+			var value = collection.get(stored.getId()).block();
+			assertThat(value, is(stored));
+
+			var results = collection.search(Query.create()).block();
+			assertThat(results.getTotalCount(), is(1));
+		}
+		finally
+		{
+			restoredStorage.close();
+		}
+	}
+
+	@Test
+	public void testRestoreKeepsSchemaVersions()
+	{
+		storage.awaitMigrations().block(Duration.ofSeconds(30));
+		store(storage, 1);
+
+		storage.snapshot(snapshots).block();
+		assertThat(Files.exists(snapshots.resolve("schema.versions")), is(true));
+
+		var restoredStorage = Storage.open(model, restored)
+			.withRestoreFrom(snapshots)
+			.start()
+			.block();
+
+		try
+		{
+			// Schema is unchanged since the snapshot, nothing to migrate
+			assertThat(restoredStorage.getMigrations().isEmpty(), is(true));
+		}
+		finally
+		{
+			restoredStorage.close();
+		}
+	}
+
+	@Test
+	public void testRepeatedSnapshot()
+	{
+		store(storage, 1);
+		storage.snapshot(snapshots).block();
+
+		var stored = store(storage, 2);
+		storage.snapshot(snapshots).block();
+
+		var restoredStorage = Storage.open(model, restored)
+			.withRestoreFrom(snapshots)
+			.start()
+			.block();
+
+		try
+		{
+			var collection = restoredStorage.get("Test");
+			assertThat(collection.get(stored.getId()).block(), is(stored));
+		}
+		finally
+		{
+			restoredStorage.close();
+		}
+	}
+
+	@Test
+	public void testConcurrentSnapshots()
+	{
+		var stored = store(storage, 1);
+
+		Mono.when(
+			storage.snapshot(snapshots),
+			storage.snapshot(snapshots),
+			storage.snapshot(snapshots)
+		).block();
+
+		var restoredStorage = Storage.open(model, restored)
+			.withRestoreFrom(snapshots)
+			.start()
+			.block();
+
+		try
+		{
+			var collection = restoredStorage.get("Test");
+			assertThat(collection.get(stored.getId()).block(), is(stored));
+		}
+		finally
+		{
+			restoredStorage.close();
+		}
+	}
+
+	@Test
+	public void testRestoreIntoNonEmptyDirectory()
+	{
+		storage.snapshot(snapshots).block();
+
+		assertThrows(StorageException.class, () -> {
+			Storage.open(model, tmp)
+				.withRestoreFrom(snapshots)
+				.start()
+				.block();
+		});
+	}
+
+	@Test
+	public void testRestoreWithoutSnapshot()
+	{
+		assertThrows(StorageException.class, () -> {
+			Storage.open(model, restored)
+				.withRestoreFrom(snapshots)
+				.start()
+				.block();
+		});
+	}
+}
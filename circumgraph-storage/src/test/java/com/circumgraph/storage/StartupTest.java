@@ -0,0 +1,83 @@
+package com.circumgraph.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.ListDef;
+import com.circumgraph.model.NonNullDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.mutation.ListSetMutation;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.mutation.StructuredMutation;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that storages with many collections sharing types are set up
+ * correctly, as collections are set up in parallel.
+ */
+public class StartupTest
+	extends StorageTest
+{
+	private static final int COLLECTIONS = 16;
+
+	private Schema createSchema()
+	{
+		var schema = Schema.create()
+			.addType(ObjectDef.create("Shared")
+				.addField(FieldDef.create("name")
+					.withType(NonNullDef.output(ScalarDef.STRING))
+					.build()
+				)
+				.build()
+			);
+
+		for(int i=0; i<COLLECTIONS; i++)
+		{
+			schema = schema.addType(ObjectDef.create("Test" + i)
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("value")
+					.withType(ScalarDef.INT)
+					.build()
+				)
+				.addField(FieldDef.create("shared")
+					.withType(ListDef.output(NonNullDef.output("Shared")))
+					.build()
+				)
+				.build()
+			);
+		}
+
+		return schema.build();
+	}
+
+	@Test
+	public void testCollectionsWithSharedTypes()
+	{
+		open(createSchema());
+
+		var shared = storage.getModel().get("Shared", ObjectDef.class).get();
+		for(int i=0; i<COLLECTIONS; i++)
+		{
+			var collection = storage.get("Test" + i);
+			var stored = collection.store(collection.newMutation()
+				.updateField("value", ScalarValueMutation.createInt(i))
+				.updateField("shared", ListSetMutation.create(
+					StructuredMutation.create(shared)
+						.updateField("name", ScalarValueMutation.createString("n" + i))
+						.build()
+				))
+				.build()
+			).block();
+
+			var fetched = collection.get(stored.getId()).block();
+			assertThat(((SimpleValue) fetched.getField("value").get()).get(), is(i));
+
+			var item = ((ListValue<?>) fetched.getField("shared").get()).items().get(0);
+			assertThat(((SimpleValue) ((StructuredValue) item).getField("name").get()).get(), is("n" + i));
+		}
+	}
+}
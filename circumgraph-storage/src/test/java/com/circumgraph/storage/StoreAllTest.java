@@ -0,0 +1,94 @@
+package com.circumgraph.storage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.NonNullDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+
+public class StoreAllTest
+	extends SingleSchemaTest
+{
+	@Override
+	protected Schema createSchema()
+	{
+		return Schema.create()
+			.addType(ObjectDef.create("Test")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("value")
+					.withType(NonNullDef.output(ScalarDef.INT))
+					.build()
+				)
+				.build()
+			)
+			.build();
+	}
+
+	@Test
+	public void testStoreAllKeepsOrder()
+	{
+		var collection = storage.get("Test");
+
+		var stored = collection.storeAll(Flux.range(0, 1200)
+			.map(i -> collection.newMutation()
+				.updateField("value", ScalarValueMutation.createInt(i))
+				.build()
+			)
+		).collectList().block();
+
+		assertThat(stored.size(), is(1200));
+
+		for(int i=0; i<stored.size(); i++)
+		{
+			var value = stored.get(i);
+			assertThat(value.getField("value", SimpleValue.class).get().asInt(), is(i));
+
+			var fetched = collection.get(value.getId()).block();
+			assertThat(fetched, is(value));
+		}
+	}
+
+	@Test
+	public void testStoreAllEmpty()
+	{
+		var collection = storage.get("Test");
+
+		var stored = collection.storeAll(Flux.empty())
+			.collectList()
+			.block();
+
+		assertThat(stored.size(), is(0));
+	}
+
+	@Test
+	public void testStoreAllInTransaction()
+	{
+		var collection = storage.get("Test");
+
+		var tx = storage.transactions().newTransaction().block();
+		var stored = tx.wrap(collection.storeAll(Flux.range(0, 1200)
+			.map(i -> collection.newMutation()
+				.updateField("value", ScalarValueMutation.createInt(i))
+				.build()
+			)
+		)).collectList().block();
+
+		tx.commit().block();
+
+		assertThat(stored.size(), is(1200));
+
+		for(int i=0; i<stored.size(); i++)
+		{
+			var fetched = collection.get(stored.get(i).getId()).block();
+			assertThat(fetched.getField("value", SimpleValue.class).get().asInt(), is(i));
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.circumgraph.storage.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.Model;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.model.StructuredDef;
+import com.circumgraph.storage.ModelTest;
+import com.circumgraph.storage.SimpleValue;
+import com.circumgraph.storage.StorageSchema;
+import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.StructuredValue;
+import com.circumgraph.storage.Value;
+
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.map.MutableMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ObjectCodecImplTest
+	extends ModelTest
+{
+	@TempDir
+	Path tmp;
+
+	private Model createModel(boolean withDescription)
+	{
+		var type = ObjectDef.create("Book")
+			.addImplements(StorageSchema.ENTITY_NAME)
+			.addField(FieldDef.create("title")
+				.withType(ScalarDef.STRING)
+				.build()
+			);
+
+		if(withDescription)
+		{
+			type = type.addField(FieldDef.create("description")
+				.withType(ScalarDef.STRING)
+				.build()
+			);
+		}
+
+		return createModel(Schema.create()
+			.addType(type.build())
+			.build()
+		);
+	}
+
+	private ObjectCodecImpl createCodec(Model model)
+		throws IOException
+	{
+		var dictionary = SchemaDictionary.open(tmp.resolve("names.dictionary"), model);
+		return StorageImpl.generateCodecs(model, dictionary).get("Book");
+	}
+
+	private byte[] encode(ObjectCodecImpl codec, StoredObjectValue value)
+		throws IOException
+	{
+		var out = new ByteArrayOutputStream();
+		codec.encode(value, out);
+		return out.toByteArray();
+	}
+
+	private StoredObjectValue createBook(Model model, boolean withDescription)
+	{
+		var def = model.get("Book", StructuredDef.class).get();
+		MutableMap<String, Value> fields = Maps.mutable.of(
+			"id", new AutoGeneratedIdValue(1l),
+			"title", SimpleValue.createString("A Short History of Nearly Everything")
+		);
+
+		if(withDescription)
+		{
+			fields.put("description", SimpleValue.createString("Popular science"));
+		}
+
+		return new StoredObjectValueImpl(StructuredValue.create(def, fields));
+	}
+
+	@Test
+	public void testDecodeSingleField()
+		throws IOException
+	{
+		var model = createModel(true);
+		var codec = createCodec(model);
+		var book = createBook(model, true);
+
+		var decoded = codec.decode(new ByteArrayInputStream(encode(codec, book)));
+		assertThat(decoded.getId(), is(book.getId()));
+
+		var title = decoded.getField("title", SimpleValue.class).get();
+		assertThat(title.get(), is("A Short History of Nearly Everything"));
+		assertThat(decoded.getField("missing").isPresent(), is(false));
+	}
+
+	@Test
+	public void testDecodeAllFields()
+		throws IOException
+	{
+		var model = createModel(true);
+		var codec = createCodec(model);
+		var book = createBook(model, true);
+
+		var decoded = codec.decode(new ByteArrayInputStream(encode(codec, book)));
+		assertThat(decoded.getFields().size(), is(3));
+		assertThat(decoded, is(book));
+	}
+
+	@Test
+	public void testDecodeSkipsRemovedField()
+		throws IOException
+	{
+		var model = createModel(true);
+		var data = encode(createCodec(model), createBook(model, true));
+
+		var updatedModel = createModel(false);
+		var decoded = createCodec(updatedModel).decode(new ByteArrayInputStream(data));
+
+		assertThat(decoded.getField("description").isPresent(), is(false));
+		assertThat(decoded.getFields().size(), is(2));
+		assertThat(decoded, is(createBook(updatedModel, false)));
+	}
+}
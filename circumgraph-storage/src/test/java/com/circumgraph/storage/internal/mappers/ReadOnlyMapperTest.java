@@ -48,4 +48,23 @@ public class ReadOnlyMapperTest
 
 		assertThat(encounter.getErrors().isEmpty(), is(false));
 	}
+
+	@Test
+	public void testApplyMutationIsImmediate()
+	{
+		var mapper = new ReadOnlyMapper<>(new ScalarValueMapper(
+			ScalarDef.STRING
+		));
+
+		var encounter = new TestMappingEncounter();
+		var result = mapper.applyMutation(
+			encounter,
+			ObjectLocation.root(),
+			null,
+			ScalarValueMutation.createString("V1")
+		);
+
+		assertThat(ImmediateResults.isImmediate(result), is(true));
+		assertThat(ImmediateResults.get(result), is(SimpleValue.createString("V1")));
+	}
 }
@@ -1,8 +1,10 @@
 package com.circumgraph.storage.internal.mappers;
 
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.circumgraph.model.validation.ValidationMessage;
+import com.circumgraph.storage.Collection;
 import com.circumgraph.storage.Value;
 
 import org.eclipse.collections.api.factory.Lists;
@@ -40,6 +42,19 @@ public class TestMappingEncounter
 		errors.add(message);
 	}
 
+	@Override
+	public void verifyExists(
+		Collection collection,
+		String id,
+		Supplier<ValidationMessage> error
+	)
+	{
+		if(! collection.contains(id).block())
+		{
+			errors.add(error.get());
+		}
+	}
+
 	@Override
 	public Value externalize(Value value)
 	{
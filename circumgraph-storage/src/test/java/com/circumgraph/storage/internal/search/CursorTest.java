@@ -0,0 +1,60 @@
+package com.circumgraph.storage.internal.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.time.LocalDate;
+
+import com.circumgraph.storage.search.Cursor;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.junit.jupiter.api.Test;
+
+public class CursorTest
+{
+	@Test
+	public void testOffsetRoundtrip()
+	{
+		var cursor = new OffsetBasedCursor(16777300);
+		var decoded = Cursor.from(cursor.encode());
+
+		assertThat(decoded, is(cursor));
+	}
+
+	@Test
+	public void testKeysetRoundtrip()
+	{
+		var cursor = new KeysetCursor(
+			20,
+			Lists.immutable.of("A", 10, 2.5, true, LocalDate.of(2021, 10, 1)),
+			1234l
+		);
+
+		var decoded = Cursor.from(cursor.encode());
+
+		assertThat(decoded, is(cursor));
+	}
+
+	@Test
+	public void testKeysetEmptyValues()
+	{
+		var cursor = new KeysetCursor(0, Lists.immutable.empty(), 1l);
+		var decoded = Cursor.from(cursor.encode());
+
+		assertThat(decoded, is(cursor));
+	}
+
+	@Test
+	public void testKeysetLongString()
+	{
+		var cursor = new KeysetCursor(
+			5,
+			Lists.immutable.of("\u00e5".repeat(70_000)),
+			1l
+		);
+
+		var decoded = Cursor.from(cursor.encode());
+
+		assertThat(decoded, is(cursor));
+	}
+}
@@ -10,8 +10,10 @@ import com.circumgraph.model.ObjectDef;
 import com.circumgraph.model.ScalarDef;
 import com.circumgraph.storage.SimpleValue;
 import com.circumgraph.storage.StructuredValue;
+import com.circumgraph.storage.internal.SchemaDictionary;
 import com.circumgraph.storage.scalars.StringScalar;
 
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
 import org.junit.jupiter.api.Test;
 
@@ -35,7 +37,8 @@ public class StructuredValueSerializerTest
 			def,
 			Maps.immutable.of(
 				"name", new ScalarValueSerializer(new StringScalar())
-			)
+			),
+			null
 		);
 
 		var in = write(out -> {
@@ -68,7 +71,8 @@ public class StructuredValueSerializerTest
 			def,
 			Maps.immutable.of(
 				"name", new ScalarValueSerializer(new StringScalar())
-			)
+			),
+			null
 		);
 
 		var in = write(out -> {
@@ -103,7 +107,8 @@ public class StructuredValueSerializerTest
 			def,
 			Maps.immutable.of(
 				"name", new ScalarValueSerializer(new StringScalar())
-			)
+			),
+			null
 		);
 
 		var in = write(out -> {
@@ -141,18 +146,96 @@ public class StructuredValueSerializerTest
 			def,
 			Maps.immutable.of(
 				"name", new ScalarValueSerializer(new StringScalar())
+			),
+			null
+		);
+
+		var in = write(out -> {
+			instance.write(
+				StructuredValue.create(def)
+					.build(),
+				out
+			);
+		});
+
+		assertThat(in.next(), is(Token.OBJECT_START));
+		assertThat(in.next(), is(Token.OBJECT_END));
+	}
+
+	@Test
+	public void testReadFieldOrdinal()
+		throws IOException
+	{
+		var def = ObjectDef.create("Object")
+			.addField(FieldDef.create("name")
+				.withType(ScalarDef.STRING)
+				.build()
 			)
+			.build();
+
+		var dictionary = SchemaDictionary.create(Lists.immutable.of("Object", "name"));
+		var instance = new StructuredValueSerializer(
+			def,
+			Maps.immutable.of(
+				"name", new ScalarValueSerializer(new StringScalar())
+			),
+			dictionary
+		);
+
+		var in = write(out -> {
+			out.writeObjectStart();
+			out.writeInt(1);
+			out.writeString("Hello world");
+			out.writeInt(100);
+			out.writeInt(100);
+			out.writeObjectEnd();
+		});
+
+		var value = instance.read(in);
+		assertThat(value, is(
+			StructuredValue.create(def)
+				.add("name", SimpleValue.createString("Hello world"))
+				.build()
+		));
+	}
+
+	@Test
+	public void testWriteFieldOrdinal()
+		throws IOException
+	{
+		var def = ObjectDef.create("Object")
+			.addField(FieldDef.create("name")
+				.withType(ScalarDef.STRING)
+				.build()
+			)
+			.build();
+
+		var dictionary = SchemaDictionary.create(Lists.immutable.of("Object", "name"));
+		var instance = new StructuredValueSerializer(
+			def,
+			Maps.immutable.of(
+				"name", new ScalarValueSerializer(new StringScalar())
+			),
+			dictionary
 		);
 
 		var in = write(out -> {
 			instance.write(
 				StructuredValue.create(def)
+					.add("name", SimpleValue.createString("Hello world"))
 					.build(),
 				out
 			);
 		});
 
 		assertThat(in.next(), is(Token.OBJECT_START));
+
+		assertThat(in.next(), is(Token.VALUE));
+		assertThat(in.readInt(), is(1));
+
+		assertThat(in.next(), is(Token.VALUE));
+		assertThat(in.readString(), is("Hello world"));
+
 		assertThat(in.next(), is(Token.OBJECT_END));
 	}
 }
@@ -12,6 +12,7 @@ import com.circumgraph.storage.SimpleValue;
 import com.circumgraph.storage.SingleSchemaTest;
 import com.circumgraph.storage.StorageSchema;
 import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.search.Page;
 import com.circumgraph.storage.search.Query;
 import com.circumgraph.storage.search.QueryPath;
 
@@ -119,4 +120,27 @@ public class IntIndexTest
 
 		assertThat(results.getTotalCount(), is(0));
 	}
+
+	@Test
+	public void testQueryCountOnly()
+	{
+		var collection = storage.get("Test");
+
+		for(int i=0; i<5; i++)
+		{
+			collection.store(collection.newMutation()
+				.updateField("value", ScalarValueMutation.createInt(i))
+				.build()
+			).block();
+		}
+
+		var results = collection.search(Query.create()
+			.withPage(Page.first(2))
+			.withItemsNeeded(false)
+		).block();
+
+		assertThat(results.getTotalCount(), is(5));
+		assertThat(results.getEdges().isEmpty(), is(true));
+		assertThat(results.getPageInfo().hasNextPage(), is(true));
+	}
 }
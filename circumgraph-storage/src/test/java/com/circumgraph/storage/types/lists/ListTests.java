@@ -13,15 +13,23 @@ import com.circumgraph.model.NonNullDef;
 import com.circumgraph.model.ObjectDef;
 import com.circumgraph.model.ScalarDef;
 import com.circumgraph.model.Schema;
+import com.circumgraph.model.validation.ValidationMessageLevel;
+import com.circumgraph.storage.Collection;
 import com.circumgraph.storage.ListValue;
 import com.circumgraph.storage.SimpleValue;
+import com.circumgraph.storage.Storage;
 import com.circumgraph.storage.StorageSchema;
 import com.circumgraph.storage.StorageTest;
 import com.circumgraph.storage.StorageValidationException;
+import com.circumgraph.storage.StoredObjectValue;
+import com.circumgraph.storage.mutation.ListAddMutation;
+import com.circumgraph.storage.mutation.ListInsertMutation;
+import com.circumgraph.storage.mutation.ListRemoveMutation;
 import com.circumgraph.storage.mutation.ListSetMutation;
 import com.circumgraph.storage.mutation.NullMutation;
 import com.circumgraph.storage.mutation.ScalarValueMutation;
 
+import org.eclipse.collections.api.factory.Lists;
 import org.junit.jupiter.api.Test;
 
 public class ListTests
@@ -251,4 +259,192 @@ public class ListTests
 			collection.store(mutation).block();
 		});
 	}
+
+	private Storage openStrings()
+	{
+		return open(Schema.create()
+			.addType(ObjectDef.create("Test")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("titles")
+					.withType(ListDef.output(ScalarDef.STRING))
+					.build()
+				)
+				.build()
+			)
+			.build()
+		);
+	}
+
+	private StoredObjectValue storeStrings(Collection collection, String... values)
+	{
+		var items = Lists.mutable.<ScalarValueMutation<String>>empty();
+		for(var value : values)
+		{
+			items.add(ScalarValueMutation.createString(value));
+		}
+
+		return collection.store(collection.newMutation()
+			.updateField("titles", ListSetMutation.create(items))
+			.build()
+		).block();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testListAdd()
+	{
+		var collection = openStrings().get("Test");
+		var stored = storeStrings(collection, "a");
+
+		collection.store(stored.getId(), collection.newMutation()
+			.updateField("titles", ListAddMutation.create(
+				ScalarValueMutation.createString("b"),
+				ScalarValueMutation.createString("c")
+			))
+			.build()
+		).block();
+
+		var fetched = collection.get(stored.getId()).block();
+
+		var titles = (ListValue<? extends SimpleValue>) fetched.getField("titles", ListValue.class).get();
+		assertThat(titles.items(), contains(
+			SimpleValue.createString("a"),
+			SimpleValue.createString("b"),
+			SimpleValue.createString("c")
+		));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testListAddToMissing()
+	{
+		var collection = openStrings().get("Test");
+		var stored = collection.store(collection.newMutation()
+			.updateField("titles", ListAddMutation.create(
+				ScalarValueMutation.createString("a")
+			))
+			.build()
+		).block();
+
+		var fetched = collection.get(stored.getId()).block();
+
+		var titles = (ListValue<? extends SimpleValue>) fetched.getField("titles", ListValue.class).get();
+		assertThat(titles.items(), contains(
+			SimpleValue.createString("a")
+		));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testListInsert()
+	{
+		var collection = openStrings().get("Test");
+		var stored = storeStrings(collection, "a", "c");
+
+		collection.store(stored.getId(), collection.newMutation()
+			.updateField("titles", ListInsertMutation.create(
+				1,
+				ScalarValueMutation.createString("b")
+			))
+			.build()
+		).block();
+
+		var fetched = collection.get(stored.getId()).block();
+
+		var titles = (ListValue<? extends SimpleValue>) fetched.getField("titles", ListValue.class).get();
+		assertThat(titles.items(), contains(
+			SimpleValue.createString("a"),
+			SimpleValue.createString("b"),
+			SimpleValue.createString("c")
+		));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testListInsertAtEnd()
+	{
+		var collection = openStrings().get("Test");
+		var stored = storeStrings(collection, "a");
+
+		collection.store(stored.getId(), collection.newMutation()
+			.updateField("titles", ListInsertMutation.create(
+				1,
+				ScalarValueMutation.createString("b")
+			))
+			.build()
+		).block();
+
+		var fetched = collection.get(stored.getId()).block();
+
+		var titles = (ListValue<? extends SimpleValue>) fetched.getField("titles", ListValue.class).get();
+		assertThat(titles.items(), contains(
+			SimpleValue.createString("a"),
+			SimpleValue.createString("b")
+		));
+	}
+
+	@Test
+	public void testListInsertInvalidIndex()
+	{
+		var collection = openStrings().get("Test");
+		var stored = storeStrings(collection, "a");
+
+		var e = assertThrows(StorageValidationException.class, () -> {
+			collection.store(stored.getId(), collection.newMutation()
+				.updateField("titles", ListInsertMutation.create(
+					2,
+					ScalarValueMutation.createString("b")
+				))
+				.build()
+			).block();
+		});
+
+		var msg = e.getIssues().getFirst();
+		assertThat(msg.getLevel(), is(ValidationMessageLevel.ERROR));
+		assertThat(msg.getCode(), is("storage:mutation:invalid-list-index"));
+		assertThat(msg.getLocation().describe(), is("titles"));
+	}
+
+	@Test
+	public void testListInsertNegativeIndex()
+	{
+		var collection = openStrings().get("Test");
+		var stored = storeStrings(collection, "a");
+
+		var e = assertThrows(StorageValidationException.class, () -> {
+			collection.store(stored.getId(), collection.newMutation()
+				.updateField("titles", ListInsertMutation.create(
+					-1,
+					ScalarValueMutation.createString("b")
+				))
+				.build()
+			).block();
+		});
+
+		var msg = e.getIssues().getFirst();
+		assertThat(msg.getCode(), is("storage:mutation:invalid-list-index"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testListRemove()
+	{
+		var collection = openStrings().get("Test");
+		var stored = storeStrings(collection, "a", "b", "a", "c");
+
+		collection.store(stored.getId(), collection.newMutation()
+			.updateField("titles", ListRemoveMutation.create(
+				ScalarValueMutation.createString("a")
+			))
+			.build()
+		).block();
+
+		var fetched = collection.get(stored.getId()).block();
+
+		var titles = (ListValue<? extends SimpleValue>) fetched.getField("titles", ListValue.class).get();
+		assertThat(titles.items(), contains(
+			SimpleValue.createString("b"),
+			SimpleValue.createString("c")
+		));
+	}
 }
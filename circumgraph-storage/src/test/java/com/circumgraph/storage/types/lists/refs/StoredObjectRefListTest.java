@@ -0,0 +1,89 @@
+package com.circumgraph.storage.types.lists.refs;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.ListDef;
+import com.circumgraph.model.NonNullDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.ListValue;
+import com.circumgraph.storage.SingleSchemaTest;
+import com.circumgraph.storage.StorageSchema;
+import com.circumgraph.storage.StoredObjectRef;
+import com.circumgraph.storage.mutation.ListRemoveMutation;
+import com.circumgraph.storage.mutation.ListSetMutation;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.mutation.StoredObjectRefMutation;
+
+import org.junit.jupiter.api.Test;
+
+public class StoredObjectRefListTest
+	extends SingleSchemaTest
+{
+	@Override
+	protected Schema createSchema()
+	{
+		return Schema.create()
+			.addType(ObjectDef.create("Book")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("authors")
+					.withType(NonNullDef.output(
+						ListDef.output(NonNullDef.output("Author"))
+					))
+					.build()
+				)
+				.build()
+			)
+			.addType(ObjectDef.create("Author")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("name")
+					.withType(NonNullDef.output(ScalarDef.STRING))
+					.build()
+				)
+				.build()
+			)
+			.build();
+	}
+
+	@Test
+	public void testRemoveDeletedReference()
+	{
+		var authors = storage.get("Author");
+
+		var a1 = authors.store(authors.newMutation()
+			.updateField("name", ScalarValueMutation.createString("Author 1"))
+			.build()
+		).block();
+
+		var a2 = authors.store(authors.newMutation()
+			.updateField("name", ScalarValueMutation.createString("Author 2"))
+			.build()
+		).block();
+
+		var books = storage.get("Book");
+
+		var book = books.store(books.newMutation()
+			.updateField("authors", ListSetMutation.create(
+				StoredObjectRefMutation.create(authors.getDefinition(), a1.getId()),
+				StoredObjectRefMutation.create(authors.getDefinition(), a2.getId())
+			))
+			.build()
+		).block();
+
+		authors.delete(a1.getId()).block();
+
+		var updated = books.store(book.getId(), books.newMutation()
+			.updateField("authors", ListRemoveMutation.create(
+				StoredObjectRefMutation.create(authors.getDefinition(), a1.getId())
+			))
+			.build()
+		).block();
+
+		var refs = updated.getField("authors", ListValue.class).get();
+		assertThat(refs.items().size(), is(1));
+		assertThat(((StoredObjectRef) refs.items().get(0)).getId(), is(a2.getId()));
+	}
+}
@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.circumgraph.model.FieldDef;
 import com.circumgraph.model.InterfaceDef;
 import com.circumgraph.model.ListDef;
+import com.circumgraph.model.ObjectLocation;
 import com.circumgraph.model.ObjectDef;
 import com.circumgraph.model.ScalarDef;
 import com.circumgraph.model.Schema;
@@ -180,6 +181,55 @@ public class StoredObjectRefTest
 		assertThat(fetchedAuthorRef.getId(), is(authorId));
 	}
 
+	@Test
+	public void testStoreListNonExistent()
+	{
+		var storage = open(Schema.create()
+			.addType(ObjectDef.create("Book")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("authors")
+					.withType(ListDef.output("Author"))
+					.build()
+				)
+				.build()
+			)
+			.addType(ObjectDef.create("Author")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("name")
+					.withType(ScalarDef.STRING)
+					.build()
+				)
+				.build()
+			)
+			.build());
+
+		var authors = storage.get("Author");
+
+		var author = authors.store(authors.newMutation()
+			.updateField("name", ScalarValueMutation.createString("Example Author"))
+			.build()
+		).block();
+
+		var books = storage.get("Book");
+
+		var e = assertThrows(StorageValidationException.class, () -> {
+			books.store(books.newMutation()
+				.updateField("authors", ListSetMutation.create(
+					StoredObjectRefMutation.create(authors.getDefinition(), author.getId()),
+					StoredObjectRefMutation.create(authors.getDefinition(), 1l),
+					StoredObjectRefMutation.create(authors.getDefinition(), 2l)
+				))
+				.build()
+			).block();
+		});
+
+		assertThat(e.getIssues().size(), is(2));
+
+		var issue = e.getIssues().getFirst();
+		assertThat(issue.getCode(), is("storage:mutation:invalid-reference"));
+		assertThat(issue.getLocation().describe(), is(ObjectLocation.root().forField("authors").describe()));
+	}
+
 	@Test
 	public void testStoreUnion()
 	{
@@ -0,0 +1,125 @@
+package com.circumgraph.storage.types.strings;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+import com.circumgraph.model.DirectiveUse;
+import com.circumgraph.model.FieldDef;
+import com.circumgraph.model.ObjectDef;
+import com.circumgraph.model.ScalarDef;
+import com.circumgraph.model.Schema;
+import com.circumgraph.storage.SimpleValue;
+import com.circumgraph.storage.SingleSchemaTest;
+import com.circumgraph.storage.StorageSchema;
+import com.circumgraph.storage.mutation.ScalarValueMutation;
+import com.circumgraph.storage.search.Query;
+import com.circumgraph.storage.search.QueryPath;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import se.l4.silo.index.search.query.UserQuery;
+
+public class StringSearchScoresTest
+	extends SingleSchemaTest
+{
+	@Override
+	protected Schema createSchema()
+	{
+		return Schema.create()
+			.addType(ObjectDef.create("Book")
+				.addImplements(StorageSchema.ENTITY_NAME)
+				.addField(FieldDef.create("title")
+					.withType(ScalarDef.STRING)
+					.addDirective(DirectiveUse.create("index")
+						.addArgument("type", "FULL_TEXT")
+						.build()
+					)
+					.build()
+				)
+				.addField(FieldDef.create("year")
+					.withType(ScalarDef.INT)
+					.addDirective(DirectiveUse.create("index").build())
+					.addDirective(DirectiveUse.create("sortable").build())
+					.build()
+				)
+				.build()
+			)
+			.build();
+	}
+
+	@BeforeEach
+	public void storeBooks()
+	{
+		var collection = storage.get("Book");
+
+		collection.store(collection.newMutation()
+			.updateField("title", ScalarValueMutation.createString("A Short History of Nearly Everything"))
+			.updateField("year", ScalarValueMutation.createInt(2003))
+			.build()
+		).block();
+
+		collection.store(collection.newMutation()
+			.updateField("title", ScalarValueMutation.createString("History"))
+			.updateField("year", ScalarValueMutation.createInt(2010))
+			.build()
+		).block();
+	}
+
+	private Query createQuery()
+	{
+		var collection = storage.get("Book");
+		var root = QueryPath.root(collection.getDefinition());
+		return Query.create()
+			.addClause(root.field("title").toQuery(UserQuery.matcher("history")));
+	}
+
+	@Test
+	public void testUnsortedOrdersByRelevance()
+	{
+		var results = storage.get("Book").search(createQuery()).block();
+		assertThat(results.getTotalCount(), is(2));
+
+		var edges = results.getEdges();
+		var first = (SimpleValue) edges.get(0).getNode().getFields().get("title");
+		assertThat(first.get(), is("History"));
+
+		assertThat(edges.get(1).getScore(), greaterThan(0f));
+		assertThat(edges.get(0).getScore(), greaterThanOrEqualTo(edges.get(1).getScore()));
+	}
+
+	@Test
+	public void testSortedWithoutScores()
+	{
+		var results = storage.get("Book").search(createQuery()
+			.addSort("year", true)
+		).block();
+
+		assertThat(results.getTotalCount(), is(2));
+
+		var edges = results.getEdges();
+		var first = (SimpleValue) edges.get(0).getNode().getFields().get("title");
+		assertThat(first.get(), is("A Short History of Nearly Everything"));
+
+		for(var edge : edges)
+		{
+			assertThat(edge.getScore(), is(0f));
+		}
+	}
+
+	@Test
+	public void testSortedWithScores()
+	{
+		var results = storage.get("Book").search(createQuery()
+			.addSort("year", true)
+			.withScoresNeeded(true)
+		).block();
+
+		for(var edge : results.getEdges())
+		{
+			assertThat(edge.getScore(), greaterThan(0f));
+		}
+	}
+}